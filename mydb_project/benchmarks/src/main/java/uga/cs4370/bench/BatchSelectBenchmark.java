@@ -0,0 +1,85 @@
+package uga.cs4370.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.bench.Datasets.Table;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydbimpl.RAimpl;
+
+/**
+ * Throughput of selections on numeric attributes, which filter in batches.
+ * The benchmarks run with the jdk.incubator.vector module loaded, so the
+ * comparisons use the Vector API; the Scalar variants run the same
+ * selections with the plain batch kernels (-Dmydb.vector=false).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchSelectBenchmark {
+
+    @Param({"10", "100"})
+    public int scale;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    private final RA ra = new RAimpl();
+
+    private Relation takes;
+    private Relation instructor;
+
+    // Selective, so that the comparisons and not the copies of the selected
+    // rows take most of the time.
+    private final Condition yearCourse = Condition.col("year").eq(2009)
+            .and(Condition.col("course_id").lt(200));
+
+    private final Condition salary = Condition.col("salary").gt(110000.0);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        takes = Datasets.load(Table.TAKES, scale, storage);
+        instructor = Datasets.load(Table.INSTRUCTOR, scale, storage);
+    }
+
+    @Benchmark
+    public Relation selectInt() {
+        return ra.select(takes, yearCourse);
+    }
+
+    @Benchmark
+    public Relation selectDouble() {
+        return ra.select(instructor, salary);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dmydb.vector=false"})
+    public Relation selectIntScalar() {
+        return ra.select(takes, yearCourse);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dmydb.vector=false"})
+    public Relation selectDoubleScalar() {
+        return ra.select(instructor, salary);
+    }
+
+}
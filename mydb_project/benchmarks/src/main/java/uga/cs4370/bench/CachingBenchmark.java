@@ -0,0 +1,74 @@
+package uga.cs4370.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.bench.Datasets.Table;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydbimpl.CachingRA;
+import uga.cs4370.mydbimpl.RAimpl;
+
+/**
+ * Throughput of a report that joins the same relations on every run and
+ * selects a different year on top, evaluated directly and through a
+ * result cache. The selection is a new condition on every run, so only
+ * the join is found in the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingBenchmark {
+
+    @Param({"1", "10"})
+    public int scale;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    private final RA ra = new RAimpl();
+    private final RA cached = new CachingRA(ra);
+
+    private Relation instructor;
+    private Relation teaches;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        instructor = Datasets.load(Table.INSTRUCTOR, scale, storage);
+        teaches = Datasets.load(Table.TEACHES, scale, storage);
+    }
+
+    @Benchmark
+    public Relation report() {
+        return report(ra);
+    }
+
+    @Benchmark
+    public Relation reportCached() {
+        return report(cached);
+    }
+
+    private Relation report(RA ra) {
+        Condition year = Condition.col("year").eq(2001 + run++ % 10);
+        return ra.select(ra.join(instructor, teaches), year);
+    }
+
+}
@@ -0,0 +1,136 @@
+package uga.cs4370.bench;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.mydb.Cell;
+
+/**
+ * Hashing, equality and hash set insertion of Cell compared with the 
+ * original boxed implementation in LegacyCell. Each operation covers 
+ * an array of 4096 cells.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellBenchmark {
+
+    private static final int CELLS = 4096;
+
+    @Param({"INTEGER", "DOUBLE", "STRING"})
+    public String type;
+
+    private Cell[] cells;
+    private Cell[] otherCells;
+    private LegacyCell[] legacyCells;
+    private LegacyCell[] otherLegacyCells;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        cells = new Cell[CELLS];
+        otherCells = new Cell[CELLS];
+        legacyCells = new LegacyCell[CELLS];
+        otherLegacyCells = new LegacyCell[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            int value = random.nextInt(100_000);
+            switch (type) {
+                case "INTEGER":
+                    cells[i] = Cell.val(value);
+                    otherCells[i] = Cell.val(value);
+                    legacyCells[i] = LegacyCell.val(value);
+                    otherLegacyCells[i] = LegacyCell.val(value);
+                    break;
+                case "DOUBLE":
+                    cells[i] = Cell.val(value / 100.0);
+                    otherCells[i] = Cell.val(value / 100.0);
+                    legacyCells[i] = LegacyCell.val(value / 100.0);
+                    otherLegacyCells[i] = LegacyCell.val(value / 100.0);
+                    break;
+                default:
+                    cells[i] = Cell.val("value" + value);
+                    otherCells[i] = Cell.val(new String("value" + value));
+                    legacyCells[i] = LegacyCell.val("value" + value);
+                    otherLegacyCells[i] = LegacyCell.val(new String("value" + value));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public int hashCode_cell() {
+        int h = 0;
+        for (Cell cell : cells) {
+            h += cell.hashCode();
+        }
+        return h;
+    }
+
+    @Benchmark
+    public int hashCode_legacy() {
+        int h = 0;
+        for (LegacyCell cell : legacyCells) {
+            h += cell.hashCode();
+        }
+        return h;
+    }
+
+    @Benchmark
+    public int equals_cell() {
+        int n = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i].equals(otherCells[i])) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int equals_legacy() {
+        int n = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (legacyCells[i].equals(otherLegacyCells[i])) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public Set<Cell> hashSet_cell() {
+        Set<Cell> set = new HashSet<>(CELLS * 2);
+        for (Cell cell : cells) {
+            set.add(cell);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public Set<LegacyCell> hashSet_legacy() {
+        Set<LegacyCell> set = new HashSet<>(CELLS * 2);
+        for (LegacyCell cell : legacyCells) {
+            set.add(cell);
+        }
+        return set;
+    }
+
+}
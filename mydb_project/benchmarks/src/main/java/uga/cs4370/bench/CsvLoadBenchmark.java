@@ -0,0 +1,140 @@
+package uga.cs4370.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uga.cs4370.bench.Datasets.Table;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Loading speed of Relation.loadData, sequential and parallel on all 
+ * available processors, compared with the original loader and with 
+ * opening the same table saved in the binary format, alone and followed 
+ * by a read of every cell. The megabytes counter reports the throughput 
+ * in MB/s of CSV input, also for the binary file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvLoadBenchmark {
+
+    @Param({"TAKES", "STUDENT"})
+    public Table table;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    private String path;
+    private String savedPath; // The table saved with Relation.save.
+    private double fileMegabytes;
+
+    /**
+     * Counts the megabytes parsed, reported by JMH as MB/s.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        path = Datasets.csvPath(table);
+        fileMegabytes = new File(path).length() / 1e6;
+        Relation rel = Datasets.empty(table, storage);
+        rel.loadData(path);
+        try {
+            File saved = File.createTempFile("mydb-bench-", ".mydb");
+            saved.deleteOnExit();
+            savedPath = saved.getPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rel.save(savedPath);
+    }
+
+    @Benchmark
+    public Relation loadData(Bytes bytes) {
+        Relation rel = Datasets.empty(table, storage);
+        rel.loadData(path);
+        bytes.megabytes += fileMegabytes;
+        return rel;
+    }
+
+    @Benchmark
+    public Relation loadDataParallel(Bytes bytes) {
+        Relation rel = Datasets.empty(table, storage);
+        rel.loadData(path, Runtime.getRuntime().availableProcessors());
+        bytes.megabytes += fileMegabytes;
+        return rel;
+    }
+
+    @Benchmark
+    public Relation legacyLoadData(Bytes bytes) throws IOException {
+        Relation rel = Datasets.empty(table, storage);
+        LegacyCsvLoader.load(rel, path);
+        bytes.megabytes += fileMegabytes;
+        return rel;
+    }
+
+    @Benchmark
+    public Relation open(Bytes bytes) {
+        Relation rel = new RelationBuilder().open(savedPath);
+        bytes.megabytes += fileMegabytes;
+        return rel;
+    }
+
+    @Benchmark
+    public void openAndScan(Bytes bytes, Blackhole bh) {
+        Relation rel = new RelationBuilder().open(savedPath);
+        List<Type> types = rel.getTypes();
+        int size = rel.getSize();
+        for (int j = 0; j < types.size(); ++j) {
+            for (int i = 0; i < size; ++i) {
+                switch (types.get(j)) {
+                    case INTEGER:
+                        bh.consume(rel.getInt(i, j));
+                        break;
+                    case DOUBLE:
+                        bh.consume(rel.getDouble(i, j));
+                        break;
+                    default:
+                        bh.consume(rel.getString(i, j));
+                        break;
+                }
+            }
+        }
+        bytes.megabytes += fileMegabytes;
+    }
+
+}
@@ -0,0 +1,163 @@
+package uga.cs4370.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Inputs for the benchmarks. Relations are either loaded from the 
+ * university exports in mysql_files and scaled up synthetically, or 
+ * generated at random.
+ */
+public final class Datasets {
+
+    /**
+     * Offset added to the key columns of each synthetic copy of a table, so
+     * that copies do not collide and join results grow linearly with the
+     * scale factor.
+     */
+    static final int KEY_OFFSET = 1_000_000;
+
+    private Datasets() {
+    }
+
+    /**
+     * The university tables used by the benchmarks.
+     */
+    public enum Table {
+        TAKES("takes_export.csv",
+                List.of("ID", "course_id", "sec_id", "semester", "year", "grade"),
+                List.of(Type.INTEGER, Type.INTEGER, Type.INTEGER, Type.STRING, Type.INTEGER, Type.STRING),
+                "ID"),
+        STUDENT("student_export.csv",
+                List.of("ID", "name", "dept_name", "tot_cred"),
+                List.of(Type.INTEGER, Type.STRING, Type.STRING, Type.INTEGER),
+                "ID"),
+        INSTRUCTOR("instructor_export.csv",
+                List.of("instructor_id", "instructor_name", "department", "salary"),
+                List.of(Type.INTEGER, Type.STRING, Type.STRING, Type.DOUBLE),
+                "instructor_id"),
+        TEACHES("teaches_export.csv",
+                List.of("instructor_id", "course_id", "sec_id", "semester", "year"),
+                List.of(Type.INTEGER, Type.INTEGER, Type.INTEGER, Type.STRING, Type.INTEGER),
+                "instructor_id"),
+        COURSE("course_export.csv",
+                List.of("course_id", "title", "dept_name", "credits"),
+                List.of(Type.INTEGER, Type.STRING, Type.STRING, Type.INTEGER),
+                null),
+        DEPARTMENT("department_export.csv",
+                List.of("dept_name", "building", "budget"),
+                List.of(Type.STRING, Type.STRING, Type.DOUBLE),
+                null),
+        CLASSROOM("classroom_export.csv",
+                List.of("building", "room_number", "capacity"),
+                List.of(Type.STRING, Type.INTEGER, Type.INTEGER),
+                null);
+
+        final String file;
+        final List<String> attrs;
+        final List<Type> types;
+        final String keyAttr; // Integer column offset in synthetic copies, or null.
+
+        Table(String file, List<String> attrs, List<Type> types, String keyAttr) {
+            this.file = file;
+            this.attrs = attrs;
+            this.types = types;
+            this.keyAttr = keyAttr;
+        }
+    }
+
+    /**
+     * Returns the directory holding the CSV exports. It is taken from the 
+     * mydb.data system property, or found relative to the working directory.
+     */
+    public static File dataDir() {
+        String dir = System.getProperty("mydb.data");
+        if (dir != null) {
+            return new File(dir);
+        }
+        for (String candidate : List.of("mysql_files", "../mysql_files")) {
+            File file = new File(candidate);
+            if (file.isDirectory()) {
+                return file;
+            }
+        }
+        throw new IllegalStateException("Can not find mysql_files, set -Dmydb.data=<dir>.");
+    }
+
+    /**
+     * Returns the path of the CSV export of a table.
+     */
+    public static String csvPath(Table table) {
+        return new File(dataDir(), table.file).getPath();
+    }
+
+    /**
+     * Returns an empty relation with the schema of a table.
+     */
+    public static Relation empty(Table table, Storage storage) {
+        return new RelationBuilder()
+                .attributeNames(table.attrs)
+                .attributeTypes(table.types)
+                .storage(storage)
+                .build();
+    }
+
+    /**
+     * Loads a table and scales it up by the given factor. Copy c of each 
+     * row has c * KEY_OFFSET added to the key column of the table.
+     */
+    public static Relation load(Table table, int scale, Storage storage) {
+        Relation base = empty(table, storage);
+        base.loadData(csvPath(table));
+        if (scale == 1) {
+            return base;
+        }
+        Relation scaled = empty(table, storage);
+        int key = table.keyAttr == null ? -1 : base.getAttrIndex(table.keyAttr);
+        for (int c = 0; c < scale; c++) {
+            for (int i = 0; i < base.getSize(); i++) {
+                List<Cell> row = base.getRow(i);
+                if (key >= 0) {
+                    row.set(key, Cell.val(row.get(key).getAsInt() + c * KEY_OFFSET));
+                }
+                scaled.insert(row);
+            }
+        }
+        return scaled;
+    }
+
+    /**
+     * Generates a relation (key INTEGER, val DOUBLE, tag STRING) with 
+     * the given number of rows. Keys are drawn from [0, distinctKeys) and 
+     * tags from a pool of 16 strings.
+     * 
+     * @param prefix prefix of the attribute names, so that two random 
+     *               relations can be made to share only the key attribute.
+     */
+    public static Relation random(int rows, int distinctKeys, long seed, String prefix, Storage storage) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(List.of("key", prefix + "val", prefix + "tag"))
+                .attributeTypes(List.of(Type.INTEGER, Type.DOUBLE, Type.STRING))
+                .storage(storage)
+                .build();
+        Random random = new Random(seed);
+        List<Cell> row = new ArrayList<>(3);
+        for (int i = 0; i < rows; i++) {
+            row.clear();
+            row.add(Cell.val(random.nextInt(distinctKeys)));
+            row.add(Cell.val(random.nextDouble() * 1000));
+            row.add(Cell.val("tag" + random.nextInt(16)));
+            rel.insert(row);
+        }
+        return rel;
+    }
+
+}
@@ -0,0 +1,46 @@
+package uga.cs4370.bench;
+
+/**
+ * Copy of the original Cell implementation, which boxes its value and 
+ * hashes through a String. Kept as the baseline for CellBenchmark.
+ */
+final class LegacyCell {
+
+    private Object data;
+    private String typeName;
+
+    private LegacyCell(Object data, String typeName) {
+        this.data = data;
+        this.typeName = typeName;
+    }
+
+    static LegacyCell val(int data) {
+        return new LegacyCell(data, "INTEGER");
+    }
+
+    static LegacyCell val(double data) {
+        return new LegacyCell(data, "DOUBLE");
+    }
+
+    static LegacyCell val(String data) {
+        return new LegacyCell(data, "STRING");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        LegacyCell that = (LegacyCell)obj;
+        return typeName.equals(that.typeName) && data.equals(that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return (data.toString() + ':' + typeName).hashCode();
+    }
+
+}
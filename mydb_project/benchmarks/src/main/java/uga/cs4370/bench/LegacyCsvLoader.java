@@ -0,0 +1,50 @@
+package uga.cs4370.bench;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Copy of the original line splitting and regex based loadData, kept as
+ * the baseline for CsvLoadBenchmark.
+ */
+final class LegacyCsvLoader {
+
+    private LegacyCsvLoader() {
+    }
+
+    static void load(Relation relation, String path) throws IOException {
+        List<Type> types = relation.getTypes();
+        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] values = line.split("\",\"", -1);
+                values[0] = values[0].replaceFirst("^\"", "");
+                values[values.length - 1] = values[values.length - 1].replaceAll("\"$", "");
+                List<Cell> row = new ArrayList<>();
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = values[i].replace("\"\"", "\"");
+                    switch (types.get(i)) {
+                        case INTEGER:
+                            row.add(Cell.val(Integer.parseInt(values[i])));
+                            break;
+                        case DOUBLE:
+                            row.add(Cell.val(Double.parseDouble(values[i])));
+                            break;
+                        case STRING:
+                            row.add(Cell.val(values[i]));
+                            break;
+                    }
+                }
+                relation.insert(row);
+            }
+        }
+    }
+
+}
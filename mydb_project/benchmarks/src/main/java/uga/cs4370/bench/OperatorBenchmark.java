@@ -0,0 +1,192 @@
+package uga.cs4370.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.bench.Datasets.Table;
+import uga.cs4370.mydb.Aggregate;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.IndexType;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydb.Type;
+import uga.cs4370.mydbimpl.RAimpl;
+
+/**
+ * Throughput of every RA operator on the university exports, scaled up 
+ * synthetically by the scale factor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    private static final List<String> TAKES_ATTRS = 
+            List.of("ID", "course_id", "sec_id", "semester", "year", "grade");
+    private static final List<String> TAKES_RENAMED = 
+            List.of("student_id", "takes_course_id", "takes_sec_id", "takes_semester", "takes_year", "takes_grade");
+
+    private final RA ra = new RAimpl();
+
+    private Relation takes;
+    private Relation takesIndexed; // takes with a hash index on course_id
+    private Relation takesFall;
+    private Relation takesSpring;
+    private Relation student;
+    private Relation takesById; // takes sorted on ID
+    private Relation studentById; // student sorted on ID
+    private Relation instructor;
+    private Relation department;
+    private Relation classroom; // classroom with building renamed to room_building
+
+    private final Predicate gradeYearCourse = row -> row.get(5).getAsString().equals("A ")
+            && row.get(4).getAsInt() == 2003 && row.get(1).getAsInt() == 748;
+
+    private final Condition gradeYearCourseCondition = Condition.col("grade").eq("A ")
+            .and(Condition.col("year").eq(2003)).and(Condition.col("course_id").eq(748));
+
+    private final Condition fallCondition = Condition.col("semester").eq("Fall");
+
+    private final PrintStream discarded = new PrintStream(OutputStream.nullOutputStream());
+
+    private final Predicate sameDepartment = row -> row.get(2).equals(row.get(4));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        takes = Datasets.load(Table.TAKES, scale, storage);
+        takesIndexed = Datasets.load(Table.TAKES, scale, storage);
+        takesIndexed.createIndex("takes_course", List.of("course_id"), IndexType.HASH);
+        takesFall = ra.select(takes, row -> row.get(3).getAsString().equals("Fall"));
+        takesSpring = ra.select(takes, row -> row.get(3).getAsString().equals("Spring"));
+        student = Datasets.load(Table.STUDENT, scale, storage);
+        takesById = ra.sort(takes, List.of("ID"), true);
+        studentById = ra.sort(student, List.of("ID"), true);
+        instructor = Datasets.load(Table.INSTRUCTOR, scale, storage);
+        department = Datasets.load(Table.DEPARTMENT, scale, storage);
+        classroom = new RelationBuilder()
+                .attributeNames(List.of("room_building", "room_number", "capacity"))
+                .attributeTypes(List.of(Type.STRING, Type.INTEGER, Type.INTEGER))
+                .storage(storage)
+                .build();
+        classroom.loadData(Datasets.csvPath(Table.CLASSROOM));
+    }
+
+    @Benchmark
+    public Relation select() {
+        return ra.select(takes, gradeYearCourse);
+    }
+
+    @Benchmark
+    public Relation selectCondition() {
+        return ra.select(takes, gradeYearCourseCondition);
+    }
+
+    @Benchmark
+    public Relation selectString() {
+        return ra.select(takes, fallCondition);
+    }
+
+    @Benchmark
+    public Relation selectIndexed() {
+        return ra.select(takesIndexed, gradeYearCourseCondition);
+    }
+
+    @Benchmark
+    public Relation project() {
+        return ra.project(takes, List.of("ID", "course_id"));
+    }
+
+    @Benchmark
+    public Relation projectDistinct() {
+        return ra.project(takes, List.of("course_id", "semester"), true);
+    }
+
+    @Benchmark
+    public Relation union() {
+        return ra.union(takesFall, takesSpring);
+    }
+
+    @Benchmark
+    public Relation diff() {
+        return ra.diff(takes, takesFall);
+    }
+
+    @Benchmark
+    public Relation rename() {
+        return ra.rename(takes, TAKES_ATTRS, TAKES_RENAMED);
+    }
+
+    @Benchmark
+    public Relation cartesianProduct() {
+        return ra.cartesianProduct(department, classroom);
+    }
+
+    @Benchmark
+    public Relation naturalJoin() {
+        return ra.join(takes, student);
+    }
+
+    @Benchmark
+    public Relation naturalJoinString() {
+        return ra.join(student, department);
+    }
+
+    @Benchmark
+    public Relation naturalJoinSorted() {
+        return ra.join(takesById, studentById);
+    }
+
+    @Benchmark
+    public Relation sort() {
+        return ra.sort(takes, List.of("year", "grade"), false);
+    }
+
+    @Benchmark
+    public Relation thetaJoin() {
+        return ra.join(instructor, department, sameDepartment);
+    }
+
+    @Benchmark
+    public Relation groupBy() {
+        return ra.groupBy(takes, List.of("course_id", "semester"),
+                List.of(Aggregate.count(), Aggregate.min("year"), Aggregate.max("grade")));
+    }
+
+    @Benchmark
+    public void print() {
+        takes.print(discarded, takes.getSize());
+    }
+
+    @Benchmark
+    public void printSampled() {
+        takes.print(discarded, 1000);
+    }
+
+}
@@ -0,0 +1,92 @@
+package uga.cs4370.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.bench.Datasets.Table;
+import uga.cs4370.mydb.Aggregate;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydbimpl.RAimpl;
+
+/**
+ * Throughput of the operators that run in parallel, for a growing number 
+ * of threads, on the takes and student exports scaled up by the scale 
+ * factor. The scaled copies join one to one, so the natural join result 
+ * grows linearly with the scale factor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelBenchmark {
+
+    @Param({"10", "100"})
+    public int scale;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private RA ra;
+
+    private Relation takes;
+    private Relation student;
+
+    private final Condition gradeYear = Condition.col("grade").eq("A ")
+            .and(Condition.col("year").ge(2003));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ra = new RAimpl(threads);
+        takes = Datasets.load(Table.TAKES, scale, storage);
+        student = Datasets.load(Table.STUDENT, scale, storage);
+    }
+
+    @Benchmark
+    public Relation select() {
+        return ra.select(takes, row -> row.get(5).getAsString().equals("A ")
+                && row.get(4).getAsInt() >= 2003);
+    }
+
+    @Benchmark
+    public Relation selectCondition() {
+        return ra.select(takes, gradeYear);
+    }
+
+    @Benchmark
+    public Relation project() {
+        return ra.project(takes, List.of("ID", "course_id"));
+    }
+
+    @Benchmark
+    public Relation naturalJoin() {
+        return ra.join(takes, student);
+    }
+
+    @Benchmark
+    public Relation groupBy() {
+        return ra.groupBy(takes, List.of("course_id", "semester"),
+                List.of(Aggregate.count(), Aggregate.min("year"), Aggregate.max("grade")));
+    }
+
+}
@@ -0,0 +1,97 @@
+package uga.cs4370.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.bench.Datasets.Table;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.LazyRA;
+import uga.cs4370.mydb.Plan;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydbimpl.LazyRAimpl;
+
+/**
+ * Throughput of the Driver queries as written and as rewritten by the
+ * optimizer, on the university exports scaled up by the scale factor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    private final LazyRA lazy = new LazyRAimpl();
+
+    private Plan coursesOfInstructor;
+    private Plan coursesOfInstructorOptimized;
+    private Plan taylorClassrooms;
+    private Plan taylorClassroomsOptimized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Relation instructor = Datasets.load(Table.INSTRUCTOR, scale, storage);
+        Relation teaches = Datasets.load(Table.TEACHES, scale, storage);
+        Relation course = Datasets.load(Table.COURSE, scale, storage);
+        Relation department = Datasets.load(Table.DEPARTMENT, scale, storage);
+        Relation classroom = Datasets.load(Table.CLASSROOM, scale, storage);
+
+        // Query 2 of the Driver.
+        coursesOfInstructor = lazy.project(
+                lazy.join(
+                        lazy.select(lazy.join(lazy.scan(instructor), lazy.scan(teaches)),
+                                Condition.col("instructor_id").eq(95709)),
+                        lazy.scan(course)),
+                List.of("course_id", "title"));
+        coursesOfInstructorOptimized = lazy.optimize(coursesOfInstructor);
+
+        // Query 1 of the Driver.
+        taylorClassrooms = lazy.project(
+                lazy.select(lazy.join(lazy.scan(department), lazy.scan(classroom)),
+                        Condition.col("building").eq("Taylor").and(Condition.col("budget").gt(70.0))),
+                List.of("building", "room_number", "capacity"));
+        taylorClassroomsOptimized = lazy.optimize(taylorClassrooms);
+    }
+
+    @Benchmark
+    public Relation coursesOfInstructor() {
+        return coursesOfInstructor.collect();
+    }
+
+    @Benchmark
+    public Relation coursesOfInstructorOptimized() {
+        return coursesOfInstructorOptimized.collect();
+    }
+
+    @Benchmark
+    public Relation taylorClassrooms() {
+        return taylorClassrooms.collect();
+    }
+
+    @Benchmark
+    public Relation taylorClassroomsOptimized() {
+        return taylorClassroomsOptimized.collect();
+    }
+
+}
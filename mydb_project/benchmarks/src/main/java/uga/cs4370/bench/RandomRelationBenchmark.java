@@ -0,0 +1,86 @@
+package uga.cs4370.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydbimpl.RAimpl;
+
+/**
+ * Throughput of the RA operators on random relations, parameterized by 
+ * row count and key cardinality.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomRelationBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"100", "10000"})
+    public int distinctKeys;
+
+    @Param({"ROW", "COLUMNAR"})
+    public Storage storage;
+
+    private final RA ra = new RAimpl();
+
+    private Relation left;
+    private Relation leftOther; // same schema as left, different rows
+    private Relation right; // shares only the key attribute with left
+
+    private final Predicate valBelowHalf = row -> row.get(1).getAsDouble() < 500.0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        left = Datasets.random(rows, distinctKeys, 1, "l_", storage);
+        leftOther = Datasets.random(rows, distinctKeys, 2, "l_", storage);
+        right = Datasets.random(rows / 10, distinctKeys, 3, "r_", storage);
+    }
+
+    @Benchmark
+    public Relation select() {
+        return ra.select(left, valBelowHalf);
+    }
+
+    @Benchmark
+    public Relation project() {
+        return ra.project(left, List.of("key", "l_tag"));
+    }
+
+    @Benchmark
+    public Relation union() {
+        return ra.union(left, leftOther);
+    }
+
+    @Benchmark
+    public Relation diff() {
+        return ra.diff(left, leftOther);
+    }
+
+    @Benchmark
+    public Relation naturalJoin() {
+        return ra.join(left, right);
+    }
+
+}
@@ -1,6 +1,5 @@
 #!/bin/bash
 
-javac -d bin -cp bin src/uga/cs4370/mydbimpl/RAimpl.java
+javac -encoding UTF-8 --add-modules jdk.incubator.vector -d bin -cp bin $(find src -name "*.java")
 
-javac -d bin -cp bin src/uga/cs4370/mydbimpl/Driver.java
-java -cp bin uga.cs4370.mydbimpl.Driver 
+java --add-modules jdk.incubator.vector -cp bin uga.cs4370.mydbimpl.Driver
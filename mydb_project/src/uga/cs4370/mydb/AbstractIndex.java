@@ -0,0 +1,95 @@
+package uga.cs4370.mydb;
+
+import java.util.List;
+
+/**
+ * Base class of the index implementations. Holds the indexed attributes
+ * and the number of rows of the relation that are in the index.
+ */
+abstract class AbstractIndex implements Index {
+
+    protected final String name;
+    protected final List<String> attrs;
+    protected final Relation relation;
+    protected final int[] columns; // Positions of the indexed attributes in the relation.
+    protected final Type[] types; // Types of the indexed attributes.
+    protected int indexed; // Number of rows of the relation in the index.
+
+    AbstractIndex(String name, List<String> attrs, Relation relation) {
+        this.name = name;
+        this.attrs = List.copyOf(attrs);
+        this.relation = relation;
+        this.columns = new int[attrs.size()];
+        this.types = new Type[attrs.size()];
+        List<Type> relationTypes = relation.getTypes();
+        for (int k = 0; k < columns.length; ++k) {
+            columns[k] = relation.getAttrIndex(attrs.get(k));
+            types[k] = relationTypes.get(columns[k]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getAttrs() {
+        return attrs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] range(Cell low, boolean lowInclusive, Cell high, boolean highInclusive) {
+        throw new UnsupportedOperationException("Range lookups need a SORTED index.");
+    }
+
+    /**
+     * Called by the relation after rows were appended to it.
+     */
+    abstract void rowsAppended();
+
+    /**
+     * Adds the rows that were appended to the relation since the last call.
+     */
+    abstract void sync();
+
+    /**
+     * Returns the value of a cell as Integer, Double or String.
+     */
+    static Object value(Cell cell) {
+        switch (cell.getType()) {
+            case INTEGER:
+                return cell.getAsInt();
+            case DOUBLE:
+                return cell.getAsDouble();
+            default:
+                return cell.getAsString();
+        }
+    }
+
+    /**
+     * Returns c as a comparison of attr with a literal, or null if it is not one.
+     */
+    static Comparison literalComparison(Condition c, String attr) {
+        if (!(c instanceof Comparison)) {
+            return null;
+        }
+        Comparison comparison = (Comparison) c;
+        return comparison.other == null && comparison.attr.equals(attr) ? comparison : null;
+    }
+
+    @Override
+    public String toString() {
+        return getType() + " index " + name + " on " + attrs;
+    }
+
+}
@@ -0,0 +1,528 @@
+package uga.cs4370.mydb;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class of the Relation implementations. Holds the schema and
+ * implements the operations that do not depend on how rows are stored.
+ */
+abstract class AbstractRelation implements Relation {
+
+    protected List<String> attributes;
+    protected List<Type> types;
+    protected Map<String, Integer> attrIndex;
+    private final Map<String, AbstractIndex> indexes = new LinkedHashMap<>();
+
+    AbstractRelation(List<Type> types, List<String> attributes) {
+        this.types = types;
+        this.attributes = attributes;
+        attrIndex = new HashMap<>();
+        for (int i = 0; i < attributes.size(); ++i) {
+            attrIndex.put(attributes.get(i), i);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Type> getTypes() {
+        return new ArrayList<>(types);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getAttrs() {
+        return new ArrayList<>(attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasAttr(String attr) {
+        return attrIndex.containsKey(attr);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Rows are only ever added, so the row count is the version.
+     */
+    @Override
+    public long getVersion() {
+        return getSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getAttrIndex(String attr) {        
+        if (!attrIndex.containsKey(attr)) {
+            throw new IllegalArgumentException("Attribute does not exist: " + attr);
+        }
+        return attrIndex.get(attr);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(int i, int j) {
+        return getCell(i, j).getAsInt();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(int i, int j) {
+        return getCell(i, j).getAsDouble();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(int i, int j) {
+        return getCell(i, j).getAsString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getInts(int j, int from, int to, int[] dest) {
+        checkBatch(j, from, to, dest.length, Type.INTEGER);
+        for (int i = from; i < to; ++i) {
+            dest[i - from] = getInt(i, j);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getDoubles(int j, int from, int to, double[] dest) {
+        checkBatch(j, from, to, dest.length, Type.DOUBLE);
+        for (int i = from; i < to; ++i) {
+            dest[i - from] = getDouble(i, j);
+        }
+    }
+
+    /**
+     * Checks the arguments of getInts and getDoubles.
+     */
+    protected void checkBatch(int j, int from, int to, int capacity, Type type) {
+        if (j < 0 || j >= types.size() || from < 0 || from > to || to > getSize() || to - from > capacity) {
+            throw new IllegalArgumentException("Batch out of bounds.");
+        }
+        if (types.get(j) != type) {
+            throw new RuntimeException("Illegal cell type conversion.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Relation renameAttrs(List<String> attrs) {
+        if (attrs.size() != attributes.size()) {
+            throw new IllegalArgumentException("Number of attribute names does not match "
+                            + "the relation schema.");
+        }
+        if (new HashSet<>(attrs).size() != attrs.size()) {
+            throw new IllegalArgumentException("Attribute names are not unique.");
+        }
+        int[] columns = new int[attrs.size()];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = i;
+        }
+        return RelationView.of(this, columns, types, List.copyOf(attrs));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Relation projectAttrs(List<String> attrs) {
+        if (new HashSet<>(attrs).size() != attrs.size()) {
+            throw new IllegalArgumentException("Attribute names are not unique.");
+        }
+        int[] columns = new int[attrs.size()];
+        Type[] projectedTypes = new Type[columns.length];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = getAttrIndex(attrs.get(i));
+            projectedTypes[i] = types.get(columns[i]);
+        }
+        return RelationView.of(this, columns, List.of(projectedTypes), List.copyOf(attrs));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Index createIndex(String name, List<String> attrs, IndexType type) {
+        if (name == null || type == null || attrs == null || attrs.isEmpty()) {
+            throw new IllegalArgumentException("Index name, attributes and type must be given.");
+        }
+        if (indexes.containsKey(name)) {
+            throw new IllegalArgumentException("Index already exists: " + name);
+        }
+        if (new HashSet<>(attrs).size() != attrs.size()) {
+            throw new IllegalArgumentException("Attribute names are not unique.");
+        }
+        AbstractIndex index = type == IndexType.HASH
+                ? new HashIndex(name, attrs, this)
+                : new SortedIndex(name, attrs, this);
+        indexes.put(name, index);
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dropIndex(String name) {
+        if (indexes.remove(name) == null) {
+            throw new IllegalArgumentException("Index does not exist: " + name);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Index getIndex(String name) {
+        Index index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Index does not exist: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Index> getIndexes() {
+        return new ArrayList<>(indexes.values());
+    }
+
+    /**
+     * Tells the indexes that rows were appended. Called by every operation
+     * that adds rows to the relation.
+     */
+    protected void updateIndexes() {
+        for (AbstractIndex index : indexes.values()) {
+            index.rowsAppended();
+        }
+    }
+
+    /**
+     * Checks that a row matches the schema of the relation.
+     * 
+     * @throws IllegalArgumentException if the row size or the cell types do 
+     * not correspond to the attibute types of the relation.
+     */
+    protected void checkRow(List<Cell> row) {
+        if (row.size() != types.size()) {
+            throw new IllegalArgumentException("Row size does not match the relation schema.");
+        }
+        for (int i = 0; i < row.size(); ++i) {
+            if (row.get(i).getType() != types.get(i)) {
+                throw new IllegalArgumentException("Value types in the row do not " 
+                                + "match the schema.");
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertAll(Relation rel) {
+        if (!types.equals(rel.getTypes())) {
+            throw new IllegalArgumentException("Value types in the relation do not " 
+                            + "match the schema.");
+        }
+        if (rel != this && rel.getClass() == layoutClass()) {
+            appendAll((AbstractRelation) rel);
+        } else {
+            // The schema is checked, so the rows are appended unchecked.
+            int size = rel.getSize();
+            int width = types.size();
+            reserve(size);
+            RowAppender appender = appender();
+            for (int i = 0; i < size; ++i) {
+                List<Cell> row = rel.getRowView(i);
+                for (int j = 0; j < width; ++j) {
+                    appender.appendCell(row.get(j));
+                }
+                appender.endRow();
+            }
+        }
+        updateIndexes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertAll(Relation rel, int[] rows, int count) {
+        if (!types.equals(rel.getTypes())) {
+            throw new IllegalArgumentException("Value types in the relation do not " 
+                            + "match the schema.");
+        }
+        if (count < 0 || count > rows.length) {
+            throw new IllegalArgumentException("Row count out of bounds.");
+        }
+        int size = rel.getSize();
+        for (int k = 0; k < count; ++k) {
+            if (rows[k] < 0 || rows[k] >= size) {
+                throw new IllegalArgumentException("Row index out of bounds.");
+            }
+        }
+        appendRows(rel, rows, count);
+        updateIndexes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertJoined(Relation rel1, int[] rows1, Relation rel2, int[] rows2, int[] columns2,
+            int count) {
+        List<Type> joined = new ArrayList<>(rel1.getTypes());
+        List<Type> types2 = rel2.getTypes();
+        for (int column : columns2) {
+            if (column < 0 || column >= types2.size()) {
+                throw new IllegalArgumentException("Column index out of bounds.");
+            }
+            joined.add(types2.get(column));
+        }
+        if (!types.equals(joined)) {
+            throw new IllegalArgumentException("Value types in the relation do not " 
+                            + "match the schema.");
+        }
+        if (count < 0 || count > rows1.length || count > rows2.length) {
+            throw new IllegalArgumentException("Row count out of bounds.");
+        }
+        int size1 = rel1.getSize();
+        int size2 = rel2.getSize();
+        for (int k = 0; k < count; ++k) {
+            if (rows1[k] < 0 || rows1[k] >= size1 || rows2[k] < 0 || rows2[k] >= size2) {
+                throw new IllegalArgumentException("Row index out of bounds.");
+            }
+        }
+        RowAppender appender = appender();
+        int width1 = rel1.getTypes().size();
+        for (int k = 0; k < count; ++k) {
+            List<Cell> row1 = rel1.getRowView(rows1[k]);
+            for (int j = 0; j < width1; ++j) {
+                appender.appendCell(row1.get(j));
+            }
+            List<Cell> row2 = rel2.getRowView(rows2[k]);
+            for (int column : columns2) {
+                appender.appendCell(row2.get(column));
+            }
+            appender.endRow();
+        }
+        updateIndexes();
+    }
+
+    /**
+     * Appends the rows of rel at positions rows[0], ..., rows[count - 1],
+     * which have been checked against the schema. Copies the cells unless
+     * overridden.
+     */
+    void appendRows(Relation rel, int[] rows, int count) {
+        reserve(count);
+        RowAppender appender = appender();
+        int width = types.size();
+        for (int k = 0; k < count; ++k) {
+            for (int j = 0; j < width; ++j) {
+                appender.appendCell(rel.getCell(rows[k], j));
+            }
+            appender.endRow();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RowAppender appender(int expectedRows) {
+        if (expectedRows < 0) {
+            throw new IllegalArgumentException("Expected rows can not be negative.");
+        }
+        reserve(expectedRows);
+        // Indexes add the appended rows on their next lookup.
+        return checkedAppender();
+    }
+
+    /**
+     * Checks that a value of the given type can be appended at position 
+     * col of a row, for appenders that check their values.
+     *
+     * @throws IllegalArgumentException if the row already has a value for 
+     * every attribute or the attribute at col has another type.
+     */
+    void checkAppend(int col, Type type) {
+        if (col >= types.size()) {
+            throw new IllegalArgumentException("Row size does not match the relation schema.");
+        }
+        if (types.get(col) != type) {
+            throw new IllegalArgumentException("Value types in the row do not match the schema.");
+        }
+    }
+
+    /**
+     * Checks that a row that ends after col values has a value for every 
+     * attribute, for appenders that check their values.
+     *
+     * @throws IllegalArgumentException if values are missing.
+     */
+    void checkEndRow(int col) {
+        if (col != types.size()) {
+            throw new IllegalArgumentException("Row size does not match the relation schema.");
+        }
+    }
+
+    /**
+     * Returns an appender that adds rows to this relation field by field.
+     * Values are not checked against the schema, so it is only used by 
+     * the loaders and the copies within the package, whose rows match 
+     * the schema by construction.
+     */
+    abstract RowAppender appender();
+
+    /**
+     * Returns an appender like appender(), that checks each value when it 
+     * is appended and the number of values when the row ends. A rejected 
+     * row is dropped, leaving the relation as it was before the row.
+     */
+    abstract RowAppender checkedAppender();
+
+    /**
+     * Makes room for the given number of rows without growing the storage again.
+     */
+    abstract void reserve(int rows);
+
+    /**
+     * Returns a new empty relation with the same schema and storage layout.
+     */
+    AbstractRelation emptyCopy() {
+        return emptyCopy(types, attributes);
+    }
+
+    /**
+     * Returns a new empty relation with the given schema and the same 
+     * storage layout as this relation.
+     */
+    abstract AbstractRelation emptyCopy(List<Type> types, List<String> attributes);
+
+    /**
+     * Returns the class of the relations created by emptyCopy, whose rows 
+     * appendAll takes.
+     */
+    abstract Class<? extends AbstractRelation> layoutClass();
+
+    /**
+     * Appends all rows of other, which must have been created by emptyCopy
+     * of this relation.
+     */
+    abstract void appendAll(AbstractRelation other);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void loadData(String path) {
+        // Check if the file exists
+        if (!Files.exists(Paths.get(path))) {
+            throw new IllegalArgumentException("File does not exist: " + path);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            new CsvParser(types, appender()).parse(channel);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read data from path: " + path);
+        } finally {
+            updateIndexes();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void loadData(String path, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (parallelism == 1) {
+            loadData(path);
+            return;
+        }
+        if (!Files.exists(Paths.get(path))) {
+            throw new IllegalArgumentException("File does not exist: " + path);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            for (AbstractRelation chunk : new ParallelCsvLoader(this, channel, parallelism).load()) {
+                appendAll(chunk);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalArgumentException("Failed to read data from path: " + path);
+        } finally {
+            updateIndexes();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(String path) {
+        try {
+            RelationFile.save(this, Paths.get(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to write data to path: " + path);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void print() {
+        print(System.out, getSize());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void print(PrintStream out, int sampleRows) {
+        if (sampleRows < 0) {
+            throw new IllegalArgumentException("Sample rows can not be negative.");
+        }
+        new TablePrinter(this, sampleRows).print(out);
+    }
+
+}
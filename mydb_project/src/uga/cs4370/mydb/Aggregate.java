@@ -0,0 +1,111 @@
+package uga.cs4370.mydb;
+
+/**
+ * Aggregate computed per group by RA.groupBy. Each aggregate becomes an
+ * attribute of the result, named after the function and the aggregated
+ * attribute unless it is given a name with as.
+ *
+ * COUNT counts the rows of a group and is an INTEGER. SUM adds up an
+ * INTEGER or DOUBLE attribute and has its type. AVG is the mean of an
+ * INTEGER or DOUBLE attribute and is a DOUBLE. MIN and MAX take the
+ * smallest and largest value of an attribute of any type, comparing
+ * numbers like Double.compare and strings lexicographically.
+ */
+public final class Aggregate {
+
+    /**
+     * Representation of the aggregate functions.
+     */
+    public enum Function {
+        COUNT, SUM, AVG, MIN, MAX
+    }
+
+    private final Function function;
+    private final String attr;
+    private final String name;
+
+    private Aggregate(Function function, String attr, String name) {
+        if (function != Function.COUNT && attr == null) {
+            throw new IllegalArgumentException("Attribute name must not be null.");
+        }
+        if (name == null || name.trim().length() == 0) {
+            throw new IllegalArgumentException("Aggregate name can not be null or empty.");
+        }
+        this.function = function;
+        this.attr = attr;
+        this.name = name;
+    }
+
+    private static Aggregate of(Function function, String attr) {
+        return new Aggregate(function, attr, function.name().toLowerCase() + "_" + attr);
+    }
+
+    /**
+     * Returns an aggregate counting the rows of each group, named count.
+     */
+    public static Aggregate count() {
+        return new Aggregate(Function.COUNT, null, "count");
+    }
+
+    /**
+     * Returns an aggregate adding up attr in each group, named sum_attr.
+     */
+    public static Aggregate sum(String attr) {
+        return of(Function.SUM, attr);
+    }
+
+    /**
+     * Returns an aggregate averaging attr in each group, named avg_attr.
+     */
+    public static Aggregate avg(String attr) {
+        return of(Function.AVG, attr);
+    }
+
+    /**
+     * Returns an aggregate taking the smallest attr of each group, named min_attr.
+     */
+    public static Aggregate min(String attr) {
+        return of(Function.MIN, attr);
+    }
+
+    /**
+     * Returns an aggregate taking the largest attr of each group, named max_attr.
+     */
+    public static Aggregate max(String attr) {
+        return of(Function.MAX, attr);
+    }
+
+    /**
+     * Returns the same aggregate with the result attribute named name.
+     */
+    public Aggregate as(String name) {
+        return new Aggregate(function, attr, name);
+    }
+
+    /**
+     * Returns the aggregate function.
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Returns the aggregated attribute, or null for COUNT.
+     */
+    public String getAttr() {
+        return attr;
+    }
+
+    /**
+     * Returns the name of the result attribute.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return function + "(" + (attr == null ? "*" : attr) + ") AS " + name;
+    }
+
+}
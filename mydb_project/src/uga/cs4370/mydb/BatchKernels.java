@@ -0,0 +1,85 @@
+package uga.cs4370.mydb;
+
+/**
+ * Compares a batch of values with a literal into a bitmask, in which bit
+ * k % 64 of word k / 64 is set if value k satisfies the comparison.
+ * These kernels are plain loops. When the jdk.incubator.vector module is
+ * loaded (java --add-modules jdk.incubator.vector), INSTANCE is a
+ * VectorKernels, which compares a whole vector of values per instruction.
+ * Setting the system property mydb.vector to false keeps these kernels.
+ */
+class BatchKernels {
+
+    static final BatchKernels INSTANCE = load();
+
+    private static BatchKernels load() {
+        if (!"false".equals(System.getProperty("mydb.vector"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded by name so that nothing links the Vector API
+                // classes when the module is not there.
+                return (BatchKernels) Class.forName("uga.cs4370.mydb.VectorKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Keep the scalar kernels.
+            }
+        }
+        return new BatchKernels();
+    }
+
+    /**
+     * Returns whether the kernels use the Vector API.
+     */
+    boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Sets the bits of mask of the first count values that satisfy
+     * op with literal and clears the others.
+     */
+    void compare(Comparison.Op op, int[] values, int count, int literal, long[] mask) {
+        clear(mask, count);
+        compareTail(op, values, 0, count, literal, mask);
+    }
+
+    /**
+     * Sets the bits of mask of the first count values that satisfy
+     * op with literal and clears the others.
+     */
+    void compare(Comparison.Op op, double[] values, int count, double literal, long[] mask) {
+        clear(mask, count);
+        compareTail(op, values, 0, count, literal, mask);
+    }
+
+    /**
+     * Sets the bits of the values in [from, count) that satisfy op with
+     * literal, leaving the other bits of mask as they are.
+     */
+    static void compareTail(Comparison.Op op, int[] values, int from, int count, int literal, long[] mask) {
+        for (int k = from; k < count; ++k) {
+            mask[k >>> 6] |= (op.test(values[k], literal) ? 1L : 0L) << k;
+        }
+    }
+
+    /**
+     * Sets the bits of the values in [from, count) that satisfy op with
+     * literal, leaving the other bits of mask as they are.
+     */
+    static void compareTail(Comparison.Op op, double[] values, int from, int count, double literal,
+            long[] mask) {
+        for (int k = from; k < count; ++k) {
+            mask[k >>> 6] |= (op.test(values[k], literal) ? 1L : 0L) << k;
+        }
+    }
+
+    /**
+     * Clears the words of mask that hold the bits of count values.
+     */
+    static void clear(long[] mask, int count) {
+        for (int w = 0; w < (count + 63) >>> 6; ++w) {
+            mask[w] = 0;
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package uga.cs4370.mydb;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A condition that has been bound to a schema. All column references
+ * are resolved to column indexes, so evaluating it only reads values.
+ * A bound condition is also a Predicate and can be used wherever a
+ * predicate is expected, as long as the rows have the bound schema.
+ */
+public abstract class BoundCondition implements Predicate {
+
+    /**
+     * Number of rows that filter evaluates together.
+     */
+    public static final int BATCH_SIZE = 2048;
+
+    BoundCondition() {
+    }
+
+    /**
+     * Checks row i of the relation rel for the condition. The values are
+     * read with the typed accessors of the relation, without creating
+     * cells or row views.
+     */
+    public abstract boolean test(Relation rel, int i);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public abstract boolean check(List<Cell> row);
+
+    /**
+     * Calls selected with the number of each row from (inclusive) to to
+     * (exclusive) of rel that satisfies the condition, in order. The rows
+     * are evaluated in batches of BATCH_SIZE, tracked as bitmasks of the
+     * rows still selected. Comparisons of INTEGER and DOUBLE attributes
+     * with literals read the values of a batch with getInts or getDoubles
+     * and compare them all at once, with the Vector API if the
+     * jdk.incubator.vector module is loaded. Other conditions test the
+     * selected rows one by one. AND, OR and NOT only evaluate their right
+     * or inner condition on the rows that test would evaluate it on.
+     */
+    public void filter(Relation rel, int from, int to, IntConsumer selected) {
+        Batch batch = new Batch();
+        long[] selection = new long[BATCH_SIZE / 64];
+        for (int start = from; start < to; start += BATCH_SIZE) {
+            batch.from = start;
+            batch.count = Math.min(BATCH_SIZE, to - start);
+            batch.selectAll(selection);
+            refine(rel, batch, selection);
+            for (int w = 0; w < selection.length; ++w) {
+                long word = selection[w];
+                while (word != 0) {
+                    selected.accept(start + (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the bits of selection of the rows of the batch that do not
+     * satisfy the condition. Rows whose bit is already clear need not be
+     * evaluated. Tests the selected rows one at a time unless overridden.
+     */
+    void refine(Relation rel, Batch batch, long[] selection) {
+        for (int w = 0; w < selection.length; ++w) {
+            long word = selection[w];
+            while (word != 0) {
+                long bit = word & -word;
+                if (!test(rel, batch.from + (w << 6) + Long.numberOfTrailingZeros(word))) {
+                    selection[w] &= ~bit;
+                }
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Fraction of the rows of a batch under which comparing the whole
+     * batch at once costs more than testing the selected rows one by one.
+     */
+    private static final int SPARSE_FRACTION = 8;
+
+    /**
+     * Rows being filtered and the buffers the comparisons of a batch read
+     * their values into.
+     */
+    static final class Batch {
+        int from; // First row of the batch.
+        int count; // Number of rows in the batch.
+        private int[] ints;
+        private double[] doubles;
+        private final long[] mask = new long[BATCH_SIZE / 64];
+
+        /**
+         * Sets the bits of all rows of the batch and clears the others.
+         */
+        void selectAll(long[] selection) {
+            for (int w = 0; w < selection.length; ++w) {
+                int bits = Math.max(0, Math.min(64, count - (w << 6)));
+                selection[w] = bits == 64 ? -1L : (1L << bits) - 1;
+            }
+        }
+
+        /**
+         * Returns whether fewer than 1 / SPARSE_FRACTION of the rows of the
+         * batch are selected.
+         */
+        boolean isSparse(long[] selection) {
+            int selected = 0;
+            for (long word : selection) {
+                selected += Long.bitCount(word);
+            }
+            return selected * SPARSE_FRACTION < count;
+        }
+
+        /**
+         * Returns the values of INTEGER column col for the rows of the batch.
+         */
+        int[] ints(Relation rel, int col) {
+            if (ints == null) {
+                ints = new int[BATCH_SIZE];
+            }
+            rel.getInts(col, from, from + count, ints);
+            return ints;
+        }
+
+        /**
+         * Returns the values of DOUBLE column col for the rows of the batch.
+         */
+        double[] doubles(Relation rel, int col) {
+            if (doubles == null) {
+                doubles = new double[BATCH_SIZE];
+            }
+            rel.getDoubles(col, from, from + count, doubles);
+            return doubles;
+        }
+
+        /**
+         * Returns the values of INTEGER column col for the rows of the
+         * batch, converted to doubles.
+         */
+        double[] intsAsDoubles(Relation rel, int col) {
+            int[] values = ints(rel, col);
+            if (doubles == null) {
+                doubles = new double[BATCH_SIZE];
+            }
+            for (int k = 0; k < count; ++k) {
+                doubles[k] = values[k];
+            }
+            return doubles;
+        }
+
+        /**
+         * Returns a mask for the kernels to write the result of a comparison
+         * to. Its content is overwritten by the next comparison.
+         */
+        long[] mask() {
+            return mask;
+        }
+    }
+
+    /**
+     * Clears the bits of selection that are clear in mask.
+     */
+    static void and(long[] selection, long[] mask) {
+        for (int w = 0; w < selection.length; ++w) {
+            selection[w] &= mask[w];
+        }
+    }
+
+}
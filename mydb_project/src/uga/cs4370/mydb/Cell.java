@@ -2,40 +2,70 @@ package uga.cs4370.mydb;
 
 /**
  * Represents a cell in a row of a relation.
+ * Values are kept in primitive fields so that reading, hashing and 
+ * comparing cells does not box or allocate. Cells are immutable, which 
+ * allows the factory methods to hand out shared instances.
  */
 public class Cell {
-    
-    private Object data;
-    private Type type;
+
+    private static final int INT_CACHE_LOW = -128;
+    private static final int INT_CACHE_HIGH = 1024;
+    private static final Cell[] INT_CACHE = new Cell[INT_CACHE_HIGH - INT_CACHE_LOW + 1];
+
+    // Direct mapped cache of recently created String cells, indexed by the
+    // hash of the string. Repeated values such as department names share 
+    // one cell and one String instance.
+    private static final int STRING_CACHE_SIZE = 4096;
+    private static final Cell[] STRING_CACHE = new Cell[STRING_CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < INT_CACHE.length; ++i) {
+            INT_CACHE[i] = new Cell(INT_CACHE_LOW + i);
+        }
+    }
+
+    private final Type type;
+    private final int intValue;
+    private final double doubleValue;
+    private final String stringValue;
 
     /**
      * Initialize a cell with an integer.
      */
     private Cell(int data) {
-        this.data = data;
         this.type = Type.INTEGER;
+        this.intValue = data;
+        this.doubleValue = 0;
+        this.stringValue = null;
     }
 
     /**
      * Initialize a cell with a double.
      */
     private Cell(double data) {
-        this.data = data;
         this.type = Type.DOUBLE;
+        this.intValue = 0;
+        this.doubleValue = data;
+        this.stringValue = null;
     }
 
     /**
      * Initialize a cell with a String.
      */
     private Cell(String data) {
-        this.data = data;
         this.type = Type.STRING;
+        this.intValue = 0;
+        this.doubleValue = 0;
+        this.stringValue = data;
     }
 
     /**
      * Initialize a cell with an integer.
      */
     public static Cell val(int data) {
+        if (data >= INT_CACHE_LOW && data <= INT_CACHE_HIGH) {
+            return INT_CACHE[data - INT_CACHE_LOW];
+        }
         return new Cell(data);
     }
 
@@ -50,7 +80,17 @@ public class Cell {
      * Initialize a cell with a String.
      */
     public static Cell val(String data) {
-        return new Cell(data);
+        if (data == null) {
+            throw new NullPointerException("Cell value can not be null.");
+        }
+        int slot = data.hashCode() & (STRING_CACHE_SIZE - 1);
+        Cell cached = STRING_CACHE[slot];
+        if (cached != null && cached.stringValue.equals(data)) {
+            return cached;
+        }
+        Cell cell = new Cell(data);
+        STRING_CACHE[slot] = cell;
+        return cell;
     }
 
     /**
@@ -67,7 +107,7 @@ public class Cell {
         if (type != Type.INTEGER) {
             throw new RuntimeException("Illegal cell type conversion.");
         }
-        return (int) data;
+        return intValue;
     }
 
     /*
@@ -77,7 +117,7 @@ public class Cell {
         if (type != Type.DOUBLE) {
             throw new RuntimeException("Illegal cell type conversion.");
         }
-        return (double) data;
+        return doubleValue;
     }
 
     /**
@@ -87,7 +127,7 @@ public class Cell {
         if (type != Type.STRING) {
             throw new RuntimeException("Illegal cell type conversion.");
         }
-        return (String) data;
+        return stringValue;
     }
 
     @Override
@@ -99,17 +139,41 @@ public class Cell {
             return false;
         }
         Cell that = (Cell)obj;
-        return type == that.type && data.equals(that.data);
+        if (type != that.type) {
+            return false;
+        }
+        switch (type) {
+            case INTEGER:
+                return intValue == that.intValue;
+            case DOUBLE:
+                return Double.doubleToLongBits(doubleValue) == Double.doubleToLongBits(that.doubleValue);
+            default:
+                return stringValue.equals(that.stringValue);
+        }
     }
 
     @Override
     public int hashCode() {
-        return (data.toString() + ':' + type.name()).hashCode();
+        switch (type) {
+            case INTEGER:
+                return Integer.hashCode(intValue);
+            case DOUBLE:
+                return Double.hashCode(doubleValue);
+            default:
+                return stringValue.hashCode();
+        }
     }
 
     @Override
     public String toString() {
-        return data.toString();
+        switch (type) {
+            case INTEGER:
+                return Integer.toString(intValue);
+            case DOUBLE:
+                return Double.toString(doubleValue);
+            default:
+                return stringValue;
+        }
     }
 
 }
@@ -0,0 +1,83 @@
+package uga.cs4370.mydb;
+
+/**
+ * A single column of a columnar relation. Values are kept in primitive
+ * arrays and only turned into cells when they are read.
+ */
+abstract class Column {
+
+    protected static final int INITIAL_CAPACITY = 16;
+
+    protected int size; // Number of values in the column.
+
+    /**
+     * Creates an empty column for the given type.
+     */
+    static Column of(Type type) {
+        switch (type) {
+            case INTEGER:
+                return new IntColumn();
+            case DOUBLE:
+                return new DoubleColumn();
+            case STRING:
+                return new StringColumn();
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    /**
+     * Returns the number of values in the column.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the type of the values in the column.
+     */
+    abstract Type getType();
+
+    /**
+     * Appends the value of the cell to the column. The cell type
+     * must match the column type.
+     */
+    abstract void append(Cell cell);
+
+    /**
+     * Returns the value at position i as a cell.
+     */
+    abstract Cell get(int i);
+
+    /**
+     * Appends all values of another column of the same type.
+     */
+    abstract void appendAll(Column other);
+
+    /**
+     * Appends the values at positions rows[0], ..., rows[count - 1] of
+     * another column of the same type, which may be this column.
+     */
+    abstract void appendRows(Column other, int[] rows, int count);
+
+    /**
+     * Makes room for at least capacity values without growing again.
+     */
+    abstract void reserve(int capacity);
+
+    /**
+     * Removes the values after the first size values.
+     */
+    void truncate(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Returns a capacity that can hold at least minCapacity values.
+     */
+    protected static int grow(int capacity, int minCapacity) {
+        int newCapacity = Math.max(capacity + (capacity >> 1), INITIAL_CAPACITY);
+        return Math.max(newCapacity, minCapacity);
+    }
+
+}
@@ -0,0 +1,218 @@
+package uga.cs4370.mydb;
+
+/**
+ * Reference to an attribute in a Condition. The comparison methods
+ * return conditions that compare the attribute with a literal or with
+ * another attribute. INTEGER and DOUBLE values can be compared with each
+ * other, STRING values only with STRING values.
+ */
+public final class ColumnRef {
+
+    private final String attr;
+
+    ColumnRef(String attr) {
+        if (attr == null) {
+            throw new IllegalArgumentException("Attribute name must not be null.");
+        }
+        this.attr = attr;
+    }
+
+    /**
+     * Returns the name of the referenced attribute.
+     */
+    public String getAttr() {
+        return attr;
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is equal to value.
+     */
+    public Condition eq(int value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.EQ, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is equal to value.
+     */
+    public Condition eq(double value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.EQ, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is equal to value.
+     */
+    public Condition eq(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Literal must not be null.");
+        }
+        return Comparison.ofLiteral(attr, Comparison.Op.EQ, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is equal to the attribute other.
+     */
+    public Condition eq(ColumnRef other) {
+        return Comparison.ofColumns(attr, Comparison.Op.EQ, other.attr);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is not equal to value.
+     */
+    public Condition ne(int value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.NE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is not equal to value.
+     */
+    public Condition ne(double value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.NE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is not equal to value.
+     */
+    public Condition ne(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Literal must not be null.");
+        }
+        return Comparison.ofLiteral(attr, Comparison.Op.NE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is not equal to the attribute other.
+     */
+    public Condition ne(ColumnRef other) {
+        return Comparison.ofColumns(attr, Comparison.Op.NE, other.attr);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than value.
+     */
+    public Condition lt(int value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.LT, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than value.
+     */
+    public Condition lt(double value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.LT, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than value.
+     */
+    public Condition lt(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Literal must not be null.");
+        }
+        return Comparison.ofLiteral(attr, Comparison.Op.LT, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than the attribute other.
+     */
+    public Condition lt(ColumnRef other) {
+        return Comparison.ofColumns(attr, Comparison.Op.LT, other.attr);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than or equal to value.
+     */
+    public Condition le(int value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.LE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than or equal to value.
+     */
+    public Condition le(double value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.LE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than or equal to value.
+     */
+    public Condition le(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Literal must not be null.");
+        }
+        return Comparison.ofLiteral(attr, Comparison.Op.LE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is less than or equal to the attribute other.
+     */
+    public Condition le(ColumnRef other) {
+        return Comparison.ofColumns(attr, Comparison.Op.LE, other.attr);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than value.
+     */
+    public Condition gt(int value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.GT, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than value.
+     */
+    public Condition gt(double value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.GT, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than value.
+     */
+    public Condition gt(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Literal must not be null.");
+        }
+        return Comparison.ofLiteral(attr, Comparison.Op.GT, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than the attribute other.
+     */
+    public Condition gt(ColumnRef other) {
+        return Comparison.ofColumns(attr, Comparison.Op.GT, other.attr);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than or equal to value.
+     */
+    public Condition ge(int value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.GE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than or equal to value.
+     */
+    public Condition ge(double value) {
+        return Comparison.ofLiteral(attr, Comparison.Op.GE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than or equal to value.
+     */
+    public Condition ge(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Literal must not be null.");
+        }
+        return Comparison.ofLiteral(attr, Comparison.Op.GE, value);
+    }
+
+    /**
+     * Returns a condition that holds if the attribute is greater than or equal to the attribute other.
+     */
+    public Condition ge(ColumnRef other) {
+        return Comparison.ofColumns(attr, Comparison.Op.GE, other.attr);
+    }
+
+    @Override
+    public String toString() {
+        return attr;
+    }
+
+}
@@ -0,0 +1,333 @@
+package uga.cs4370.mydb;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of the Relation interface that stores each attribute
+ * in its own primitive typed column. Cells are only created when rows 
+ * are read through the Relation interface.
+ */
+class ColumnarRelation extends AbstractRelation {
+
+    private Column[] columns;
+    private int size;
+
+    ColumnarRelation(List<Type> types, List<String> attributes) {
+        super(types, attributes);
+        columns = new Column[types.size()];
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i] = Column.of(types.get(i));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cell> getRow(int i) {
+        if (i < 0 || i >= getSize()) {
+            throw new IllegalArgumentException("Row index out of bounds.");
+        }
+        List<Cell> row = new ArrayList<>(columns.length);
+        for (Column column : columns) {
+            row.add(column.get(i));
+        }
+        return row;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The view reads the cells from the columns when they are accessed.
+     */
+    @Override
+    public List<Cell> getRowView(int i) {
+        if (i < 0 || i >= getSize()) {
+            throw new IllegalArgumentException("Row index out of bounds.");
+        }
+        return new AbstractList<Cell>() {
+            @Override
+            public Cell get(int j) {
+                return columns[j].get(i);
+            }
+
+            @Override
+            public int size() {
+                return columns.length;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cell getCell(int i, int j) {
+        if (i < 0 || i >= getSize() || j < 0 || j >= columns.length) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+        return columns[j].get(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(int i, int j) {
+        return ((IntColumn) column(i, j, Type.INTEGER)).getInt(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(int i, int j) {
+        return ((DoubleColumn) column(i, j, Type.DOUBLE)).getDouble(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(int i, int j) {
+        return ((StringColumn) column(i, j, Type.STRING)).getString(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getStringCode(int i, int j) {
+        return ((StringColumn) column(i, j, Type.STRING)).getCode(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getStringDictionary(int j) {
+        return stringColumn(j).dictionary();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int findStringCode(int j, String value) {
+        return stringColumn(j).findCode(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getInts(int j, int from, int to, int[] dest) {
+        checkBatch(j, from, to, dest.length, Type.INTEGER);
+        ((IntColumn) columns[j]).getInts(from, to, dest);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getDoubles(int j, int from, int to, double[] dest) {
+        checkBatch(j, from, to, dest.length, Type.DOUBLE);
+        ((DoubleColumn) columns[j]).getDoubles(from, to, dest);
+    }
+
+    /**
+     * Returns column j after checking that it has the expected type and
+     * that row i exists.
+     */
+    private Column column(int i, int j, Type type) {
+        if (i < 0 || i >= getSize() || j < 0 || j >= columns.length) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+        if (columns[j].getType() != type) {
+            throw new RuntimeException("Illegal cell type conversion.");
+        }
+        return columns[j];
+    }
+
+    /**
+     * Returns column j after checking that it is a STRING column.
+     */
+    private StringColumn stringColumn(int j) {
+        if (j < 0 || j >= columns.length) {
+            throw new IllegalArgumentException("Column index out of bounds.");
+        }
+        if (columns[j].getType() != Type.STRING) {
+            throw new RuntimeException("Illegal cell type conversion.");
+        }
+        return (StringColumn) columns[j];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(List<Cell> row) {
+        checkRow(row);
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i].append(row.get(i));
+        }
+        size++;
+        updateIndexes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    AbstractRelation emptyCopy(List<Type> types, List<String> attributes) {
+        return new ColumnarRelation(types, attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Class<? extends AbstractRelation> layoutClass() {
+        return ColumnarRelation.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void appendAll(AbstractRelation other) {
+        ColumnarRelation that = (ColumnarRelation) other;
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i].appendAll(that.columns[i]);
+        }
+        size += that.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Rows of another columnar relation are copied column by column.
+     */
+    @Override
+    void appendRows(Relation rel, int[] rows, int count) {
+        if (!(rel instanceof ColumnarRelation)) {
+            super.appendRows(rel, rows, count);
+            return;
+        }
+        ColumnarRelation that = (ColumnarRelation) rel;
+        for (int i = 0; i < columns.length; ++i) {
+            columns[i].appendRows(that.columns[i], rows, count);
+        }
+        size += count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void reserve(int rows) {
+        for (Column column : columns) {
+            column.reserve(size + rows);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender appender() {
+        return new Appender(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender checkedAppender() {
+        return new Appender(true);
+    }
+
+    /**
+     * Appends the values of a row to the columns as they come. A checked 
+     * appender removes the values of a rejected row from the columns.
+     */
+    private final class Appender implements RowAppender {
+        private final boolean checked;
+        private int col;
+
+        Appender(boolean checked) {
+            this.checked = checked;
+        }
+
+        @Override
+        public void appendInt(int value) {
+            if (checked) {
+                check(Type.INTEGER);
+            }
+            ((IntColumn) columns[col++]).append(value);
+        }
+
+        @Override
+        public void appendDouble(double value) {
+            if (checked) {
+                check(Type.DOUBLE);
+            }
+            ((DoubleColumn) columns[col++]).append(value);
+        }
+
+        @Override
+        public void appendString(String value) {
+            if (checked) {
+                check(Type.STRING);
+            }
+            ((StringColumn) columns[col++]).append(value);
+        }
+
+        @Override
+        public void appendCell(Cell cell) {
+            if (checked) {
+                check(cell.getType());
+            }
+            columns[col++].append(cell);
+        }
+
+        private void check(Type type) {
+            try {
+                checkAppend(col, type);
+            } catch (IllegalArgumentException e) {
+                dropRow();
+                throw e;
+            }
+        }
+
+        @Override
+        public void endRow() {
+            if (checked && col != columns.length) {
+                int values = col;
+                dropRow();
+                checkEndRow(values);
+            }
+            size++;
+            col = 0;
+        }
+
+        /**
+         * Removes the values appended for the current row.
+         */
+        private void dropRow() {
+            for (int j = 0; j < col; ++j) {
+                columns[j].truncate(size);
+            }
+            col = 0;
+        }
+    }
+
+}
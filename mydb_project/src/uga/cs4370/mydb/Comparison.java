@@ -0,0 +1,379 @@
+package uga.cs4370.mydb;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comparison of an attribute with a literal or with another attribute.
+ * Binding picks an evaluation specialized for the operand types, so
+ * INTEGER columns are compared as ints, numeric columns mixed with
+ * DOUBLE as doubles and STRING columns as Strings. Binding to a relation
+ * also turns STRING equalities with a literal into comparisons of
+ * dictionary codes. Comparisons of INTEGER and DOUBLE attributes with
+ * literals filter batches of rows with BatchKernels, unless earlier
+ * conditions left few rows of the batch to check.
+ */
+final class Comparison extends Condition {
+
+    /**
+     * Comparison operators.
+     */
+    enum Op {
+        EQ("="), NE("<>"), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean test(int a, int b) {
+            switch (this) {
+                case EQ: return a == b;
+                case NE: return a != b;
+                case LT: return a < b;
+                case LE: return a <= b;
+                case GT: return a > b;
+                default: return a >= b;
+            }
+        }
+
+        boolean test(double a, double b) {
+            switch (this) {
+                case EQ: return a == b;
+                case NE: return a != b;
+                case LT: return a < b;
+                case LE: return a <= b;
+                case GT: return a > b;
+                default: return a >= b;
+            }
+        }
+
+        boolean test(String a, String b) {
+            switch (this) {
+                case EQ: return a.equals(b);
+                case NE: return !a.equals(b);
+                default: return test(a.compareTo(b), 0);
+            }
+        }
+    }
+
+    final String attr;
+    final Op op;
+    final Object literal; // Integer, Double or String, or null if other is set.
+    final String other; // Attribute compared with, or null if literal is set.
+
+    private Comparison(String attr, Op op, Object literal, String other) {
+        this.attr = attr;
+        this.op = op;
+        this.literal = literal;
+        this.other = other;
+    }
+
+    static Comparison ofLiteral(String attr, Op op, Object literal) {
+        return new Comparison(attr, op, literal, null);
+    }
+
+    static Comparison ofColumns(String attr, Op op, String other) {
+        return new Comparison(attr, op, null, other);
+    }
+
+    @Override
+    public BoundCondition bind(List<String> attrs, List<Type> types) {
+        int col = indexOf(attrs, attr);
+        Type type = types.get(col);
+        if (other != null) {
+            int otherCol = indexOf(attrs, other);
+            Type otherType = types.get(otherCol);
+            if (type == Type.INTEGER && otherType == Type.INTEGER) {
+                return new IntColumns(op, col, otherCol);
+            }
+            if (type != Type.STRING && otherType != Type.STRING) {
+                return new NumericColumns(op, col, type, otherCol, otherType);
+            }
+            if (type == Type.STRING && otherType == Type.STRING) {
+                return new StringColumns(op, col, otherCol);
+            }
+            throw new IllegalArgumentException("Can not compare attribute " + attr
+                    + " of type " + type + " with attribute " + other + " of type " + otherType);
+        }
+        if (type == Type.INTEGER && literal instanceof Integer) {
+            return new IntLiteral(op, col, (Integer) literal);
+        }
+        if (type != Type.STRING && literal instanceof Number) {
+            return new NumericLiteral(op, col, type, ((Number) literal).doubleValue());
+        }
+        if (type == Type.STRING && literal instanceof String) {
+            return new StringLiteral(op, col, (String) literal);
+        }
+        throw new IllegalArgumentException("Can not compare attribute " + attr
+                + " of type " + type + " with literal " + literal);
+    }
+
+    @Override
+    public BoundCondition bind(Relation rel) {
+        BoundCondition bound = bind(rel.getAttrs(), rel.getTypes());
+        if (bound instanceof StringLiteral && (op == Op.EQ || op == Op.NE)) {
+            int col = rel.getAttrIndex(attr);
+            int code = rel.findStringCode(col, (String) literal);
+            // A value that is not in the dictionary may still be inserted
+            // later, and then gets a code that is not known here.
+            if (code >= 0) {
+                return new CodeLiteral(op, col, (String) literal, rel, code);
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public List<String> getEquatedAttrs() {
+        return other != null && op == Op.EQ ? List.of(attr, other) : null;
+    }
+
+    @Override
+    public double estimateSelectivity() {
+        switch (op) {
+            case EQ: return 0.1;
+            case NE: return 0.9;
+            default: return 1.0 / 3;
+        }
+    }
+
+    @Override
+    boolean addAttrs(Set<String> attrs) {
+        attrs.add(attr);
+        if (other != null) {
+            attrs.add(other);
+        }
+        return true;
+    }
+
+    private static int indexOf(List<String> attrs, String attr) {
+        int index = attrs.indexOf(attr);
+        if (index < 0) {
+            throw new IllegalArgumentException("Attribute " + attr + " is not present in the relation.");
+        }
+        return index;
+    }
+
+    /**
+     * Reads an INTEGER or DOUBLE value as a double.
+     */
+    private static double number(Relation rel, int i, int col, Type type) {
+        return type == Type.INTEGER ? rel.getInt(i, col) : rel.getDouble(i, col);
+    }
+
+    private static double number(Cell cell) {
+        return cell.getType() == Type.INTEGER ? cell.getAsInt() : cell.getAsDouble();
+    }
+
+    @Override
+    public String toString() {
+        String right = other != null ? other
+                : literal instanceof String ? "'" + literal + "'" : String.valueOf(literal);
+        return attr + " " + op.symbol + " " + right;
+    }
+
+    private static final class IntLiteral extends BoundCondition {
+
+        private final Op op;
+        private final int col;
+        private final int value;
+
+        IntLiteral(Op op, int col, int value) {
+            this.op = op;
+            this.col = col;
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            return op.test(rel.getInt(i, col), value);
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return op.test(row.get(col).getAsInt(), value);
+        }
+
+        @Override
+        void refine(Relation rel, Batch batch, long[] selection) {
+            if (batch.isSparse(selection)) {
+                super.refine(rel, batch, selection);
+                return;
+            }
+            long[] mask = batch.mask();
+            BatchKernels.INSTANCE.compare(op, batch.ints(rel, col), batch.count, value, mask);
+            and(selection, mask);
+        }
+    }
+
+    private static final class NumericLiteral extends BoundCondition {
+
+        private final Op op;
+        private final int col;
+        private final Type type;
+        private final double value;
+
+        NumericLiteral(Op op, int col, Type type, double value) {
+            this.op = op;
+            this.col = col;
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            return op.test(number(rel, i, col, type), value);
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return op.test(number(row.get(col)), value);
+        }
+
+        @Override
+        void refine(Relation rel, Batch batch, long[] selection) {
+            if (batch.isSparse(selection)) {
+                super.refine(rel, batch, selection);
+                return;
+            }
+            double[] values = type == Type.INTEGER ? batch.intsAsDoubles(rel, col) : batch.doubles(rel, col);
+            long[] mask = batch.mask();
+            BatchKernels.INSTANCE.compare(op, values, batch.count, value, mask);
+            and(selection, mask);
+        }
+    }
+
+    private static final class StringLiteral extends BoundCondition {
+
+        private final Op op;
+        private final int col;
+        private final String value;
+
+        StringLiteral(Op op, int col, String value) {
+            this.op = op;
+            this.col = col;
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            return op.test(rel.getString(i, col), value);
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return op.test(row.get(col).getAsString(), value);
+        }
+    }
+
+    /**
+     * Equality of a STRING attribute with a literal, comparing the
+     * dictionary codes of the rows of rel with the code of the literal.
+     * Rows of other relations are compared as Strings.
+     */
+    private static final class CodeLiteral extends BoundCondition {
+
+        private final boolean equal; // Whether the operator is EQ rather than NE.
+        private final int col;
+        private final String value;
+        private final Relation rel;
+        private final int code;
+
+        CodeLiteral(Op op, int col, String value, Relation rel, int code) {
+            this.equal = op == Op.EQ;
+            this.col = col;
+            this.value = value;
+            this.rel = rel;
+            this.code = code;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            if (rel != this.rel) {
+                return rel.getString(i, col).equals(value) == equal;
+            }
+            return (rel.getStringCode(i, col) == code) == equal;
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return row.get(col).getAsString().equals(value) == equal;
+        }
+    }
+
+    private static final class IntColumns extends BoundCondition {
+
+        private final Op op;
+        private final int col1;
+        private final int col2;
+
+        IntColumns(Op op, int col1, int col2) {
+            this.op = op;
+            this.col1 = col1;
+            this.col2 = col2;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            return op.test(rel.getInt(i, col1), rel.getInt(i, col2));
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return op.test(row.get(col1).getAsInt(), row.get(col2).getAsInt());
+        }
+    }
+
+    private static final class NumericColumns extends BoundCondition {
+
+        private final Op op;
+        private final int col1;
+        private final Type type1;
+        private final int col2;
+        private final Type type2;
+
+        NumericColumns(Op op, int col1, Type type1, int col2, Type type2) {
+            this.op = op;
+            this.col1 = col1;
+            this.type1 = type1;
+            this.col2 = col2;
+            this.type2 = type2;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            return op.test(number(rel, i, col1, type1), number(rel, i, col2, type2));
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return op.test(number(row.get(col1)), number(row.get(col2)));
+        }
+    }
+
+    private static final class StringColumns extends BoundCondition {
+
+        private final Op op;
+        private final int col1;
+        private final int col2;
+
+        StringColumns(Op op, int col1, int col2) {
+            this.op = op;
+            this.col1 = col1;
+            this.col2 = col2;
+        }
+
+        @Override
+        public boolean test(Relation rel, int i) {
+            return op.test(rel.getString(i, col1), rel.getString(i, col2));
+        }
+
+        @Override
+        public boolean check(List<Cell> row) {
+            return op.test(row.get(col1).getAsString(), row.get(col2).getAsString());
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+package uga.cs4370.mydb;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A selection condition built from column references, literals,
+ * comparisons and the logical connectives AND, OR and NOT. Unlike a
+ * Predicate, a condition is not evaluated directly: it is first bound
+ * to a schema, which resolves every column reference to a column index
+ * and checks the types of the comparisons once. The bound condition
+ * then reads the typed values of a row without looking up attributes
+ * or creating cells.
+ *
+ * Example: {@code Condition.col("budget").gt(70.0).and(Condition.col("building").eq("Taylor"))}
+ */
+public abstract class Condition {
+
+    Condition() {
+    }
+
+    /**
+     * Returns a reference to the attribute attr.
+     */
+    public static ColumnRef col(String attr) {
+        return new ColumnRef(attr);
+    }
+
+    /**
+     * Returns a condition that holds if both c1 and c2 hold.
+     */
+    public static Condition and(Condition c1, Condition c2) {
+        return new And(c1, c2);
+    }
+
+    /**
+     * Returns a condition that holds if c1 or c2 holds.
+     */
+    public static Condition or(Condition c1, Condition c2) {
+        return new Or(c1, c2);
+    }
+
+    /**
+     * Returns a condition that holds if c does not hold.
+     */
+    public static Condition not(Condition c) {
+        return new Not(c);
+    }
+
+    /**
+     * Adapts an existing predicate to a condition. The predicate is
+     * evaluated on a read-only view of each row.
+     */
+    public static Condition of(Predicate p) {
+        return new PredicateCondition(p);
+    }
+
+    /**
+     * Returns a condition that holds if this condition and other hold.
+     */
+    public Condition and(Condition other) {
+        return and(this, other);
+    }
+
+    /**
+     * Returns a condition that holds if this condition or other holds.
+     */
+    public Condition or(Condition other) {
+        return or(this, other);
+    }
+
+    /**
+     * Returns a condition that holds if this condition does not hold.
+     */
+    public Condition negate() {
+        return not(this);
+    }
+
+    /**
+     * Binds the condition to the schema given by attrs and types.
+     *
+     * @throws IllegalArgumentException If a referenced attribute is not in
+     * attrs or a comparison has operands of incompatible types.
+     */
+    public abstract BoundCondition bind(List<String> attrs, List<Type> types);
+
+    /**
+     * Binds the condition to the schema of the relation rel. The result 
+     * may also be specialized to the data of rel: equality comparisons of 
+     * STRING attributes with literals compare dictionary codes when they 
+     * are tested on rows of rel.
+     *
+     * @throws IllegalArgumentException If a referenced attribute is not in
+     * rel or a comparison has operands of incompatible types.
+     */
+    public BoundCondition bind(Relation rel) {
+        return bind(rel.getAttrs(), rel.getTypes());
+    }
+
+    /**
+     * Returns the attributes referenced by the condition, or null if the
+     * condition wraps a Predicate, which may read any column of a row.
+     */
+    public Set<String> getAttrs() {
+        Set<String> attrs = new LinkedHashSet<>();
+        return addAttrs(attrs) ? attrs : null;
+    }
+
+    /**
+     * Returns the conditions that are combined by AND at the top of this
+     * condition, or a list holding only this condition if it is not an AND.
+     */
+    public List<Condition> conjuncts() {
+        return List.of(this);
+    }
+
+    /**
+     * Returns the two attributes if the condition is an equality between
+     * two attributes, or null otherwise.
+     */
+    public List<String> getEquatedAttrs() {
+        return null;
+    }
+
+    /**
+     * Returns the estimated fraction of rows that satisfy the condition.
+     * Without statistics on the data the textbook defaults are used: 1/10
+     * for an equality, 9/10 for an inequality and 1/3 for a range
+     * comparison or a wrapped predicate.
+     */
+    public abstract double estimateSelectivity();
+
+    /**
+     * Adds the referenced attributes to attrs.
+     *
+     * @return false if the referenced attributes are not known.
+     */
+    abstract boolean addAttrs(Set<String> attrs);
+
+    private static final class And extends Condition {
+
+        private final Condition left;
+        private final Condition right;
+
+        And(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public BoundCondition bind(List<String> attrs, List<Type> types) {
+            return combine(left.bind(attrs, types), right.bind(attrs, types));
+        }
+
+        @Override
+        public BoundCondition bind(Relation rel) {
+            return combine(left.bind(rel), right.bind(rel));
+        }
+
+        private static BoundCondition combine(BoundCondition l, BoundCondition r) {
+            return new BoundCondition() {
+                @Override
+                public boolean test(Relation rel, int i) {
+                    return l.test(rel, i) && r.test(rel, i);
+                }
+
+                @Override
+                public boolean check(List<Cell> row) {
+                    return l.check(row) && r.check(row);
+                }
+
+                @Override
+                void refine(Relation rel, Batch batch, long[] selection) {
+                    l.refine(rel, batch, selection);
+                    r.refine(rel, batch, selection);
+                }
+            };
+        }
+
+        @Override
+        public List<Condition> conjuncts() {
+            List<Condition> conjuncts = new ArrayList<>(left.conjuncts());
+            conjuncts.addAll(right.conjuncts());
+            return conjuncts;
+        }
+
+        @Override
+        public double estimateSelectivity() {
+            return left.estimateSelectivity() * right.estimateSelectivity();
+        }
+
+        @Override
+        boolean addAttrs(Set<String> attrs) {
+            return left.addAttrs(attrs) & right.addAttrs(attrs);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " AND " + right + ")";
+        }
+    }
+
+    private static final class Or extends Condition {
+
+        private final Condition left;
+        private final Condition right;
+
+        Or(Condition left, Condition right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public BoundCondition bind(List<String> attrs, List<Type> types) {
+            return combine(left.bind(attrs, types), right.bind(attrs, types));
+        }
+
+        @Override
+        public BoundCondition bind(Relation rel) {
+            return combine(left.bind(rel), right.bind(rel));
+        }
+
+        private static BoundCondition combine(BoundCondition l, BoundCondition r) {
+            return new BoundCondition() {
+                @Override
+                public boolean test(Relation rel, int i) {
+                    return l.test(rel, i) || r.test(rel, i);
+                }
+
+                @Override
+                public boolean check(List<Cell> row) {
+                    return l.check(row) || r.check(row);
+                }
+
+                @Override
+                void refine(Relation rel, Batch batch, long[] selection) {
+                    // r only evaluates the rows that fail l.
+                    long[] left = selection.clone();
+                    l.refine(rel, batch, left);
+                    long[] right = selection.clone();
+                    for (int w = 0; w < right.length; ++w) {
+                        right[w] &= ~left[w];
+                    }
+                    r.refine(rel, batch, right);
+                    for (int w = 0; w < selection.length; ++w) {
+                        selection[w] = left[w] | right[w];
+                    }
+                }
+            };
+        }
+
+        @Override
+        public double estimateSelectivity() {
+            double l = left.estimateSelectivity();
+            double r = right.estimateSelectivity();
+            return l + r - l * r;
+        }
+
+        @Override
+        boolean addAttrs(Set<String> attrs) {
+            return left.addAttrs(attrs) & right.addAttrs(attrs);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " OR " + right + ")";
+        }
+    }
+
+    private static final class Not extends Condition {
+
+        private final Condition operand;
+
+        Not(Condition operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public BoundCondition bind(List<String> attrs, List<Type> types) {
+            return combine(operand.bind(attrs, types));
+        }
+
+        @Override
+        public BoundCondition bind(Relation rel) {
+            return combine(operand.bind(rel));
+        }
+
+        private static BoundCondition combine(BoundCondition c) {
+            return new BoundCondition() {
+                @Override
+                public boolean test(Relation rel, int i) {
+                    return !c.test(rel, i);
+                }
+
+                @Override
+                public boolean check(List<Cell> row) {
+                    return !c.check(row);
+                }
+
+                @Override
+                void refine(Relation rel, Batch batch, long[] selection) {
+                    long[] satisfied = selection.clone();
+                    c.refine(rel, batch, satisfied);
+                    for (int w = 0; w < selection.length; ++w) {
+                        selection[w] &= ~satisfied[w];
+                    }
+                }
+            };
+        }
+
+        @Override
+        public double estimateSelectivity() {
+            return 1 - operand.estimateSelectivity();
+        }
+
+        @Override
+        boolean addAttrs(Set<String> attrs) {
+            return operand.addAttrs(attrs);
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+
+    private static final class PredicateCondition extends Condition {
+
+        private final Predicate predicate;
+
+        PredicateCondition(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public BoundCondition bind(List<String> attrs, List<Type> types) {
+            return new BoundCondition() {
+                @Override
+                public boolean test(Relation rel, int i) {
+                    return predicate.check(rel.getRowView(i));
+                }
+
+                @Override
+                public boolean check(List<Cell> row) {
+                    return predicate.check(row);
+                }
+            };
+        }
+
+        @Override
+        public double estimateSelectivity() {
+            return 1.0 / 3;
+        }
+
+        @Override
+        boolean addAttrs(Set<String> attrs) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "<predicate>";
+        }
+    }
+
+}
@@ -0,0 +1,321 @@
+package uga.cs4370.mydb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single pass CSV parser that works directly on bytes. Fields may be
+ * quoted, with "" as the escape for a quote inside a quoted field, and
+ * records end with \n or \r\n. INTEGER and DOUBLE fields are parsed
+ * from the bytes without creating Strings, and every record is handed
+ * to a RowAppender field by field.
+ */
+final class CsvParser {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    // Powers of ten that are exactly representable as doubles.
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final Type[] types;
+    private final RowAppender appender;
+
+    // Field boundaries of the record being parsed.
+    private final int[] fieldStart;
+    private final int[] fieldEnd;
+    private final boolean[] fieldEscaped;
+
+    CsvParser(List<Type> types, RowAppender appender) {
+        this.types = types.toArray(new Type[0]);
+        this.appender = appender;
+        this.fieldStart = new int[this.types.length];
+        this.fieldEnd = new int[this.types.length];
+        this.fieldEscaped = new boolean[this.types.length];
+    }
+
+    /**
+     * Parses all records read from the channel.
+     *
+     * @throws IllegalArgumentException if a record does not match the schema.
+     */
+    void parse(ReadableByteChannel channel) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int start = 0; // Start of the first unparsed record.
+        int limit = 0; // End of the valid bytes in buf.
+        boolean eof = false;
+        while (true) {
+            int next = parse(buf, start, limit, eof);
+            if (eof) {
+                return;
+            }
+            // Move the incomplete record to the front and refill the buffer.
+            int remaining = limit - next;
+            if (remaining == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            } else {
+                System.arraycopy(buf, next, buf, 0, remaining);
+            }
+            start = 0;
+            limit = remaining;
+            int read = channel.read(ByteBuffer.wrap(buf, limit, buf.length - limit));
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    /**
+     * Parses the records in buf[from, to). When last is false, a record
+     * that is not terminated before to is left unparsed.
+     *
+     * @return the position after the last parsed record.
+     *
+     * @throws IllegalArgumentException if a record does not match the schema.
+     */
+    int parse(byte[] buf, int from, int to, boolean last) {
+        int pos = from;
+        while (pos < to) {
+            int next = parseRecord(buf, pos, to, last);
+            if (next < 0) {
+                break;
+            }
+            pos = next;
+        }
+        return pos;
+    }
+
+    /**
+     * Parses the record starting at pos and appends it.
+     *
+     * @return the position after the record terminator, or -1 if the
+     * record is not complete before to and last is false.
+     */
+    private int parseRecord(byte[] buf, int pos, int to, boolean last) {
+        // Skip empty lines.
+        if (buf[pos] == LF) {
+            return pos + 1;
+        }
+        if (buf[pos] == CR) {
+            if (pos + 1 < to) {
+                return buf[pos + 1] == LF ? pos + 2 : pos + 1;
+            }
+            return last ? to : -1;
+        }
+
+        int field = 0;
+        while (true) {
+            if (field == types.length) {
+                throw new IllegalArgumentException("CSV file format does not match the "
+                                + "schema of the relation.");
+            }
+            boolean escaped = false;
+            int start;
+            int end;
+            if (pos < to && buf[pos] == QUOTE) {
+                start = ++pos;
+                while (true) {
+                    while (pos < to && buf[pos] != QUOTE) {
+                        pos++;
+                    }
+                    if (pos + 1 >= to) {
+                        if (pos < to && last) {
+                            break; // Closing quote at the end of the input.
+                        }
+                        if (last) {
+                            throw new IllegalArgumentException("Unterminated quoted field in CSV file.");
+                        }
+                        return -1;
+                    }
+                    if (buf[pos + 1] == QUOTE) {
+                        escaped = true;
+                        pos += 2;
+                    } else {
+                        break;
+                    }
+                }
+                end = pos++;
+            } else {
+                start = pos;
+                while (pos < to && buf[pos] != COMMA && buf[pos] != LF && buf[pos] != CR) {
+                    pos++;
+                }
+                end = pos;
+            }
+            fieldStart[field] = start;
+            fieldEnd[field] = end;
+            fieldEscaped[field] = escaped;
+            field++;
+
+            if (pos >= to) {
+                if (!last) {
+                    return -1;
+                }
+                break;
+            }
+            byte b = buf[pos];
+            if (b == COMMA) {
+                pos++;
+                continue;
+            }
+            if (b == LF) {
+                pos++;
+                break;
+            }
+            if (b == CR) {
+                if (pos + 1 >= to) {
+                    if (!last) {
+                        return -1;
+                    }
+                    pos++;
+                } else {
+                    pos += buf[pos + 1] == LF ? 2 : 1;
+                }
+                break;
+            }
+            throw new IllegalArgumentException("CSV file format does not match the "
+                            + "schema of the relation.");
+        }
+        if (field != types.length) {
+            throw new IllegalArgumentException("CSV file format does not match the "
+                            + "schema of the relation.");
+        }
+        appendRecord(buf);
+        return pos;
+    }
+
+    /**
+     * Converts the fields of the parsed record and appends them.
+     */
+    private void appendRecord(byte[] buf) {
+        for (int i = 0; i < types.length; ++i) {
+            int start = fieldStart[i];
+            int end = fieldEnd[i];
+            switch (types[i]) {
+                case INTEGER:
+                    appender.appendInt(parseInt(buf, start, end));
+                    break;
+                case DOUBLE:
+                    appender.appendDouble(parseDouble(buf, start, end));
+                    break;
+                case STRING:
+                    appender.appendString(fieldEscaped[i]
+                            ? unescape(buf, start, end)
+                            : new String(buf, start, end - start, StandardCharsets.UTF_8));
+                    break;
+            }
+        }
+        appender.endRow();
+    }
+
+    /**
+     * Parses a decimal integer from buf[start, end).
+     */
+    static int parseInt(byte[] buf, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negative = buf[pos] == '-';
+            pos++;
+        }
+        if (pos == end) {
+            throw parseError(buf, start, end, Type.INTEGER);
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                throw parseError(buf, start, end, Type.INTEGER);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw parseError(buf, start, end, Type.INTEGER);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw parseError(buf, start, end, Type.INTEGER);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a double from buf[start, end). Plain decimals with at most
+     * 15 significant digits are computed exactly from the bytes, anything
+     * else goes through Double.parseDouble.
+     */
+    static double parseDouble(byte[] buf, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negative = buf[pos] == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        for (; pos < end; pos++) {
+            byte b = buf[pos];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenDot) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+        if (pos == end && digits > 0 && digits <= 15) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        String text = new String(buf, start, end - start, StandardCharsets.UTF_8);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw parseError(buf, start, end, Type.DOUBLE);
+        }
+    }
+
+    /**
+     * Decodes a quoted field that contains "" escapes.
+     */
+    private static String unescape(byte[] buf, int start, int end) {
+        byte[] out = new byte[end - start];
+        int n = 0;
+        for (int pos = start; pos < end; pos++) {
+            out[n++] = buf[pos];
+            if (buf[pos] == QUOTE) {
+                pos++; // Skip the second quote of the escape.
+            }
+        }
+        return new String(out, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private static IllegalArgumentException parseError(byte[] buf, int start, int end, Type type) {
+        String value = new String(buf, start, end - start, StandardCharsets.UTF_8);
+        return new IllegalArgumentException("Error parsing value '" + value + "' for type " + type);
+    }
+
+}
@@ -0,0 +1,82 @@
+package uga.cs4370.mydb;
+
+import java.util.Arrays;
+
+/**
+ * Column of DOUBLE values backed by a double array.
+ */
+class DoubleColumn extends Column {
+
+    private double[] values = new double[INITIAL_CAPACITY];
+
+    @Override
+    Type getType() {
+        return Type.DOUBLE;
+    }
+
+    @Override
+    void append(Cell cell) {
+        append(cell.getAsDouble());
+    }
+
+    /**
+     * Appends a value to the column.
+     */
+    void append(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length, size + 1));
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Returns the value at position i.
+     */
+    double getDouble(int i) {
+        return values[i];
+    }
+
+    /**
+     * Copies the values at positions [from, to) into dest, starting at 0.
+     */
+    void getDoubles(int from, int to, double[] dest) {
+        System.arraycopy(values, from, dest, 0, to - from);
+    }
+
+    @Override
+    void appendAll(Column other) {
+        DoubleColumn that = (DoubleColumn) other;
+        if (size + that.size > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, size + that.size));
+        }
+        System.arraycopy(that.values, 0, values, size, that.size);
+        size += that.size;
+    }
+
+    @Override
+    void appendRows(Column other, int[] rows, int count) {
+        DoubleColumn that = (DoubleColumn) other;
+        if (size + count > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, size + count));
+        }
+        // Read after growing, in case other is this column.
+        double[] source = that.values;
+        for (int k = 0; k < count; ++k) {
+            values[size + k] = source[rows[k]];
+        }
+        size += count;
+    }
+
+    @Override
+    void reserve(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+
+    @Override
+    Cell get(int i) {
+        return Cell.val(values[i]);
+    }
+
+}
@@ -0,0 +1,142 @@
+package uga.cs4370.mydb;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index for equality lookups. Maps every key to the numbers of the
+ * rows holding it, in ascending order. A single INTEGER or STRING
+ * attribute is keyed by its value, other keys by a RowKey of the cells.
+ * Inserted rows are added right away.
+ */
+final class HashIndex extends AbstractIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final Map<Object, RowList> table = new HashMap<>();
+
+    HashIndex(String name, List<String> attrs, Relation relation) {
+        super(name, attrs, relation);
+        sync();
+    }
+
+    /**
+     * Growable list of row numbers.
+     */
+    private static final class RowList {
+        int[] rows = new int[2];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IndexType getType() {
+        return IndexType.HASH;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void rowsAppended() {
+        sync();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    synchronized void sync() {
+        int size = relation.getSize();
+        for (int i = indexed; i < size; ++i) {
+            table.computeIfAbsent(keyOf(i), k -> new RowList()).add(i);
+        }
+        indexed = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int[] lookup(List<Cell> key) {
+        if (key.size() != columns.length) {
+            throw new IllegalArgumentException("Key does not have one cell per indexed attribute.");
+        }
+        sync();
+        Object k = keyOf(key);
+        RowList rows = k == null ? null : table.get(k);
+        return rows == null ? NO_ROWS : Arrays.copyOf(rows.rows, rows.size);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A hash index is used when every indexed attribute is compared for
+     * equality with a literal of its type. DOUBLE attributes are not
+     * looked up, since the index compares them like Cell.equals and not
+     * like ==.
+     */
+    @Override
+    public int[] candidates(Condition c) {
+        Cell[] key = new Cell[columns.length];
+        for (Condition conjunct : c.conjuncts()) {
+            for (int k = 0; k < columns.length; ++k) {
+                Comparison comparison = literalComparison(conjunct, attrs.get(k));
+                if (comparison == null || comparison.op != Comparison.Op.EQ) {
+                    continue;
+                }
+                if (types[k] == Type.INTEGER && comparison.literal instanceof Integer) {
+                    key[k] = Cell.val((Integer) comparison.literal);
+                } else if (types[k] == Type.STRING && comparison.literal instanceof String) {
+                    key[k] = Cell.val((String) comparison.literal);
+                }
+            }
+        }
+        for (Cell cell : key) {
+            if (cell == null) {
+                return null;
+            }
+        }
+        return lookup(Arrays.asList(key));
+    }
+
+    /**
+     * Returns the key of row i of the relation.
+     */
+    private Object keyOf(int i) {
+        if (columns.length == 1 && types[0] == Type.INTEGER) {
+            return relation.getInt(i, columns[0]);
+        }
+        if (columns.length == 1 && types[0] == Type.STRING) {
+            return relation.getString(i, columns[0]);
+        }
+        return RowKey.of(relation.getRowView(i), columns);
+    }
+
+    /**
+     * Returns the table key for the cells of key, or null if no row can
+     * have it.
+     */
+    private Object keyOf(List<Cell> key) {
+        for (int k = 0; k < columns.length; ++k) {
+            if (key.get(k).getType() != types[k]) {
+                return null;
+            }
+        }
+        if (columns.length == 1 && types[0] != Type.DOUBLE) {
+            return value(key.get(0));
+        }
+        return RowKey.of(key);
+    }
+
+}
@@ -0,0 +1,60 @@
+package uga.cs4370.mydb;
+
+import java.util.List;
+
+/**
+ * Secondary index on attributes of a relation, created with 
+ * Relation.createIndex. An index maps values of its attributes to the 
+ * numbers of the rows holding them and is kept up to date when rows are 
+ * inserted into the relation.
+ */
+public interface Index {
+
+    /**
+     * Returns the name of the index.
+     */
+    public String getName();
+
+    /**
+     * Returns the indexed attributes, in key order.
+     */
+    public List<String> getAttrs();
+
+    /**
+     * Returns the kind of the index.
+     */
+    public IndexType getType();
+
+    /**
+     * Returns the numbers of the rows whose indexed attributes are equal 
+     * to the cells of key, in ascending order. A HASH index compares cells 
+     * as Cell.equals does, a SORTED index as range does.
+     * 
+     * @param key one cell per indexed attribute, in key order.
+     * 
+     * @throws IllegalArgumentException if key does not have one cell per 
+     * indexed attribute, or a SORTED index can not compare it.
+     */
+    public int[] lookup(List<Cell> key);
+
+    /**
+     * Returns the numbers of the rows whose indexed attribute lies between 
+     * low and high, in ascending order. A null bound leaves the range open 
+     * on that side. INTEGER and DOUBLE values are compared numerically.
+     * 
+     * @throws UnsupportedOperationException if the index is not SORTED.
+     * @throws IllegalArgumentException if a bound can not be compared with 
+     * the indexed attribute.
+     */
+    public int[] range(Cell low, boolean lowInclusive, Cell high, boolean highInclusive);
+
+    /**
+     * Returns the numbers of the rows that may satisfy the condition c, 
+     * found with the index, in ascending order, or null if the index can 
+     * not narrow down c. The rows still have to be checked against c.
+     * Only the conjuncts of c that compare an indexed attribute with a 
+     * literal are used.
+     */
+    public int[] candidates(Condition c);
+
+}
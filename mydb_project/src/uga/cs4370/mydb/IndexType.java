@@ -0,0 +1,11 @@
+package uga.cs4370.mydb;
+
+/**
+ * Representation of the kinds of secondary indexes on a relation.
+ */
+public enum IndexType {
+    /** Hash index on one or more attributes, for equality lookups. */
+    HASH,
+    /** Sorted index on one attribute, for equality and range lookups. */
+    SORTED
+}
@@ -0,0 +1,107 @@
+package uga.cs4370.mydb;
+
+import java.util.List;
+
+/**
+ * Lazy counterpart of the RA interface. The operators do not compute 
+ * anything, they return a plan that evaluates the operation when it is 
+ * iterated, collected or printed. Operators can be chained so that rows 
+ * are pipelined from the input relations to the result.
+ * Note: As with RA, the input relations are never modified.
+ */
+public interface LazyRA {
+
+    /**
+     * Returns a plan that produces the rows of the relation rel.
+     */
+    public Plan scan(Relation rel);
+
+    /**
+     * Performs the select operation on the plan by applying the predicate p.
+     * 
+     * @return The plan of the select operation.
+     */
+    public Plan select(Plan plan, Predicate p);
+
+    /**
+     * Performs the select operation on the plan by applying the condition c.
+     * The condition is bound to the schema of the plan right away.
+     * 
+     * @return The plan of the select operation.
+     * 
+     * @throws IllegalArgumentException If c references attributes that are 
+     * not present in the plan or compares values of incompatible types.
+     */
+    public Plan select(Plan plan, Condition c);
+
+    /**
+     * Performs the project operation on the plan given the attributes list attrs.
+     * 
+     * @return The plan of the project operation.
+     * 
+     * @throws IllegalArgumentException If attributes in attrs are not 
+     * present in the plan.
+     */
+    public Plan project(Plan plan, List<String> attrs);
+
+    /**
+     * Renames the attributes in origAttr of the plan to corresponding 
+     * names in renamedAttr.
+     * 
+     * @return The plan with the renamed attributes.
+     * 
+     * @throws IllegalArgumentException If attributes in origAttr are not present in 
+     * the plan or origAttr and renamedAttr do not have matching argument counts.
+     */
+    public Plan rename(Plan plan, List<String> origAttr, List<String> renamedAttr);
+
+    /**
+     * Performs cartisian product on plans plan1 and plan2.
+     * 
+     * @return The plan of the cartisian product.
+     * 
+     * @throws IllegalArgumentException if plan1 and plan2 have common attibutes.
+     */
+    public Plan cartesianProduct(Plan plan1, Plan plan2);
+
+    /**
+     * Peforms natural join on plans plan1 and plan2.
+     * 
+     * @return The plan of the natural join.
+     */
+    public Plan join(Plan plan1, Plan plan2);
+
+    /**
+     * Performs theta join on plans plan1 and plan2 with predicate p.
+     * 
+     * @return The plan of the theta join.
+     * 
+     * @throws IllegalArgumentException if plan1 and plan2 have common attibutes.
+     */
+    public Plan join(Plan plan1, Plan plan2, Predicate p);
+
+    /**
+     * Performs theta join on plans plan1 and plan2 with condition c.
+     * The condition is bound to the schema of the joined rows right away.
+     * 
+     * @return The plan of the theta join.
+     * 
+     * @throws IllegalArgumentException if plan1 and plan2 have common attibutes, 
+     * or c references attributes that are not present in plan1 or plan2 or 
+     * compares values of incompatible types.
+     */
+    public Plan join(Plan plan1, Plan plan2, Condition c);
+
+    /**
+     * Returns a plan that produces the same rows as plan, possibly in a 
+     * different order, and is expected to be cheaper to evaluate. 
+     * Selections and projections are pushed below joins, the join order is 
+     * chosen from the sizes of the relations and each join is evaluated as 
+     * a hash join or a nested loop join. Selections with a Predicate are 
+     * kept where they are, use a Condition to allow them to be moved.
+     * 
+     * @return The optimized plan, with the same attributes as plan.
+     */
+    public Plan optimize(Plan plan);
+
+}
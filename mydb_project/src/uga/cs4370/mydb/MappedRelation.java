@@ -0,0 +1,434 @@
+package uga.cs4370.mydb;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relation read from a file written by Relation.save, with the columns
+ * mapped into memory. Values are read from the mapped sections when they
+ * are accessed, so opening the relation costs the same for any size and
+ * columns that are never read are never loaded. STRING values are decoded
+ * once per dictionary code, the first time they are read. The codes and
+ * offsets of a STRING column are checked the first time the column is
+ * read, so a corrupt file fails with an IllegalArgumentException.
+ *
+ * The file is never written to. The first insert copies the rows into a
+ * columnar relation of its own, like RelationView does, which then takes
+ * all further reads and writes.
+ */
+class MappedRelation extends AbstractRelation {
+
+    private final int size;
+    private final IntBuffer[] ints; // Values of the INTEGER columns, codes of the STRING columns.
+    private final DoubleBuffer[] doubles; // Values of the DOUBLE columns.
+    private final IntBuffer[] offsets; // Offsets of the dictionary values of the STRING columns.
+    private final ByteBuffer[] bytes; // UTF-8 dictionary values of the STRING columns.
+    private final String[][] dictionaries; // Decoded dictionary values, null until first read.
+    private final boolean[] checked; // Whether the codes and offsets of the STRING columns were checked.
+    private final List<Map<String, Integer>> codeMaps; // Code of each value, built on first lookup.
+    private AbstractRelation own; // Copy of the rows once the relation is modified.
+
+    MappedRelation(List<Type> types, List<String> attributes, int size, ByteBuffer[] sections) {
+        super(types, attributes);
+        this.size = size;
+        int n = types.size();
+        ints = new IntBuffer[n];
+        doubles = new DoubleBuffer[n];
+        offsets = new IntBuffer[n];
+        bytes = new ByteBuffer[n];
+        dictionaries = new String[n][];
+        checked = new boolean[n];
+        codeMaps = new ArrayList<>(Collections.nCopies(n, null));
+        for (int j = 0; j < n; ++j) {
+            ByteBuffer section = sections[j];
+            switch (types.get(j)) {
+                case INTEGER:
+                    ints[j] = section.asIntBuffer();
+                    break;
+                case DOUBLE:
+                    doubles[j] = section.asDoubleBuffer();
+                    break;
+                default:
+                    int dictionarySize = section.getInt(0);
+                    int valuesFrom = 4 + 4 * size + 4 * (dictionarySize + 1);
+                    ints[j] = slice(section, 4, 4 + 4 * size).asIntBuffer();
+                    offsets[j] = slice(section, 4 + 4 * size, valuesFrom).asIntBuffer();
+                    bytes[j] = slice(section, valuesFrom, section.capacity());
+                    dictionaries[j] = new String[dictionarySize];
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes [from, to) of section.
+     */
+    private static ByteBuffer slice(ByteBuffer section, int from, int to) {
+        return section.duplicate().position(from).limit(to).slice();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return own != null ? own.getSize() : size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cell> getRow(int i) {
+        return new ArrayList<>(getRowView(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The view reads the cells from the file when they are accessed.
+     */
+    @Override
+    public List<Cell> getRowView(int i) {
+        if (own != null) {
+            return own.getRowView(i);
+        }
+        if (i < 0 || i >= size) {
+            throw new IllegalArgumentException("Row index out of bounds.");
+        }
+        return new AbstractList<Cell>() {
+            @Override
+            public Cell get(int j) {
+                return getCell(i, j);
+            }
+
+            @Override
+            public int size() {
+                return types.size();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cell getCell(int i, int j) {
+        if (own != null) {
+            return own.getCell(i, j);
+        }
+        if (i < 0 || i >= size || j < 0 || j >= types.size()) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+        switch (types.get(j)) {
+            case INTEGER:
+                return Cell.val(ints[j].get(i));
+            case DOUBLE:
+                return Cell.val(doubles[j].get(i));
+            default:
+                return Cell.val(value(j, ints[j].get(i)));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(int i, int j) {
+        if (own != null) {
+            return own.getInt(i, j);
+        }
+        checkIndex(i, j, Type.INTEGER);
+        return ints[j].get(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(int i, int j) {
+        if (own != null) {
+            return own.getDouble(i, j);
+        }
+        checkIndex(i, j, Type.DOUBLE);
+        return doubles[j].get(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(int i, int j) {
+        if (own != null) {
+            return own.getString(i, j);
+        }
+        checkIndex(i, j, Type.STRING);
+        return value(j, ints[j].get(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getInts(int j, int from, int to, int[] dest) {
+        if (own != null) {
+            own.getInts(j, from, to, dest);
+            return;
+        }
+        checkBatch(j, from, to, dest.length, Type.INTEGER);
+        ints[j].get(from, dest, 0, to - from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getDoubles(int j, int from, int to, double[] dest) {
+        if (own != null) {
+            own.getDoubles(j, from, to, dest);
+            return;
+        }
+        checkBatch(j, from, to, dest.length, Type.DOUBLE);
+        doubles[j].get(from, dest, 0, to - from);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getStringCode(int i, int j) {
+        if (own != null) {
+            return own.getStringCode(i, j);
+        }
+        checkIndex(i, j, Type.STRING);
+        checkStrings(j);
+        return ints[j].get(i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getStringDictionary(int j) {
+        if (own != null) {
+            return own.getStringDictionary(j);
+        }
+        checkColumn(j);
+        return new AbstractList<String>() {
+            @Override
+            public String get(int code) {
+                if (code < 0 || code >= dictionaries[j].length) {
+                    throw new IndexOutOfBoundsException("Code out of bounds: " + code);
+                }
+                return value(j, code);
+            }
+
+            @Override
+            public int size() {
+                return dictionaries[j].length;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * The first lookup in a column decodes its whole dictionary.
+     */
+    @Override
+    public int findStringCode(int j, String value) {
+        if (own != null) {
+            return own.findStringCode(j, value);
+        }
+        checkColumn(j);
+        Integer code = codeMap(j).get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Returns the map from value to code of STRING column j, building it
+     * on first use.
+     */
+    private synchronized Map<String, Integer> codeMap(int j) {
+        if (codeMaps.get(j) == null) {
+            Map<String, Integer> codeOf = new HashMap<>();
+            for (int code = 0; code < dictionaries[j].length; ++code) {
+                codeOf.put(value(j, code), code);
+            }
+            codeMaps.set(j, codeOf);
+        }
+        return codeMaps.get(j);
+    }
+
+    /**
+     * Checks that the codes of STRING column j are dictionary codes and 
+     * that the offsets of its values are in order and within its bytes, 
+     * the first time the column is read. Threads that read the column at 
+     * the same time may both check it.
+     *
+     * @throws IllegalArgumentException if the file is corrupt.
+     */
+    private void checkStrings(int j) {
+        if (checked[j]) {
+            return;
+        }
+        int dictionarySize = dictionaries[j].length;
+        IntBuffer codes = ints[j];
+        for (int i = 0; i < size; ++i) {
+            int code = codes.get(i);
+            if (code < 0 || code >= dictionarySize) {
+                throw new IllegalArgumentException("Corrupt relation file: code out of bounds.");
+            }
+        }
+        int previous = 0;
+        for (int code = 0; code <= dictionarySize; ++code) {
+            int offset = offsets[j].get(code);
+            if (offset < previous || offset > bytes[j].capacity()) {
+                throw new IllegalArgumentException("Corrupt relation file: offset out of bounds.");
+            }
+            previous = offset;
+        }
+        checked[j] = true;
+    }
+
+    private void checkColumn(int j) {
+        if (j < 0 || j >= types.size()) {
+            throw new IllegalArgumentException("Column index out of bounds.");
+        }
+        if (types.get(j) != Type.STRING) {
+            throw new RuntimeException("Illegal cell type conversion.");
+        }
+    }
+
+    /**
+     * Checks that cell (i, j) exists and that column j has the expected type.
+     */
+    private void checkIndex(int i, int j, Type type) {
+        if (i < 0 || i >= size || j < 0 || j >= types.size()) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+        if (types.get(j) != type) {
+            throw new RuntimeException("Illegal cell type conversion.");
+        }
+    }
+
+    /**
+     * Returns the value of a dictionary code of STRING column j, decoding
+     * it on first use. Threads that read the same code at the same time
+     * may both decode it, and either result is kept.
+     */
+    private String value(int j, int code) {
+        checkStrings(j);
+        String value = dictionaries[j][code];
+        if (value == null) {
+            int from = offsets[j].get(code);
+            byte[] encoded = new byte[offsets[j].get(code + 1) - from];
+            bytes[j].get(from, encoded);
+            value = new String(encoded, StandardCharsets.UTF_8);
+            dictionaries[j][code] = value;
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(List<Cell> row) {
+        checkRow(row);
+        materialize().insert(row);
+        updateIndexes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    AbstractRelation emptyCopy(List<Type> types, List<String> attributes) {
+        return new ColumnarRelation(types, attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Class<? extends AbstractRelation> layoutClass() {
+        return ColumnarRelation.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void appendAll(AbstractRelation other) {
+        materialize().appendAll(other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void appendRows(Relation rel, int[] rows, int count) {
+        materialize().appendRows(rel, rows, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender appender() {
+        return materialize().appender();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender checkedAppender() {
+        return materialize().checkedAppender();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void reserve(int rows) {
+        materialize().reserve(rows);
+    }
+
+    /**
+     * Copies the rows of the file into a relation owned by this relation,
+     * which then takes all further reads and writes.
+     */
+    private AbstractRelation materialize() {
+        if (own == null) {
+            AbstractRelation copy = emptyCopy();
+            RowAppender appender = copy.appender();
+            for (int i = 0; i < size; ++i) {
+                for (int j = 0; j < types.size(); ++j) {
+                    switch (types.get(j)) {
+                        case INTEGER:
+                            appender.appendInt(getInt(i, j));
+                            break;
+                        case DOUBLE:
+                            appender.appendDouble(getDouble(i, j));
+                            break;
+                        default:
+                            appender.appendString(getString(i, j));
+                            break;
+                    }
+                }
+                appender.endRow();
+            }
+            own = copy;
+        }
+        return own;
+    }
+
+}
@@ -0,0 +1,189 @@
+package uga.cs4370.mydb;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses a CSV file in parallel. The file is cut into byte ranges that
+ * start and end on record boundaries, each range is parsed into its own
+ * relation on a fork-join pool, and the relations are returned in file
+ * order so the caller can append them.
+ *
+ * Record boundaries are found without a sequential scan of the file:
+ * every nominal chunk counts its quotes and remembers its first newline
+ * seen with an even and with an odd number of quotes before it. The
+ * quote parity at the start of each chunk is then the running parity
+ * of the chunks before it, which tells which of the two newlines ends
+ * a record. Escaped quotes come in pairs and do not change the parity.
+ */
+final class ParallelCsvLoader {
+
+    private static final int MAX_CHUNK_SIZE = 8 << 20;
+
+    private final AbstractRelation relation;
+    private final FileChannel channel;
+    private final int parallelism;
+
+    ParallelCsvLoader(AbstractRelation relation, FileChannel channel, int parallelism) {
+        this.relation = relation;
+        this.channel = channel;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Quote parity and candidate record boundaries of a nominal chunk.
+     */
+    private static final class ChunkScan {
+        boolean oddQuotes; // Whether the chunk holds an odd number of quotes.
+        long evenNewline = -1; // First newline with an even quote count before it in the chunk.
+        long oddNewline = -1; // First newline with an odd quote count before it in the chunk.
+    }
+
+    /**
+     * Parses the file and returns one relation per chunk, in file order.
+     *
+     * @throws IllegalArgumentException if the file does not match the schema.
+     * @throws UncheckedIOException if the file can not be read.
+     */
+    List<AbstractRelation> load() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            return List.of();
+        }
+        int chunks = (int) Math.max(parallelism, (fileSize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        chunks = (int) Math.min(chunks, fileSize);
+        long chunkSize = (fileSize + chunks - 1) / chunks;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Scan the nominal chunks for quotes and newlines.
+            List<ForkJoinTask<ChunkScan>> scans = new ArrayList<>(chunks);
+            for (int k = 0; k < chunks; k++) {
+                long start = Math.min(k * chunkSize, fileSize);
+                long end = Math.min(start + chunkSize, fileSize);
+                scans.add(pool.submit(() -> scan(start, end)));
+            }
+
+            // Place the boundaries using the running quote parity.
+            List<Long> boundaries = new ArrayList<>(chunks + 1);
+            boundaries.add(0L);
+            boolean inQuotes = false;
+            for (int k = 0; k < chunks; k++) {
+                ChunkScan scan = await(scans.get(k));
+                if (k > 0) {
+                    long newline = inQuotes ? scan.oddNewline : scan.evenNewline;
+                    if (newline >= 0 && newline + 1 > boundaries.get(boundaries.size() - 1)) {
+                        boundaries.add(newline + 1);
+                    }
+                }
+                inQuotes ^= scan.oddQuotes;
+            }
+            if (boundaries.get(boundaries.size() - 1) < fileSize) {
+                boundaries.add(fileSize);
+            }
+
+            // Parse the aligned ranges.
+            List<ForkJoinTask<AbstractRelation>> parses = new ArrayList<>(boundaries.size() - 1);
+            for (int k = 0; k + 1 < boundaries.size(); k++) {
+                long start = boundaries.get(k);
+                long end = boundaries.get(k + 1);
+                parses.add(pool.submit(() -> parse(start, end)));
+            }
+            List<AbstractRelation> result = new ArrayList<>(parses.size());
+            for (ForkJoinTask<AbstractRelation> parse : parses) {
+                result.add(await(parse));
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Waits for a task and rethrows its failure as thrown by the task.
+     */
+    private static <T> T await(ForkJoinTask<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // The pool may rethrow a copy of the exception that wraps the original.
+            if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading data.", e);
+        }
+    }
+
+    /**
+     * Counts the quotes in [start, end) and finds its first newline for
+     * each quote parity.
+     */
+    private ChunkScan scan(long start, long end) {
+        byte[] buf = read(start, end);
+        ChunkScan scan = new ChunkScan();
+        boolean odd = false;
+        for (int i = 0; i < buf.length; i++) {
+            byte b = buf[i];
+            if (b == '"') {
+                odd = !odd;
+            } else if (b == '\n') {
+                if (odd) {
+                    if (scan.oddNewline < 0) {
+                        scan.oddNewline = start + i;
+                    }
+                } else if (scan.evenNewline < 0) {
+                    scan.evenNewline = start + i;
+                }
+            }
+        }
+        scan.oddQuotes = odd;
+        return scan;
+    }
+
+    /**
+     * Parses the records in [start, end) into a new relation.
+     */
+    private AbstractRelation parse(long start, long end) {
+        byte[] buf = read(start, end);
+        AbstractRelation chunk = relation.emptyCopy();
+        new CsvParser(relation.types, chunk.appender()).parse(buf, 0, buf.length, true);
+        return chunk;
+    }
+
+    /**
+     * Reads the bytes in [start, end) of the file.
+     */
+    private byte[] read(long start, long end) {
+        byte[] buf = new byte[(int) (end - start)];
+        ByteBuffer target = ByteBuffer.wrap(buf);
+        try {
+            while (target.hasRemaining()) {
+                int read = channel.read(target, start + target.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file.");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buf;
+    }
+
+}
@@ -0,0 +1,49 @@
+package uga.cs4370.mydb;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A lazily evaluated relational algebra expression. Rows are produced 
+ * one at a time by iterating the plan, pulling them through the operators 
+ * below it without building intermediate relations. A plan is only 
+ * materialized when it is printed or explicitly collected.
+ */
+public interface Plan extends Iterable<List<Cell>> {
+
+    /**
+     * Returns the list of attributes of the rows produced by the plan.
+     */
+    public List<String> getAttrs();
+
+    /**
+     * Return the type of each column of the rows produced by the plan.
+     */
+    public List<Type> getTypes();
+
+    /**
+     * Returns an iterator that evaluates the plan. Each call starts a 
+     * new evaluation. The returned rows must not be modified.
+     */
+    @Override
+    public Iterator<List<Cell>> iterator();
+
+    /**
+     * Evaluates the plan and materializes the result in a new relation.
+     */
+    public Relation collect();
+
+    /**
+     * Evaluates the plan and prints the result formatted as a table
+     * to the standard output.
+     */
+    public void print();
+
+    /**
+     * Returns a description of the plan as an indented tree with one 
+     * operator per line, each annotated with its estimated number of 
+     * output rows. Nothing is evaluated.
+     */
+    public String explain();
+
+}
@@ -10,7 +10,8 @@ public interface Predicate {
 
     /**
      * Checks a row for a condition and returns true
-     * if the row passes the predicate.
+     * if the row passes the predicate. The row may be a read-only
+     * view of the relation storage and must not be modified.
      */
     public boolean check(List<Cell> row);
     
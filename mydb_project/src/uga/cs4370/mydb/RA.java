@@ -18,6 +18,18 @@ public interface RA {
      */
     public Relation select(Relation rel, Predicate p);
 
+    /**
+     * Performs the select operation on the relation rel
+     * by applying the condition c. The condition is bound to the 
+     * schema of rel once, before any row is checked.
+     * 
+     * @return The resulting relation after applying the select operation.
+     * 
+     * @throws IllegalArgumentException If c references attributes that are 
+     * not present in rel or compares values of incompatible types.
+     */
+    public Relation select(Relation rel, Condition c);
+
     /**
      * Performs the project operation on the relation rel
      * given the attributes list attrs.
@@ -29,6 +41,19 @@ public interface RA {
      */
     public Relation project(Relation rel, List<String> attrs);
 
+    /**
+     * Performs the project operation on the relation rel given the 
+     * attributes list attrs. If distinct is true, duplicate rows are 
+     * removed from the result, keeping the first occurrence of each row 
+     * in the order of rel.
+     * 
+     * @return The resulting relation after applying the project operation.
+     * 
+     * @throws IllegalArgumentException If attributes in attrs are not 
+     * present in rel.
+     */
+    public Relation project(Relation rel, List<String> attrs, boolean distinct);
+
     /**
      * Performs the union operation on the relations rel1 and rel2.
      * 
@@ -47,6 +72,15 @@ public interface RA {
      */
     public Relation diff(Relation rel1, Relation rel2);
 
+    /**
+     * Performs the set intersection operation on the relations rel1 and rel2.
+     * 
+     * @return The resulting relation after applying the set intersection operation.
+     * 
+     * @throws IllegalArgumentException If rel1 and rel2 are not compatible.
+     */
+    public Relation intersect(Relation rel1, Relation rel2);
+
     /**
      * Renames the attributes in origAttr of relation rel to corresponding 
      * names in renamedAttr.
@@ -83,4 +117,49 @@ public interface RA {
      */
     public Relation join(Relation rel1, Relation rel2, Predicate p);
 
+    /**
+     * Performs theta join on relations rel1 and rel2 with condition c.
+     * The condition is bound to the schema of the joined rows once.
+     * 
+     * @return The resulting relation after applying theta join.
+     * 
+     * @throws IllegalArgumentException if rel1 and rel2 have common attibutes, 
+     * or c references attributes that are not present in rel1 or rel2 or 
+     * compares values of incompatible types.
+     */
+    public Relation join(Relation rel1, Relation rel2, Condition c);
+
+    /**
+     * Sorts the rows of relation rel on the attributes attrs: on the first 
+     * attribute, then on the second for rows with equal first values, and 
+     * so on. Rows that are equal on all of attrs keep their order in rel. 
+     * Numbers are compared numerically, with NaN after all other numbers, 
+     * and strings lexicographically.
+     * 
+     * @param ascending Whether the rows are sorted in ascending order, or 
+     * in descending order.
+     * @return The resulting relation after sorting.
+     * 
+     * @throws IllegalArgumentException If attributes in attrs are not 
+     * present in rel.
+     */
+    public Relation sort(Relation rel, List<String> attrs, boolean ascending);
+
+    /**
+     * Groups the rows of relation rel on the attributes groupAttrs and 
+     * computes the aggregates over each group. The result has the group 
+     * attributes followed by one attribute per aggregate, and one row per 
+     * group in order of the first row of each group in rel. Without group 
+     * attributes all rows form one group. A relation without rows has no 
+     * groups.
+     * 
+     * @return The resulting relation after grouping and aggregation.
+     * 
+     * @throws IllegalArgumentException If attributes in groupAttrs or 
+     * aggregated attributes are not present in rel, if SUM or AVG is asked 
+     * of a STRING attribute, if the result attribute names are not unique, 
+     * or if an INTEGER result does not fit in an INTEGER.
+     */
+    public Relation groupBy(Relation rel, List<String> groupAttrs, List<Aggregate> aggregates);
+
 }
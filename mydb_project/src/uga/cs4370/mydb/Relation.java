@@ -1,5 +1,6 @@
 package uga.cs4370.mydb;
 
+import java.io.PrintStream;
 import java.util.List;
 
 /**
@@ -12,6 +13,14 @@ public interface Relation {
      */
     public int getSize();
 
+    /**
+     * Returns the version of the rows of the relation. The version changes 
+     * whenever rows are added, by insert, insertAll, loadData or an 
+     * appender, so that a result computed from the relation can be told 
+     * apart from one computed from an earlier version of it.
+     */
+    public long getVersion();
+
     /**
      * Get the row at position i in the relation. i is a 0 based index.
      * Return a deep copy of the row to avoid modifications to the 
@@ -23,6 +32,105 @@ public interface Relation {
      */
     public List<Cell> getRow(int i);
 
+    /**
+     * Get a read-only view of the row at position i in the relation. 
+     * Unlike getRow, the row is not copied, so this is the preferred way 
+     * for operators to scan a relation. The returned list can not be 
+     * modified.
+     * 
+     * @param i position of the row to return.
+     * 
+     * @throws IllegalArgumentException if i < 0 or i >= getSize().
+     */
+    public List<Cell> getRowView(int i);
+
+    /**
+     * Get the cell at row i and column j without copying the row.
+     * 
+     * @param i position of the row.
+     * @param j position of the column.
+     * 
+     * @throws IllegalArgumentException if i or j is out of bounds.
+     */
+    public Cell getCell(int i, int j);
+
+    /**
+     * Get the INTEGER value at row i and column j without creating a cell.
+     * 
+     * @throws IllegalArgumentException if i or j is out of bounds.
+     * @throws RuntimeException if column j is not of type INTEGER.
+     */
+    public int getInt(int i, int j);
+
+    /**
+     * Get the DOUBLE value at row i and column j without creating a cell.
+     * 
+     * @throws IllegalArgumentException if i or j is out of bounds.
+     * @throws RuntimeException if column j is not of type DOUBLE.
+     */
+    public double getDouble(int i, int j);
+
+    /**
+     * Get the STRING value at row i and column j without creating a cell.
+     * 
+     * @throws IllegalArgumentException if i or j is out of bounds.
+     * @throws RuntimeException if column j is not of type STRING.
+     */
+    public String getString(int i, int j);
+
+    /**
+     * Copy the INTEGER values of rows from (inclusive) to to (exclusive) of 
+     * column j into dest, starting at dest[0]. Lets operators read a batch 
+     * of values at once instead of one call per row.
+     * 
+     * @throws IllegalArgumentException if the rows or j are out of bounds 
+     * or dest is too small.
+     * @throws RuntimeException if column j is not of type INTEGER.
+     */
+    public void getInts(int j, int from, int to, int[] dest);
+
+    /**
+     * Copy the DOUBLE values of rows from (inclusive) to to (exclusive) of 
+     * column j into dest, starting at dest[0].
+     * 
+     * @throws IllegalArgumentException if the rows or j are out of bounds 
+     * or dest is too small.
+     * @throws RuntimeException if column j is not of type DOUBLE.
+     */
+    public void getDoubles(int j, int from, int to, double[] dest);
+
+    /**
+     * Get the dictionary code of the STRING value at row i and column j. 
+     * Each STRING column stores every distinct value once in a dictionary 
+     * and codes its rows with the position of their value, so two rows of 
+     * the same column have equal values exactly if they have the same 
+     * code. Codes of a value never change while the relation grows.
+     * 
+     * @throws IllegalArgumentException if i or j is out of bounds.
+     * @throws RuntimeException if column j is not of type STRING.
+     */
+    public int getStringCode(int i, int j);
+
+    /**
+     * Get the dictionary of STRING column j: its distinct values in code 
+     * order. The returned list can not be modified. It may hold values 
+     * that are no longer in the rows of the relation, such as values of 
+     * rows that a view does not show.
+     * 
+     * @throws IllegalArgumentException if j is out of bounds.
+     * @throws RuntimeException if column j is not of type STRING.
+     */
+    public List<String> getStringDictionary(int j);
+
+    /**
+     * Get the dictionary code of value in STRING column j, or -1 if the 
+     * dictionary does not hold it.
+     * 
+     * @throws IllegalArgumentException if j is out of bounds.
+     * @throws RuntimeException if column j is not of type STRING.
+     */
+    public int findStringCode(int j, String value);
+
     /**
      * Return the type of each column in a list.
      */
@@ -46,6 +154,65 @@ p.     */
      */
     public int getAttrIndex(String attr);
 
+    /**
+     * Returns a relation with the rows of this relation and the 
+     * attributes renamed to attrs. The rows are shared with this relation 
+     * instead of being copied, so the cost does not depend on the number 
+     * of rows. Both relations stay independent: rows inserted into either
+     * one later are not visible in the other.
+     * 
+     * @param attrs the new attribute names, one per attribute.
+     * 
+     * @throws IllegalArgumentException if attrs does not have one unique 
+     * name per attribute.
+     */
+    public Relation renameAttrs(List<String> attrs);
+
+    /**
+     * Returns a relation with the rows of this relation restricted to the 
+     * attributes attrs, in that order. Like renameAttrs, the rows are 
+     * shared with this relation instead of being copied, and both 
+     * relations stay independent. Duplicate rows are kept.
+     * 
+     * @throws IllegalArgumentException if an attribute in attrs is not 
+     * present in the relation or attrs are not unique.
+     */
+    public Relation projectAttrs(List<String> attrs);
+
+    /**
+     * Creates an index named name on the attributes attrs and fills it with 
+     * the rows of the relation. The index is kept up to date as rows are 
+     * inserted or loaded. A HASH index serves equality lookups on all of 
+     * its attributes, a SORTED index has one attribute and also serves 
+     * range lookups.
+     * 
+     * @return the new index.
+     * 
+     * @throws IllegalArgumentException if an index named name exists, if an 
+     * attribute in attrs is not present in the relation or if a SORTED index 
+     * does not have exactly one attribute.
+     */
+    public Index createIndex(String name, List<String> attrs, IndexType type);
+
+    /**
+     * Removes the index named name.
+     * 
+     * @throws IllegalArgumentException if there is no index named name.
+     */
+    public void dropIndex(String name);
+
+    /**
+     * Returns the index named name.
+     * 
+     * @throws IllegalArgumentException if there is no index named name.
+     */
+    public Index getIndex(String name);
+
+    /**
+     * Returns the indexes of the relation, in creation order.
+     */
+    public List<Index> getIndexes();
+
     /**
      * Inserts a row in the relation.
      * 
@@ -54,6 +221,58 @@ p.     */
      */
     public void insert(List<Cell> row);
 
+    /**
+     * Inserts all rows of rel in the relation, in the order of rel. The 
+     * schema is checked once for all rows, and rows of a relation with the 
+     * same storage layout are appended without checking each cell.
+     * 
+     * @throws IllegalArgumentException if the attribute types of rel do not 
+     * correspond to the attribute types of the relation.
+     */
+    public void insertAll(Relation rel);
+
+    /**
+     * Inserts the rows of rel at positions rows[0], ..., rows[count - 1] 
+     * in the relation, in that order. The schema is checked once for all 
+     * rows, and rows of a relation with the same storage layout are 
+     * copied column by column, or shared by row storage, without checking 
+     * or creating each cell.
+     * 
+     * @throws IllegalArgumentException if the attribute types of rel do not 
+     * correspond to the attribute types of the relation, or a row position 
+     * is out of bounds.
+     */
+    public void insertAll(Relation rel, int[] rows, int count);
+
+    /**
+     * Inserts joined rows in the relation: for k < count, row rows1[k] of 
+     * rel1 followed by the cells of row rows2[k] of rel2 at positions 
+     * columns2. The schema is checked once for all rows instead of once 
+     * per value, and the joined rows are not built as lists of cells.
+     * 
+     * @throws IllegalArgumentException if the attribute types of rel1 
+     * followed by those of rel2 at columns2 do not correspond to the 
+     * attribute types of the relation, or a row or column position is out 
+     * of bounds.
+     */
+    public void insertJoined(Relation rel1, int[] rows1, Relation rel2, int[] rows2, int[] columns2,
+            int count);
+
+    /**
+     * Returns an appender that adds rows to the relation field by field, 
+     * after making room for expectedRows more rows. Each value is checked 
+     * against the type of its attribute when it is appended, and the 
+     * number of values when the row ends, by throwing an 
+     * IllegalArgumentException before the relation is changed. A row is 
+     * added, and visible, once endRow returns.
+     * 
+     * @param expectedRows the number of rows expected to be appended, 
+     * which may be 0 if it is not known.
+     * 
+     * @throws IllegalArgumentException if expectedRows is negative.
+     */
+    public RowAppender appender(int expectedRows);
+
     /**
      * Load data from a CSV file given by the path.
      * 
@@ -65,6 +284,34 @@ p.     */
      */
     public void loadData(String path);
 
+    /**
+     * Load data from a CSV file given by the path, parsing it in parallel.
+     * The file is split into chunks on record boundaries and the chunks are 
+     * parsed on a fork-join pool. Rows are added in file order, so the 
+     * result is the same as with loadData(path).
+     * 
+     * @param path a path to a valid CSV file that matches the relation schema.
+     * @param parallelism the number of threads to parse with, 1 parses 
+     * sequentially.
+     * 
+     * @throws IllegalArgumentException if the file does not exist or if
+     * the file format is not correct or if the CSV file does not match the schema
+     * of the relation or if parallelism is less than 1.
+     */
+    public void loadData(String path, int parallelism);
+
+    /**
+     * Save the relation to a binary columnar file at path, replacing the 
+     * file if it exists. The file holds the schema and the rows of the 
+     * relation, but not its indexes, and can be opened with 
+     * RelationBuilder.open without parsing it.
+     * 
+     * @param path a path to the file to write.
+     * 
+     * @throws IllegalArgumentException if the file can not be written.
+     */
+    public void save(String path);
+
     /**
      * Print the relation properly formatted as a table 
      * to the standard ouput.
@@ -72,4 +319,14 @@ p.     */
      */
     public void print();
 
+    /**
+     * Print the relation formatted as a table like print does, to out. 
+     * Column widths are estimated from the first sampleRows rows, so the 
+     * rows can be written in one pass; later cells that are wider than 
+     * their column are printed in full. print() samples all rows.
+     * 
+     * @throws IllegalArgumentException if sampleRows is negative.
+     */
+    public void print(PrintStream out, int sampleRows);
+
 }
@@ -1,5 +1,8 @@
 package uga.cs4370.mydb;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.List;
 
@@ -10,6 +13,8 @@ public class RelationBuilder {
 
     private List<String> attrNames; // Attribute names to be used when building the relation.
     private List<Type> attrTypes; // Attribute types to be used when building the relation.
+    private Storage storage = Storage.ROW; // Storage layout to be used when building the relation.
+    private int expectedRows; // Number of rows to make room for when building the relation.
 
     /**
      * Set the attribute names for the new relation to be built.
@@ -66,6 +71,41 @@ public class RelationBuilder {
         return this;
     }
     
+    /**
+     * Set the storage layout for the new relation to be built.
+     * Defaults to Storage.ROW.
+     * 
+     * @param storage the storage layout.
+     * 
+     * @return the same instance of the builder for config chaining.
+     */
+    public RelationBuilder storage(Storage storage) {
+        if (storage == null) {
+            throw new NullPointerException("Storage can not be null.");
+        }
+        this.storage = storage;
+        return this;
+    }
+
+    /**
+     * Set the number of rows the new relation is expected to hold, so that 
+     * its storage is allocated once instead of growing as rows are 
+     * inserted. Defaults to 0. The relation can still hold more rows.
+     * 
+     * @param expectedRows the expected number of rows.
+     * 
+     * @return the same instance of the builder for config chaining.
+     * 
+     * @throws IllegalArgumentException if expectedRows is negative.
+     */
+    public RelationBuilder expectedRows(int expectedRows) {
+        if (expectedRows < 0) {
+            throw new IllegalArgumentException("Expected rows can not be negative.");
+        }
+        this.expectedRows = expectedRows;
+        return this;
+    }
+
     /**
      * Create a new Relation instace.
      * 
@@ -77,7 +117,49 @@ public class RelationBuilder {
         if (attrTypes == null || attrNames == null) {
             throw new IllegalArgumentException("Attribute names or attribute types are not set.");
         }
-        return new RelationImpl(attrTypes, attrNames);
+        AbstractRelation rel = storage == Storage.COLUMNAR
+                ? new ColumnarRelation(attrTypes, attrNames)
+                : new RelationImpl(attrTypes, attrNames);
+        if (expectedRows > 0) {
+            rel.reserve(expectedRows);
+        }
+        return rel;
+    }
+
+    /**
+     * Open a relation saved with Relation.save. The file is memory mapped 
+     * and its columns are read when they are accessed, so opening does not 
+     * depend on the size of the relation. Inserting into the relation 
+     * copies its rows into memory; the file is never modified. The storage 
+     * layout of the builder is ignored, and attribute names and types are 
+     * optional: if they are set they must match the file.
+     * 
+     * @param path a path to a file written by Relation.save.
+     * 
+     * @return the relation stored in the file.
+     * 
+     * @throws IllegalArgumentException if the file does not exist, is not 
+     * a relation file or does not match the configured attribute names or types.
+     * The values of a STRING column are checked when the column is first 
+     * read, which throws an IllegalArgumentException if they are corrupt.
+     */
+    public Relation open(String path) {
+        if (!Files.exists(Paths.get(path))) {
+            throw new IllegalArgumentException("File does not exist: " + path);
+        }
+        Relation rel;
+        try {
+            rel = RelationFile.open(Paths.get(path));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read data from path: " + path);
+        }
+        if (attrNames != null && !attrNames.equals(rel.getAttrs())) {
+            throw new IllegalArgumentException("Attribute names do not match the file: " + path);
+        }
+        if (attrTypes != null && !attrTypes.equals(rel.getTypes())) {
+            throw new IllegalArgumentException("Attribute types do not match the file: " + path);
+        }
+        return rel;
     }
     
 }
@@ -0,0 +1,259 @@
+package uga.cs4370.mydb;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary columnar file format of relations, written by Relation.save and
+ * read by RelationBuilder.open. All numbers are big endian.
+ *
+ * <pre>
+ * header:  magic "MYDB", version, number of rows, number of columns
+ *          per column: type ordinal, name length, UTF-8 name
+ *          per column: offset and length of its section (longs)
+ * INTEGER: one int per row
+ * DOUBLE:  one double per row
+ * STRING:  dictionary size d, one int code per row, d + 1 int offsets
+ *          of the values in the UTF-8 bytes of all values, the bytes
+ * </pre>
+ *
+ * Sections start at multiples of 8 bytes. Each section is mapped into
+ * memory on its own, so opening a file reads only its header and the
+ * pages of a column are loaded when it is first read.
+ */
+final class RelationFile {
+
+    private static final int MAGIC = 0x4D594442; // "MYDB"
+    private static final int VERSION = 1;
+    private static final int ALIGNMENT = 8;
+    private static final int HEADER_BUFFER_SIZE = 1 << 12; // Bytes buffered while reading the header.
+
+    private RelationFile() {
+    }
+
+    /**
+     * Dictionary encoding of a STRING column.
+     */
+    private static final class Dictionary {
+        final int[] codes;
+        final List<byte[]> values = new ArrayList<>();
+        long bytes; // Total length of the encoded values.
+
+        Dictionary(Relation rel, int column) {
+            codes = new int[rel.getSize()];
+            Map<String, Integer> codeOf = new HashMap<>();
+            for (int i = 0; i < codes.length; ++i) {
+                String value = rel.getString(i, column);
+                Integer code = codeOf.get(value);
+                if (code == null) {
+                    code = values.size();
+                    codeOf.put(value, code);
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    values.add(encoded);
+                    bytes += encoded.length;
+                }
+                codes[i] = code;
+            }
+        }
+
+        long sectionLength() {
+            return 4 + 4L * codes.length + 4L * (values.size() + 1) + bytes;
+        }
+    }
+
+    /**
+     * Writes rel to the file at path, replacing it if it exists.
+     */
+    static void save(Relation rel, Path path) throws IOException {
+        List<String> attrs = rel.getAttrs();
+        List<Type> types = rel.getTypes();
+        int rows = rel.getSize();
+        int columns = types.size();
+
+        // Lay the sections out before writing, the header holds their offsets.
+        Dictionary[] dictionaries = new Dictionary[columns];
+        long[] lengths = new long[columns];
+        for (int j = 0; j < columns; ++j) {
+            switch (types.get(j)) {
+                case INTEGER:
+                    lengths[j] = 4L * rows;
+                    break;
+                case DOUBLE:
+                    lengths[j] = 8L * rows;
+                    break;
+                default:
+                    dictionaries[j] = new Dictionary(rel, j);
+                    lengths[j] = dictionaries[j].sectionLength();
+                    if (dictionaries[j].bytes > Integer.MAX_VALUE) {
+                        throw new IOException("Values of column " + attrs.get(j) + " are too large to save.");
+                    }
+                    break;
+            }
+            if (lengths[j] > Integer.MAX_VALUE) {
+                throw new IOException("Column " + attrs.get(j) + " is too large to save.");
+            }
+        }
+        byte[][] names = new byte[columns][];
+        long headerLength = 16 + 16L * columns;
+        for (int j = 0; j < columns; ++j) {
+            names[j] = attrs.get(j).getBytes(StandardCharsets.UTF_8);
+            headerLength += 8 + names[j].length;
+        }
+        long[] offsets = new long[columns];
+        long offset = align(headerLength);
+        for (int j = 0; j < columns; ++j) {
+            offsets[j] = offset;
+            offset = align(offset + lengths[j]);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows);
+            out.writeInt(columns);
+            for (int j = 0; j < columns; ++j) {
+                out.writeInt(types.get(j).ordinal());
+                out.writeInt(names[j].length);
+                out.write(names[j]);
+            }
+            for (int j = 0; j < columns; ++j) {
+                out.writeLong(offsets[j]);
+                out.writeLong(lengths[j]);
+            }
+            pad(out, headerLength);
+            for (int j = 0; j < columns; ++j) {
+                switch (types.get(j)) {
+                    case INTEGER:
+                        for (int i = 0; i < rows; ++i) {
+                            out.writeInt(rel.getInt(i, j));
+                        }
+                        break;
+                    case DOUBLE:
+                        for (int i = 0; i < rows; ++i) {
+                            out.writeDouble(rel.getDouble(i, j));
+                        }
+                        break;
+                    default:
+                        Dictionary dictionary = dictionaries[j];
+                        out.writeInt(dictionary.values.size());
+                        for (int code : dictionary.codes) {
+                            out.writeInt(code);
+                        }
+                        int position = 0;
+                        for (byte[] value : dictionary.values) {
+                            out.writeInt(position);
+                            position += value.length;
+                        }
+                        out.writeInt(position);
+                        for (byte[] value : dictionary.values) {
+                            out.write(value);
+                        }
+                        break;
+                }
+                pad(out, lengths[j]);
+            }
+        }
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /**
+     * Writes zeros after a block of the given length up to the alignment.
+     */
+    private static void pad(DataOutputStream out, long length) throws IOException {
+        for (long k = length; k < align(length); ++k) {
+            out.writeByte(0);
+        }
+    }
+
+    /**
+     * Maps the file at path and returns the relation it holds.
+     *
+     * @throws IllegalArgumentException if the file is not a relation file.
+     */
+    static MappedRelation open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            // The header is read through a stream, the sections are mapped.
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel), HEADER_BUFFER_SIZE));
+            if (fileSize < 16 || in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a relation file: " + path);
+            }
+            if (in.readInt() != VERSION) {
+                throw new IllegalArgumentException("Unsupported relation file version: " + path);
+            }
+            int rows = in.readInt();
+            int columns = in.readInt();
+            if (rows < 0 || columns < 0 || 16 + 16L * columns > fileSize) {
+                throw new IllegalArgumentException("Not a relation file: " + path);
+            }
+            List<Type> types = new ArrayList<>(columns);
+            List<String> attrs = new ArrayList<>(columns);
+            Type[] allTypes = Type.values();
+            for (int j = 0; j < columns; ++j) {
+                int type = in.readInt();
+                int nameLength = in.readInt();
+                if (type < 0 || type >= allTypes.length || nameLength < 0 || nameLength > fileSize) {
+                    throw new IllegalArgumentException("Not a relation file: " + path);
+                }
+                types.add(allTypes[type]);
+                byte[] name = new byte[nameLength];
+                in.readFully(name);
+                attrs.add(new String(name, StandardCharsets.UTF_8));
+            }
+            MappedByteBuffer[] sections = new MappedByteBuffer[columns];
+            for (int j = 0; j < columns; ++j) {
+                long offset = in.readLong();
+                long length = in.readLong();
+                if (offset < 0 || length < minLength(types.get(j), rows) || length > Integer.MAX_VALUE
+                        || offset + length > fileSize) {
+                    throw new IllegalArgumentException("Truncated relation file: " + path);
+                }
+                sections[j] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                if (types.get(j) == Type.STRING) {
+                    int dictionarySize = sections[j].getInt(0);
+                    if (dictionarySize < 0 || 4 + 4L * rows + 4L * (dictionarySize + 1) > length) {
+                        throw new IllegalArgumentException("Truncated relation file: " + path);
+                    }
+                }
+            }
+            return new MappedRelation(types, attrs, rows, sections);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Truncated relation file: " + path);
+        }
+    }
+
+    /**
+     * Returns the smallest length of a section holding rows values of type.
+     */
+    private static long minLength(Type type, int rows) {
+        switch (type) {
+            case INTEGER:
+                return 4L * rows;
+            case DOUBLE:
+                return 8L * rows;
+            default:
+                return 4 + 4L * rows + 4;
+        }
+    }
+
+}
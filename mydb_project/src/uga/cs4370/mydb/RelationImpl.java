@@ -1,33 +1,25 @@
 package uga.cs4370.mydb;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Implementation of the Relation interface.
+ * The dictionary codes of a STRING column are computed the first time
+ * they are asked for, and kept up to date from then on, so relations
+ * that are only scanned do not pay for them when rows are inserted.
  */
-class RelationImpl implements Relation {
+class RelationImpl extends AbstractRelation {
 
-    private List<String> attributes;
-    private List<Type> types;
-    private List<List<Cell>> rows;
-    private Map<String, Integer> attrIndex;
+    private ArrayList<List<Cell>> rows;
+    // Codes of the STRING columns, null for columns not coded yet. The
+    // array is replaced when a column is coded, so readers need no lock.
+    private volatile StringColumn[] strings;
 
     RelationImpl(List<Type> types, List<String> attributes) {
-        this.types = types;
-        this.attributes = attributes;
-        attrIndex = new HashMap<>();
-        for (int i = 0; i < attributes.size(); ++i) {
-            attrIndex.put(attributes.get(i), i);
-        }
+        super(types, attributes);
         rows = new ArrayList<>();
+        strings = new StringColumn[types.size()];
     }
     
     /**
@@ -48,180 +40,235 @@ class RelationImpl implements Relation {
         }
         return new ArrayList<>(rows.get(i));
     }
-    
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<Type> getTypes() {
-        return new ArrayList<>(types);
+    public List<Cell> getRowView(int i) {
+        if (i < 0 || i >= getSize()) {
+            throw new IllegalArgumentException("Row index out of bounds.");
+        }
+        return rows.get(i);
     }
-    
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<String> getAttrs() {
-        return new ArrayList<>(attributes);
+    public Cell getCell(int i, int j) {
+        if (i < 0 || i >= getSize() || j < 0 || j >= types.size()) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+        return rows.get(i).get(j);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public boolean hasAttr(String attr) {
-        return attrIndex.containsKey(attr);
+    public int getStringCode(int i, int j) {
+        if (i < 0 || i >= getSize() || j < 0 || j >= types.size()) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+        return codes(j).getCode(i);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public int getAttrIndex(String attr) {        
-        if (!attrIndex.containsKey(attr)) {
-            throw new IllegalArgumentException("Attribute does not exist: " + attr);
-        }
-        return attrIndex.get(attr);
+    public List<String> getStringDictionary(int j) {
+        return codes(j).dictionary();
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void insert(List<Cell> row) {
-        if (row.size() != types.size()) {
-            throw new IllegalArgumentException("Row size does not match the relation schema.");
+    public int findStringCode(int j, String value) {
+        return codes(j).findCode(value);
+    }
+
+    /**
+     * Returns the codes of STRING column j, coding the column if it is
+     * not coded yet.
+     */
+    private StringColumn codes(int j) {
+        if (j < 0 || j >= types.size()) {
+            throw new IllegalArgumentException("Column index out of bounds.");
+        }
+        if (types.get(j) != Type.STRING) {
+            throw new RuntimeException("Illegal cell type conversion.");
+        }
+        StringColumn column = strings[j];
+        return column != null ? column : code(j);
+    }
+
+    private synchronized StringColumn code(int j) {
+        if (strings[j] == null) {
+            StringColumn column = new StringColumn();
+            for (List<Cell> row : rows) {
+                column.append(row.get(j));
+            }
+            StringColumn[] coded = strings.clone();
+            coded[j] = column;
+            strings = coded;
         }
-        for (int i = 0; i < row.size(); ++i) {
-            if (row.get(i).getType() != types.get(i)) {
-                throw new IllegalArgumentException("Value types in the row do not " 
-                                + "match the schema.");
+        return strings[j];
+    }
+
+    /**
+     * Adds the values of a row that is being appended to the coded columns.
+     */
+    private void codeRow(List<Cell> row) {
+        StringColumn[] coded = strings;
+        for (int j = 0; j < coded.length; ++j) {
+            if (coded[j] != null) {
+                coded[j].append(row.get(j));
             }
         }
-        rows.add(new ArrayList<>(row));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void loadData(String path) {
-        // Check if the file exists
-        if (!Files.exists(Paths.get(path))) {
-            throw new IllegalArgumentException("File does not exist: " + path);
-        }
-
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                // Split the line into values, considering the CSV format
-                String[] values = line.split("\",\"", -1);
-                if (values.length != this.types.size()) {
-                    throw new IllegalArgumentException("CSV file format does not match the " 
-                                    + "schema of the relation.");
-                }
-                // Remove leading and trailing quotes from the first and last elements
-                values[0] = values[0].replaceFirst("^\"", "");
-                values[values.length - 1] = values[values.length - 1].replaceAll("\"$", "");
-
-                List<Cell> row = new ArrayList<>();
-                for (int i = 0; i < values.length; i++) {
-                    values[i] = values[i].replace("\"\"", "\""); // unescape double quotes.
-                    Type type = this.types.get(i);
-                    try {
-                        switch (type) {
-                            case INTEGER:
-                                row.add(Cell.val(Integer.parseInt(values[i])));
-                                break;
-                            case DOUBLE:
-                                row.add(Cell.val(Double.parseDouble(values[i])));
-                                break;
-                            case STRING:
-                                row.add(Cell.val(values[i]));
-                                break;
-                        }
-                    } catch (NumberFormatException e) {
-                        throw new IllegalArgumentException("Error parsing value '" + values[i] + "' for type " + type);
-                    }
-                }
-                this.insert(row); // Insert the parsed row into the relation
-            }
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to read data from path: " + path);
+    public void insert(List<Cell> row) {
+        checkRow(row);
+        // Rows are stored immutable so views of them can be handed out.
+        List<Cell> stored = List.copyOf(row);
+        codeRow(stored);
+        rows.add(stored);
+        updateIndexes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    AbstractRelation emptyCopy(List<Type> types, List<String> attributes) {
+        return new RelationImpl(types, attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Class<? extends AbstractRelation> layoutClass() {
+        return RelationImpl.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void appendAll(AbstractRelation other) {
+        for (List<Cell> row : ((RelationImpl) other).rows) {
+            codeRow(row);
+            rows.add(row);
         }
     }
 
     /**
      * {@inheritDoc}
+     * Rows of another row relation are shared, since stored rows never
+     * change.
      */
     @Override
-    public void print() {
-        // Maximum width for any column
-        final int MAX_COLUMN_WIDTH = 20;
-
-        // Calculate the width of each column
-        List<Integer> columnWidths = new ArrayList<>();
-        for (int i = 0; i < attributes.size(); i++) {
-            int maxWidth = attributes.get(i).length();
-            for (List<Cell> row : rows) {
-                String cellValue = row.get(i).toString();
-                int cellWidth = cellValue.length();
-                if (cellWidth > maxWidth) {
-                    maxWidth = cellWidth;
-                }
-            }
-            columnWidths.add(Math.min(maxWidth, MAX_COLUMN_WIDTH));
-        }
-
-        // Print row divider
-        System.out.print("+");
-        for (int width: columnWidths) {
-            System.out.print("-".repeat(width + 2) + "+");
-        }
-        System.out.println();
-
-        // Print table header
-        System.out.print("| ");
-        for (int i = 0; i < attributes.size(); i++) {
-            System.out.print(String.format("%-" + columnWidths.get(i) + "s | ", attributes.get(i)));
-        }
-        System.out.println();
-
-        // Print row divider
-        System.out.print("+");
-        for (int width: columnWidths) {
-            System.out.print("-".repeat(width + 2) + "+");
-        }
-        System.out.println();
-
-        // Print each row
-        for (List<Cell> row : rows) {
-            System.out.print("| ");
-            for (int i = 0; i < row.size(); i++) {
-                Cell cell = row.get(i);
-                int width = columnWidths.get(i);
-                switch (cell.getType()) {
-                    case INTEGER:
-                        System.out.printf("%" + width + "d | ", cell.getAsInt());
-                        break;
-                    case DOUBLE:
-                        // Assuming you want to limit the decimal places to 2 for display
-                        System.out.printf("%" + width + ".2f | ", cell.getAsDouble());
-                        break;
-                    case STRING:
-                        System.out.printf("%-" + width + "s | ", cell.getAsString());
-                        break;
+    void appendRows(Relation rel, int[] rows, int count) {
+        if (!(rel instanceof RelationImpl)) {
+            super.appendRows(rel, rows, count);
+            return;
+        }
+        List<List<Cell>> source = ((RelationImpl) rel).rows;
+        reserve(count);
+        for (int k = 0; k < count; ++k) {
+            List<Cell> row = source.get(rows[k]);
+            codeRow(row);
+            this.rows.add(row);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void reserve(int rows) {
+        this.rows.ensureCapacity(this.rows.size() + rows);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender appender() {
+        return new Appender(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender checkedAppender() {
+        return new Appender(true);
+    }
+
+    /**
+     * Collects the cells of a row and stores them as one row at endRow.
+     */
+    private final class Appender implements RowAppender {
+        private final boolean checked;
+        private final Cell[] row = new Cell[types.size()];
+        private int col;
+
+        Appender(boolean checked) {
+            this.checked = checked;
+        }
+
+        @Override
+        public void appendInt(int value) {
+            add(Type.INTEGER, Cell.val(value));
+        }
+
+        @Override
+        public void appendDouble(double value) {
+            add(Type.DOUBLE, Cell.val(value));
+        }
+
+        @Override
+        public void appendString(String value) {
+            add(Type.STRING, Cell.val(value));
+        }
+
+        @Override
+        public void appendCell(Cell cell) {
+            add(cell.getType(), cell);
+        }
+
+        private void add(Type type, Cell cell) {
+            if (checked) {
+                try {
+                    checkAppend(col, type);
+                } catch (IllegalArgumentException e) {
+                    col = 0;
+                    throw e;
                 }
             }
-            System.out.println();
+            row[col++] = cell;
         }
 
-        // Print row divider
-        System.out.print("+");
-        for (int width: columnWidths) {
-            System.out.print("-".repeat(width + 2) + "+");
+        @Override
+        public void endRow() {
+            int values = col;
+            col = 0;
+            if (checked) {
+                checkEndRow(values);
+            }
+            List<Cell> stored = List.of(row);
+            codeRow(stored);
+            rows.add(stored);
         }
-        System.out.println();
     }
 
 }
@@ -0,0 +1,302 @@
+package uga.cs4370.mydb;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relation that shows the first rows of another relation under a
+ * different schema: renamed attributes, or a subset of the columns in
+ * any order. Rows are read from the base relation and never copied.
+ *
+ * Relations only grow by appending rows, so the rows that existed when
+ * the view was created never change and the view is a stable snapshot.
+ * The first insert into the view copies the snapshot into a relation of
+ * its own, so the base relation is never modified.
+ */
+class RelationView extends AbstractRelation {
+
+    private final AbstractRelation base;
+    private final int[] columns; // Position in the base relation of each attribute.
+    private final boolean identity; // Whether columns maps every attribute to itself.
+    private final int size; // Number of base rows in the snapshot.
+    private AbstractRelation own; // Copy of the rows once the view is modified.
+
+    private RelationView(AbstractRelation base, int size, int[] columns, List<Type> types,
+            List<String> attributes) {
+        super(types, attributes);
+        this.base = base;
+        this.columns = columns;
+        this.size = size;
+        boolean identity = columns.length == base.types.size();
+        for (int i = 0; i < columns.length && identity; ++i) {
+            identity = columns[i] == i;
+        }
+        this.identity = identity;
+    }
+
+    /**
+     * Creates a view of the given columns of rel. Views of unmodified views
+     * are created directly on the underlying relation.
+     */
+    static RelationView of(AbstractRelation rel, int[] columns, List<Type> types, List<String> attributes) {
+        if (rel instanceof RelationView && ((RelationView) rel).own == null) {
+            RelationView view = (RelationView) rel;
+            int[] baseColumns = new int[columns.length];
+            for (int i = 0; i < columns.length; ++i) {
+                baseColumns[i] = view.columns[columns[i]];
+            }
+            return new RelationView(view.base, view.size, baseColumns, types, attributes);
+        }
+        return new RelationView(rel, rel.getSize(), columns, types, attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return own != null ? own.getSize() : size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cell> getRow(int i) {
+        return new ArrayList<>(getRowView(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cell> getRowView(int i) {
+        if (own != null) {
+            return own.getRowView(i);
+        }
+        if (i < 0 || i >= size) {
+            throw new IllegalArgumentException("Row index out of bounds.");
+        }
+        if (identity) {
+            return base.getRowView(i);
+        }
+        List<Cell> row = base.getRowView(i);
+        return new AbstractList<Cell>() {
+            @Override
+            public Cell get(int j) {
+                return row.get(columns[j]);
+            }
+
+            @Override
+            public int size() {
+                return columns.length;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cell getCell(int i, int j) {
+        if (own != null) {
+            return own.getCell(i, j);
+        }
+        checkIndex(i, j);
+        return base.getCell(i, columns[j]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(int i, int j) {
+        if (own != null) {
+            return own.getInt(i, j);
+        }
+        checkIndex(i, j);
+        return base.getInt(i, columns[j]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(int i, int j) {
+        if (own != null) {
+            return own.getDouble(i, j);
+        }
+        checkIndex(i, j);
+        return base.getDouble(i, columns[j]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getString(int i, int j) {
+        if (own != null) {
+            return own.getString(i, j);
+        }
+        checkIndex(i, j);
+        return base.getString(i, columns[j]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getInts(int j, int from, int to, int[] dest) {
+        if (own != null) {
+            own.getInts(j, from, to, dest);
+            return;
+        }
+        checkBatch(j, from, to, dest.length, Type.INTEGER);
+        base.getInts(columns[j], from, to, dest);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void getDoubles(int j, int from, int to, double[] dest) {
+        if (own != null) {
+            own.getDoubles(j, from, to, dest);
+            return;
+        }
+        checkBatch(j, from, to, dest.length, Type.DOUBLE);
+        base.getDoubles(columns[j], from, to, dest);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getStringCode(int i, int j) {
+        if (own != null) {
+            return own.getStringCode(i, j);
+        }
+        checkIndex(i, j);
+        return base.getStringCode(i, columns[j]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Unless the view was modified, this is the dictionary of the base 
+     * relation, which may hold values of rows added after the snapshot.
+     */
+    @Override
+    public List<String> getStringDictionary(int j) {
+        if (own != null) {
+            return own.getStringDictionary(j);
+        }
+        return base.getStringDictionary(baseColumn(j));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int findStringCode(int j, String value) {
+        if (own != null) {
+            return own.findStringCode(j, value);
+        }
+        return base.findStringCode(baseColumn(j), value);
+    }
+
+    private int baseColumn(int j) {
+        if (j < 0 || j >= columns.length) {
+            throw new IllegalArgumentException("Column index out of bounds.");
+        }
+        return columns[j];
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= size || j < 0 || j >= columns.length) {
+            throw new IllegalArgumentException("Cell index out of bounds.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(List<Cell> row) {
+        checkRow(row);
+        materialize().insert(row);
+        updateIndexes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    AbstractRelation emptyCopy(List<Type> types, List<String> attributes) {
+        return base.emptyCopy(types, attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Class<? extends AbstractRelation> layoutClass() {
+        return base.layoutClass();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void appendAll(AbstractRelation other) {
+        materialize().appendAll(other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void appendRows(Relation rel, int[] rows, int count) {
+        materialize().appendRows(rel, rows, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender appender() {
+        return materialize().appender();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    RowAppender checkedAppender() {
+        return materialize().checkedAppender();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void reserve(int rows) {
+        materialize().reserve(rows);
+    }
+
+    /**
+     * Copies the snapshot rows into a relation owned by the view, which 
+     * then takes all further reads and writes.
+     */
+    private AbstractRelation materialize() {
+        if (own == null) {
+            AbstractRelation copy = base.emptyCopy(types, attributes);
+            for (int i = 0; i < size; ++i) {
+                copy.insert(getRowView(i));
+            }
+            own = copy;
+        }
+        return own;
+    }
+
+}
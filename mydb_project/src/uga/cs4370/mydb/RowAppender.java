@@ -0,0 +1,38 @@
+package uga.cs4370.mydb;
+
+/**
+ * Appends rows to a relation one field at a time, in column order, 
+ * without building a list of cells for each row: one value per 
+ * attribute, of the attribute type, followed by endRow. Appenders 
+ * returned by Relation.appender check the values; the loaders use 
+ * appenders that trust them.
+ */
+public interface RowAppender {
+
+    /**
+     * Appends an INTEGER value to the current row.
+     */
+    void appendInt(int value);
+
+    /**
+     * Appends a DOUBLE value to the current row.
+     */
+    void appendDouble(double value);
+
+    /**
+     * Appends a STRING value to the current row.
+     */
+    void appendString(String value);
+
+    /**
+     * Appends the value of cell to the current row. Row storage keeps the 
+     * cell itself instead of creating a new one.
+     */
+    void appendCell(Cell cell);
+
+    /**
+     * Completes the current row and adds it to the relation.
+     */
+    void endRow();
+
+}
@@ -0,0 +1,65 @@
+package uga.cs4370.mydb;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hashable key made of the cells of a row, or of a subset of its columns.
+ * The hash code is computed once when the key is created, so keys can be
+ * used in hash sets and hash maps for duplicate elimination and joins.
+ */
+public final class RowKey {
+
+    private final Cell[] cells;
+    private final int hash;
+
+    private RowKey(Cell[] cells) {
+        this.cells = cells;
+        int h = 1;
+        for (Cell cell : cells) {
+            h = 31 * h + cell.hashCode();
+        }
+        this.hash = h;
+    }
+
+    /**
+     * Creates a key from all the cells of a row.
+     */
+    public static RowKey of(List<Cell> row) {
+        return new RowKey(row.toArray(new Cell[0]));
+    }
+
+    /**
+     * Creates a key from the cells of a row at the given column positions.
+     */
+    public static RowKey of(List<Cell> row, int[] columns) {
+        Cell[] cells = new Cell[columns.length];
+        for (int i = 0; i < columns.length; ++i) {
+            cells[i] = row.get(columns[i]);
+        }
+        return new RowKey(cells);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        RowKey that = (RowKey)obj;
+        return hash == that.hash && Arrays.equals(cells, that.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(cells);
+    }
+
+}
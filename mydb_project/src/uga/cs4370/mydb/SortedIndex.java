@@ -0,0 +1,327 @@
+package uga.cs4370.mydb;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted index on one attribute, for equality and range lookups. The
+ * keys are kept in a primitive array sorted by key and row number, next
+ * to the row numbers, and looked up by binary search.
+ *
+ * Inserted rows are merged in when the index is next used, so a run of
+ * inserts costs one sort of the new rows and one merge instead of an
+ * array insertion per row. DOUBLE keys are stored with -0.0 as 0.0 and
+ * NaN after all numbers, so that ranges agree with the comparison
+ * operators.
+ */
+final class SortedIndex extends AbstractIndex {
+
+    private final Type type;
+    private int[] intKeys = new int[0]; // Sorted keys of an INTEGER attribute.
+    private double[] doubleKeys = new double[0]; // Sorted keys of a DOUBLE attribute.
+    private String[] stringKeys = new String[0]; // Sorted keys of a STRING attribute.
+    private int[] rows = new int[0]; // Row number of each key.
+    private int numbers; // Number of keys that are not NaN.
+
+    SortedIndex(String name, List<String> attrs, Relation relation) {
+        super(name, attrs, relation);
+        if (attrs.size() != 1) {
+            throw new IllegalArgumentException("A sorted index has exactly one attribute.");
+        }
+        this.type = types[0];
+        sync();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IndexType getType() {
+        return IndexType.SORTED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void rowsAppended() {
+        // Merged in by the next lookup.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    synchronized void sync() {
+        int size = relation.getSize();
+        int added = size - indexed;
+        if (added == 0) {
+            return;
+        }
+        int column = columns[0];
+        int[] newRows = new int[added];
+        switch (type) {
+            case INTEGER: {
+                // Sort (key, row) pairs packed into longs.
+                long[] pairs = new long[added];
+                for (int i = 0; i < added; ++i) {
+                    pairs[i] = ((long) relation.getInt(indexed + i, column) << 32) | (indexed + i);
+                }
+                Arrays.sort(pairs);
+                int[] newKeys = new int[added];
+                for (int i = 0; i < added; ++i) {
+                    newKeys[i] = (int) (pairs[i] >> 32);
+                    newRows[i] = (int) pairs[i];
+                }
+                mergeInts(newKeys, newRows);
+                break;
+            }
+            case DOUBLE: {
+                Integer[] order = newRowOrder(added);
+                double[] values = new double[added];
+                for (int i = 0; i < added; ++i) {
+                    values[i] = relation.getDouble(indexed + i, column) + 0.0; // -0.0 becomes 0.0.
+                }
+                Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+                double[] newKeys = new double[added];
+                for (int i = 0; i < added; ++i) {
+                    newKeys[i] = values[order[i]];
+                    newRows[i] = indexed + order[i];
+                }
+                mergeDoubles(newKeys, newRows);
+                break;
+            }
+            case STRING: {
+                Integer[] order = newRowOrder(added);
+                String[] values = new String[added];
+                for (int i = 0; i < added; ++i) {
+                    values[i] = relation.getString(indexed + i, column);
+                }
+                Arrays.sort(order, (a, b) -> values[a].compareTo(values[b]));
+                String[] newKeys = new String[added];
+                for (int i = 0; i < added; ++i) {
+                    newKeys[i] = values[order[i]];
+                    newRows[i] = indexed + order[i];
+                }
+                mergeStrings(newKeys, newRows);
+                break;
+            }
+        }
+        indexed = size;
+        numbers = rows.length;
+        if (type == Type.DOUBLE) {
+            while (numbers > 0 && Double.isNaN(doubleKeys[numbers - 1])) {
+                numbers--;
+            }
+        }
+    }
+
+    private static Integer[] newRowOrder(int added) {
+        Integer[] order = new Integer[added];
+        for (int i = 0; i < added; ++i) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    // The merges put existing keys before equal new keys, which keeps
+    // equal keys in row order since new rows have larger numbers.
+
+    private void mergeInts(int[] newKeys, int[] newRows) {
+        int[] keys = new int[rows.length + newRows.length];
+        int[] merged = new int[keys.length];
+        int a = 0;
+        int b = 0;
+        for (int k = 0; k < keys.length; ++k) {
+            if (b == newRows.length || (a < rows.length && intKeys[a] <= newKeys[b])) {
+                keys[k] = intKeys[a];
+                merged[k] = rows[a++];
+            } else {
+                keys[k] = newKeys[b];
+                merged[k] = newRows[b++];
+            }
+        }
+        intKeys = keys;
+        rows = merged;
+    }
+
+    private void mergeDoubles(double[] newKeys, int[] newRows) {
+        double[] keys = new double[rows.length + newRows.length];
+        int[] merged = new int[keys.length];
+        int a = 0;
+        int b = 0;
+        for (int k = 0; k < keys.length; ++k) {
+            if (b == newRows.length || (a < rows.length && Double.compare(doubleKeys[a], newKeys[b]) <= 0)) {
+                keys[k] = doubleKeys[a];
+                merged[k] = rows[a++];
+            } else {
+                keys[k] = newKeys[b];
+                merged[k] = newRows[b++];
+            }
+        }
+        doubleKeys = keys;
+        rows = merged;
+    }
+
+    private void mergeStrings(String[] newKeys, int[] newRows) {
+        String[] keys = new String[rows.length + newRows.length];
+        int[] merged = new int[keys.length];
+        int a = 0;
+        int b = 0;
+        for (int k = 0; k < keys.length; ++k) {
+            if (b == newRows.length || (a < rows.length && stringKeys[a].compareTo(newKeys[b]) <= 0)) {
+                keys[k] = stringKeys[a];
+                merged[k] = rows[a++];
+            } else {
+                keys[k] = newKeys[b];
+                merged[k] = newRows[b++];
+            }
+        }
+        stringKeys = keys;
+        rows = merged;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] lookup(List<Cell> key) {
+        if (key.size() != 1) {
+            throw new IllegalArgumentException("Key does not have one cell per indexed attribute.");
+        }
+        return range(key.get(0), true, key.get(0), true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] range(Cell low, boolean lowInclusive, Cell high, boolean highInclusive) {
+        Object lowValue = low == null ? null : checkBound(value(low));
+        Object highValue = high == null ? null : checkBound(value(high));
+        if (isNaN(lowValue) || isNaN(highValue)) {
+            return new int[0]; // No key compares with NaN.
+        }
+        synchronized (this) {
+            sync();
+            int from = lowValue == null ? 0 : search(lowValue, !lowInclusive);
+            int to = highValue == null ? numbers : search(highValue, highInclusive);
+            return rowsBetween(from, to);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * All comparisons of the attribute with a literal narrow down the
+     * range of keys, except for inequalities.
+     */
+    @Override
+    public int[] candidates(Condition c) {
+        boolean used = false;
+        synchronized (this) {
+            sync();
+            int from = 0;
+            int to = numbers;
+            for (Condition conjunct : c.conjuncts()) {
+                Comparison comparison = literalComparison(conjunct, attrs.get(0));
+                if (comparison == null || comparison.op == Comparison.Op.NE
+                        || !isComparable(comparison.literal)) {
+                    continue;
+                }
+                Object value = normalize(comparison.literal);
+                if (isNaN(value)) {
+                    return new int[0]; // No key compares with NaN.
+                }
+                used = true;
+                switch (comparison.op) {
+                    case EQ:
+                        from = Math.max(from, search(value, false));
+                        to = Math.min(to, search(value, true));
+                        break;
+                    case LT:
+                        to = Math.min(to, search(value, false));
+                        break;
+                    case LE:
+                        to = Math.min(to, search(value, true));
+                        break;
+                    case GT:
+                        from = Math.max(from, search(value, true));
+                        break;
+                    default:
+                        from = Math.max(from, search(value, false));
+                        break;
+                }
+            }
+            return used ? rowsBetween(from, to) : null;
+        }
+    }
+
+    /**
+     * Returns the row numbers at key positions [from, to) in ascending order.
+     */
+    private int[] rowsBetween(int from, int to) {
+        if (from >= to) {
+            return new int[0];
+        }
+        int[] result = Arrays.copyOfRange(rows, from, to);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private boolean isComparable(Object value) {
+        return type == Type.STRING ? value instanceof String : value instanceof Number;
+    }
+
+    private Object checkBound(Object value) {
+        if (!isComparable(value)) {
+            throw new IllegalArgumentException("Can not compare " + value + " with attribute "
+                    + attrs.get(0) + " of type " + type);
+        }
+        return normalize(value);
+    }
+
+    /**
+     * Maps -0.0 to 0.0 so that it finds the same keys as 0.0.
+     */
+    private static Object normalize(Object value) {
+        return value instanceof Double ? (Double) value + 0.0 : value;
+    }
+
+    private static boolean isNaN(Object value) {
+        return value instanceof Double && Double.isNaN((Double) value);
+    }
+
+    /**
+     * Returns the first position among the numbers whose key is greater
+     * than value if strict, or not less than value otherwise.
+     */
+    private int search(Object value, boolean strict) {
+        int lo = 0;
+        int hi = numbers;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareKey(mid, value);
+            if (cmp < 0 || (strict && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compareKey(int position, Object value) {
+        switch (type) {
+            case INTEGER:
+                if (value instanceof Integer) {
+                    return Integer.compare(intKeys[position], (Integer) value);
+                }
+                return Double.compare(intKeys[position], ((Number) value).doubleValue());
+            case DOUBLE:
+                return Double.compare(doubleKeys[position], ((Number) value).doubleValue());
+            default:
+                return stringKeys[position].compareTo((String) value);
+        }
+    }
+
+}
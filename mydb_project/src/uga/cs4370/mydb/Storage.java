@@ -0,0 +1,15 @@
+package uga.cs4370.mydb;
+
+/**
+ * Representation of the possible storage layouts of a relation.
+ */
+public enum Storage {
+    /**
+     * Each row is stored as a list of cells.
+     */
+    ROW,
+    /**
+     * Each column is stored as a primitive array, strings are dictionary encoded.
+     */
+    COLUMNAR
+}
@@ -0,0 +1,166 @@
+package uga.cs4370.mydb;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column of STRING values. Each distinct string is stored once in a
+ * dictionary and the column holds the int code of the value of each row.
+ * Codes are assigned in order of first appearance and never change, so
+ * two positions hold equal values exactly if they have the same code.
+ * The dictionary keeps one cell per value, which is shared by all reads.
+ */
+class StringColumn extends Column {
+
+    private int[] codes = new int[INITIAL_CAPACITY];
+    private List<Cell> dictionary = new ArrayList<>(); // code -> value
+    private Map<String, Integer> codeOf = new HashMap<>(); // value -> code
+
+    @Override
+    Type getType() {
+        return Type.STRING;
+    }
+
+    @Override
+    void append(Cell cell) {
+        appendCode(codeFor(cell.getAsString(), cell));
+    }
+
+    /**
+     * Appends a value to the column.
+     */
+    void append(String value) {
+        appendCode(codeFor(value, null));
+    }
+
+    private void appendCode(int code) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length, size + 1));
+        }
+        codes[size++] = code;
+    }
+
+    /**
+     * Returns the dictionary code of a value, adding it to the dictionary
+     * if it is not there yet.
+     *
+     * @param cell A cell holding value to keep in the dictionary, or null
+     *             to create one.
+     */
+    private int codeFor(String value, Cell cell) {
+        Integer code = codeOf.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(cell != null ? cell : Cell.val(value));
+            codeOf.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the dictionary code of value, or -1 if the column does not
+     * hold it.
+     */
+    int findCode(String value) {
+        Integer code = codeOf.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Returns the values of the dictionary in code order. The list is
+     * backed by the dictionary and grows with it.
+     */
+    List<String> dictionary() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int code) {
+                return dictionary.get(code).getAsString();
+            }
+
+            @Override
+            public int size() {
+                return dictionary.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the dictionary code of the value at position i.
+     */
+    int getCode(int i) {
+        return codes[i];
+    }
+
+    /**
+     * Returns the value at position i.
+     */
+    String getString(int i) {
+        return dictionary.get(codes[i]).getAsString();
+    }
+
+    @Override
+    void appendAll(Column other) {
+        StringColumn that = (StringColumn) other;
+        // Translate the codes of the other dictionary into codes of this one.
+        int[] remap = new int[that.dictionary.size()];
+        for (int code = 0; code < remap.length; ++code) {
+            remap[code] = codeFor(that.dictionary.get(code).getAsString(), that.dictionary.get(code));
+        }
+        if (size + that.size > codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length, size + that.size));
+        }
+        for (int i = 0; i < that.size; ++i) {
+            codes[size++] = remap[that.codes[i]];
+        }
+    }
+
+    @Override
+    void appendRows(Column other, int[] rows, int count) {
+        StringColumn that = (StringColumn) other;
+        if (size + count > codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length, size + count));
+        }
+        int[] source = that.codes;
+        if (that == this) {
+            for (int k = 0; k < count; ++k) {
+                codes[size + k] = source[rows[k]];
+            }
+        } else if (that.dictionary.size() > count) {
+            // Fewer rows than values, each value is looked up as it comes.
+            for (int k = 0; k < count; ++k) {
+                Cell cell = that.dictionary.get(source[rows[k]]);
+                codes[size + k] = codeFor(cell.getAsString(), cell);
+            }
+        } else {
+            // Translate each code that occurs once into a code of this dictionary.
+            int[] remap = new int[that.dictionary.size()];
+            Arrays.fill(remap, -1);
+            for (int k = 0; k < count; ++k) {
+                int code = source[rows[k]];
+                if (remap[code] < 0) {
+                    Cell cell = that.dictionary.get(code);
+                    remap[code] = codeFor(cell.getAsString(), cell);
+                }
+                codes[size + k] = remap[code];
+            }
+        }
+        size += count;
+    }
+
+    @Override
+    void reserve(int capacity) {
+        if (capacity > codes.length) {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+    }
+
+    @Override
+    Cell get(int i) {
+        return dictionary.get(codes[i]);
+    }
+
+}
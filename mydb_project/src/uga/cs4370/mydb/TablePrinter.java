@@ -0,0 +1,206 @@
+package uga.cs4370.mydb;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Renders a relation as a table like the MySql client does. Column widths
+ * are taken from the attribute names and the cells of the first rows,
+ * capped at MAX_COLUMN_WIDTH; wider cells are printed in full. The text is
+ * built in a large buffer that is written to the stream whenever it fills
+ * up, so a row costs no formatter parsing and no write of its own.
+ *
+ * Cells are formatted like String.format with "%Nd", "%N.2f" and "%-Ns".
+ * Numbers are formatted by hand when the default locale formats them like
+ * the root locale, and with format strings built once per column otherwise.
+ */
+final class TablePrinter {
+
+    private static final int MAX_COLUMN_WIDTH = 20;
+    private static final int BUFFER_SIZE = 1 << 16; // Characters buffered before a write.
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final Relation rel;
+    private final Type[] types;
+    private final int[] widths;
+    private final String[] formats; // Format string of each column, used if not plainNumbers.
+    private final boolean plainNumbers; // Whether numbers can be formatted by hand.
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+    private PrintStream out;
+
+    /**
+     * Creates a printer for rel with column widths estimated from its
+     * first sampleRows rows.
+     */
+    TablePrinter(Relation rel, int sampleRows) {
+        this.rel = rel;
+        this.types = rel.getTypes().toArray(new Type[0]);
+        List<String> attrs = rel.getAttrs();
+        this.widths = new int[types.length];
+        for (int j = 0; j < types.length; ++j) {
+            widths[j] = attrs.get(j).length();
+        }
+        int sample = Math.min(sampleRows, rel.getSize());
+        for (int i = 0; i < sample; ++i) {
+            for (int j = 0; j < types.length; ++j) {
+                widths[j] = Math.max(widths[j], cellWidth(i, j));
+            }
+        }
+        this.formats = new String[types.length];
+        for (int j = 0; j < types.length; ++j) {
+            widths[j] = Math.min(widths[j], MAX_COLUMN_WIDTH);
+            switch (types[j]) {
+                case INTEGER:
+                    formats[j] = "%" + widths[j] + "d | ";
+                    break;
+                case DOUBLE:
+                    formats[j] = "%" + widths[j] + ".2f | ";
+                    break;
+                default:
+                    formats[j] = "%-" + widths[j] + "s | ";
+                    break;
+            }
+        }
+        this.plainNumbers = String.format("%d|%.2f|%.2f", -1234567, 1.005, -0.001).equals("-1234567|1.01|-0.00");
+    }
+
+    /**
+     * Returns the width of Cell.toString of cell (i, j).
+     */
+    private int cellWidth(int i, int j) {
+        switch (types[j]) {
+            case INTEGER:
+                return Integer.toString(rel.getInt(i, j)).length();
+            case DOUBLE:
+                return Double.toString(rel.getDouble(i, j)).length();
+            default:
+                return rel.getString(i, j).length();
+        }
+    }
+
+    /**
+     * Prints the whole table to out.
+     */
+    void print(PrintStream out) {
+        this.out = out;
+        String divider = divider();
+        buffer.append(divider);
+        buffer.append("| ");
+        List<String> attrs = rel.getAttrs();
+        for (int j = 0; j < types.length; ++j) {
+            padRight(attrs.get(j), widths[j]);
+            buffer.append(" | ");
+        }
+        buffer.append(NEWLINE);
+        buffer.append(divider);
+
+        int size = rel.getSize();
+        for (int i = 0; i < size; ++i) {
+            appendRow(i);
+            if (buffer.length() >= BUFFER_SIZE) {
+                flush();
+            }
+        }
+        buffer.append(divider);
+        flush();
+        out.flush();
+    }
+
+    private String divider() {
+        StringBuilder divider = new StringBuilder("+");
+        for (int width : widths) {
+            divider.append("-".repeat(width + 2)).append('+');
+        }
+        return divider.append(NEWLINE).toString();
+    }
+
+    private void appendRow(int i) {
+        buffer.append("| ");
+        for (int j = 0; j < types.length; ++j) {
+            if (!plainNumbers && types[j] != Type.STRING) {
+                Object value = types[j] == Type.INTEGER ? (Object) rel.getInt(i, j) : (Object) rel.getDouble(i, j);
+                buffer.append(String.format(formats[j], value));
+                continue;
+            }
+            switch (types[j]) {
+                case INTEGER:
+                    padLeft(Integer.toString(rel.getInt(i, j)), widths[j]);
+                    break;
+                case DOUBLE:
+                    padLeft(fixed2(rel.getDouble(i, j)), widths[j]);
+                    break;
+                default:
+                    padRight(rel.getString(i, j), widths[j]);
+                    break;
+            }
+            buffer.append(" | ");
+        }
+        buffer.append(NEWLINE);
+    }
+
+    private void padLeft(String s, int width) {
+        for (int k = s.length(); k < width; ++k) {
+            buffer.append(' ');
+        }
+        buffer.append(s);
+    }
+
+    private void padRight(String s, int width) {
+        buffer.append(s);
+        for (int k = s.length(); k < width; ++k) {
+            buffer.append(' ');
+        }
+    }
+
+    private void flush() {
+        out.append(buffer);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Formats d like "%.2f" in the root locale: the shortest decimal
+     * representation of d, rounded half up to two decimals.
+     */
+    static String fixed2(double d) {
+        if (Double.isNaN(d)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(d)) {
+            return d > 0 ? "Infinity" : "-Infinity";
+        }
+        boolean negative = Double.compare(d, 0.0) < 0;
+        String digits = Double.toString(Math.abs(d));
+        int point = digits.indexOf('.');
+        if (digits.indexOf('E') >= 0) {
+            String rounded = new BigDecimal(digits).setScale(2, RoundingMode.HALF_UP).toPlainString();
+            return negative ? "-" + rounded : rounded;
+        }
+        // digits is "i.f" with at least one fraction digit.
+        char[] chars = new char[point + 3];
+        digits.getChars(0, point, chars, 0);
+        chars[point] = '.';
+        int fraction = digits.length() - point - 1;
+        chars[point + 1] = digits.charAt(point + 1);
+        chars[point + 2] = fraction >= 2 ? digits.charAt(point + 2) : '0';
+        boolean carry = fraction >= 3 && digits.charAt(point + 3) >= '5';
+        for (int k = chars.length - 1; carry && k >= 0; --k) {
+            if (chars[k] == '.') {
+                continue;
+            }
+            if (chars[k] == '9') {
+                chars[k] = '0';
+            } else {
+                chars[k]++;
+                carry = false;
+            }
+        }
+        String rounded = new String(chars);
+        if (carry) {
+            rounded = "1" + rounded;
+        }
+        return negative ? "-" + rounded : rounded;
+    }
+
+}
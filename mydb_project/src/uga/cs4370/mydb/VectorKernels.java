@@ -0,0 +1,101 @@
+package uga.cs4370.mydb;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch kernels on the incubating Vector API. Values are compared a
+ * vector at a time with the preferred species of the platform, and the
+ * lanes of each vector that satisfy the comparison are stored into the
+ * bitmask as a whole. The lane mask is turned into bits by blending a
+ * vector holding bit i in lane i and reducing its lanes, because
+ * VectorMask.toLong is not compiled to vector instructions on JDK 17 and
+ * allocates. Lane counts are powers of two of at most 32, so the lanes of
+ * a vector never straddle two words. The values after the last full
+ * vector are compared by the scalar loop.
+ *
+ * Only created by BatchKernels.load, when the jdk.incubator.vector module
+ * is loaded.
+ */
+final class VectorKernels extends BatchKernels {
+
+    // The bits of an int vector are reduced into an int, so at most 32 lanes.
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED.length() <= 32
+            ? IntVector.SPECIES_PREFERRED : IntVector.SPECIES_512;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final IntVector INT_ZERO = IntVector.zero(INTS);
+    private static final IntVector INT_BITS = IntVector.fromArray(INTS, intBits(INTS.length()), 0);
+    private static final DoubleVector DOUBLE_ZERO = DoubleVector.zero(DOUBLES);
+    private static final DoubleVector DOUBLE_BITS = DoubleVector.fromArray(DOUBLES, doubleBits(DOUBLES.length()), 0);
+
+    private static int[] intBits(int lanes) {
+        int[] bits = new int[lanes];
+        for (int i = 0; i < lanes; ++i) {
+            bits[i] = 1 << i;
+        }
+        return bits;
+    }
+
+    // Distinct powers of two, so adding the lanes is exact.
+    private static double[] doubleBits(int lanes) {
+        double[] bits = new double[lanes];
+        for (int i = 0; i < lanes; ++i) {
+            bits[i] = 1L << i;
+        }
+        return bits;
+    }
+
+    @Override
+    boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    void compare(Comparison.Op op, int[] values, int count, int literal, long[] mask) {
+        clear(mask, count);
+        int bound = INTS.loopBound(count);
+        for (int k = 0; k < bound; k += INTS.length()) {
+            IntVector v = IntVector.fromArray(INTS, values, k);
+            // The operator must be a constant for the comparison to compile
+            // to vector instructions.
+            VectorMask<Integer> lanes;
+            switch (op) {
+                case EQ: lanes = v.compare(VectorOperators.EQ, literal); break;
+                case NE: lanes = v.compare(VectorOperators.NE, literal); break;
+                case LT: lanes = v.compare(VectorOperators.LT, literal); break;
+                case LE: lanes = v.compare(VectorOperators.LE, literal); break;
+                case GT: lanes = v.compare(VectorOperators.GT, literal); break;
+                default: lanes = v.compare(VectorOperators.GE, literal); break;
+            }
+            long bits = INT_ZERO.blend(INT_BITS, lanes).reduceLanes(VectorOperators.OR) & 0xFFFFFFFFL;
+            mask[k >>> 6] |= bits << k;
+        }
+        compareTail(op, values, bound, count, literal, mask);
+    }
+
+    @Override
+    void compare(Comparison.Op op, double[] values, int count, double literal, long[] mask) {
+        clear(mask, count);
+        int bound = DOUBLES.loopBound(count);
+        for (int k = 0; k < bound; k += DOUBLES.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLES, values, k);
+            VectorMask<Double> lanes;
+            switch (op) {
+                case EQ: lanes = v.compare(VectorOperators.EQ, literal); break;
+                case NE: lanes = v.compare(VectorOperators.NE, literal); break;
+                case LT: lanes = v.compare(VectorOperators.LT, literal); break;
+                case LE: lanes = v.compare(VectorOperators.LE, literal); break;
+                case GT: lanes = v.compare(VectorOperators.GT, literal); break;
+                default: lanes = v.compare(VectorOperators.GE, literal); break;
+            }
+            long bits = (long) DOUBLE_ZERO.blend(DOUBLE_BITS, lanes).reduceLanes(VectorOperators.ADD);
+            mask[k >>> 6] |= bits << k;
+        }
+        compareTail(op, values, bound, count, literal, mask);
+    }
+
+}
@@ -0,0 +1,118 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Plan;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Base class of the plan nodes. Holds the output schema and implements
+ * materialization on top of iterator().
+ */
+abstract class AbstractPlan implements Plan {
+
+    // Selectivity assumed for a predicate, which can not be inspected.
+    static final double PREDICATE_SELECTIVITY = 1.0 / 3;
+
+    protected final List<String> attrs;
+    protected final List<Type> types;
+
+    AbstractPlan(List<String> attrs, List<Type> types) {
+        this.attrs = List.copyOf(attrs);
+        this.types = List.copyOf(types);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getAttrs() {
+        return new ArrayList<>(attrs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Type> getTypes() {
+        return new ArrayList<>(types);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Relation collect() {
+        Relation result = new RelationBuilder()
+                .attributeNames(attrs)
+                .attributeTypes(types)
+                .build();
+        for (List<Cell> row : this) {
+            result.insert(row);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void print() {
+        collect().print();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        explain(sb, 0);
+        return sb.toString();
+    }
+
+    private void explain(StringBuilder sb, int depth) {
+        sb.append("  ".repeat(depth))
+                .append(describe())
+                .append(" (estimated rows: ")
+                .append(Math.round(estimatedRows()))
+                .append(")\n");
+        for (AbstractPlan input : inputs()) {
+            input.explain(sb, depth + 1);
+        }
+    }
+
+    /**
+     * Returns the inputs of the plan node.
+     */
+    abstract List<AbstractPlan> inputs();
+
+    /**
+     * Returns a one line description of the operator, without its inputs.
+     */
+    abstract String describe();
+
+    /**
+     * Returns the estimated number of rows produced by the plan. The 
+     * estimates start from the sizes of the scanned relations.
+     */
+    abstract double estimatedRows();
+
+    /**
+     * Returns the position of attr in the output rows.
+     * 
+     * @throws IllegalArgumentException if attr is not an attribute of the plan.
+     */
+    int attrIndex(String attr) {
+        int index = attrs.indexOf(attr);
+        if (index < 0) {
+            throw new IllegalArgumentException("Attribute does not exist: " + attr);
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,450 @@
+package uga.cs4370.mydbimpl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+import uga.cs4370.mydb.Aggregate;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+
+/**
+ * Relational algebra operators that reuse the results of earlier calls.
+ * Each call is looked up by operator, input relations and parameters, and
+ * a result is only evaluated by the wrapped RA if it is not cached yet.
+ * Each call returns a new relation that shares the rows of the cached
+ * result, see Relation.renameAttrs, so rows inserted into it are not
+ * visible to other callers. Such a relation is looked up as the result it
+ * shows as long as no rows are added to it, so the operators applied on 
+ * top of repeated subexpressions are found in the cache as well.
+ *
+ * Input relations are compared by identity and version, so a result is
+ * recomputed once rows are added to one of its inputs. The cache only
+ * keeps weak references to the inputs, and the results of inputs that
+ * are no longer used elsewhere are dropped once the inputs are collected.
+ * Parameters are compared with equals: attribute lists by value,
+ * predicates, conditions and aggregates by identity unless they define
+ * equals, so passing the same object again reuses the result.
+ *
+ * The cache holds results up to a budget of estimated bytes and evicts
+ * the least recently used results first. The estimate counts ENTRY_BYTES
+ * per result for its key and bookkeeping, ROW_BYTES per row and 
+ * CELL_BYTES per cell, which is in the order of what either storage 
+ * layout takes; results that share the rows of their input, like those 
+ * of rename, are counted in full.
+ */
+public class CachingRA implements RA {
+
+    /**
+     * Default budget of estimated bytes for the cached results.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    private static final int ENTRY_BYTES = 256; // Estimated bytes per result, besides its rows.
+    private static final int ROW_BYTES = 16; // Estimated bytes per row, besides its cells.
+    private static final int CELL_BYTES = 8; // Estimated bytes per cell.
+
+    private final RA ra;
+    private final long maxBytes;
+    // Results in access order, the least recently used first.
+    private final LinkedHashMap<Key, Entry> results = new LinkedHashMap<>(16, 0.75f, true);
+    // Relations handed out by snapshot, mapped to the results they show.
+    private final HashMap<Key, Snapshot> snapshots = new HashMap<>();
+    // Receives the references to collected inputs and snapshots.
+    private final ReferenceQueue<Relation> collected = new ReferenceQueue<>();
+    private long bytes; // Estimated bytes of the cached results.
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache of the results of ra with a budget of
+     * DEFAULT_MAX_BYTES estimated bytes.
+     */
+    public CachingRA(RA ra) {
+        this(ra, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache of the results of ra with a budget of maxBytes
+     * estimated bytes.
+     *
+     * @throws IllegalArgumentException if maxBytes is negative.
+     */
+    public CachingRA(RA ra, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size can not be negative.");
+        }
+        this.ra = ra;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the number of calls answered from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of calls evaluated by the wrapped RA.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the estimated bytes of the cached results.
+     */
+    public synchronized long getCachedBytes() {
+        return bytes;
+    }
+
+    /**
+     * Removes all results from the cache. The counters are kept.
+     */
+    public synchronized void clear() {
+        results.clear();
+        snapshots.clear();
+        bytes = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation select(Relation rel, Predicate p) {
+        return cached("select", new Relation[] {rel}, Arrays.asList(p), () -> ra.select(rel, p));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation select(Relation rel, Condition c) {
+        return cached("select", new Relation[] {rel}, Arrays.asList(c), () -> ra.select(rel, c));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation project(Relation rel, List<String> attrs) {
+        return project(rel, attrs, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation project(Relation rel, List<String> attrs, boolean distinct) {
+        return cached("project", new Relation[] {rel}, Arrays.asList(copy(attrs), distinct),
+                () -> ra.project(rel, attrs, distinct));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation union(Relation rel1, Relation rel2) {
+        return cached("union", new Relation[] {rel1, rel2}, List.of(), () -> ra.union(rel1, rel2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation diff(Relation rel1, Relation rel2) {
+        return cached("diff", new Relation[] {rel1, rel2}, List.of(), () -> ra.diff(rel1, rel2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation intersect(Relation rel1, Relation rel2) {
+        return cached("intersect", new Relation[] {rel1, rel2}, List.of(), () -> ra.intersect(rel1, rel2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation rename(Relation rel, List<String> origAttr, List<String> renamedAttr) {
+        return cached("rename", new Relation[] {rel}, Arrays.asList(copy(origAttr), copy(renamedAttr)),
+                () -> ra.rename(rel, origAttr, renamedAttr));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation cartesianProduct(Relation rel1, Relation rel2) {
+        return cached("cartesianProduct", new Relation[] {rel1, rel2}, List.of(),
+                () -> ra.cartesianProduct(rel1, rel2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation join(Relation rel1, Relation rel2) {
+        return cached("join", new Relation[] {rel1, rel2}, List.of(), () -> ra.join(rel1, rel2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation join(Relation rel1, Relation rel2, Predicate p) {
+        return cached("join", new Relation[] {rel1, rel2}, Arrays.asList(p), () -> ra.join(rel1, rel2, p));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation join(Relation rel1, Relation rel2, Condition c) {
+        return cached("join", new Relation[] {rel1, rel2}, Arrays.asList(c), () -> ra.join(rel1, rel2, c));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation sort(Relation rel, List<String> attrs, boolean ascending) {
+        return cached("sort", new Relation[] {rel}, Arrays.asList(copy(attrs), ascending),
+                () -> ra.sort(rel, attrs, ascending));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Relation groupBy(Relation rel, List<String> groupAttrs, List<Aggregate> aggregates) {
+        return cached("groupBy", new Relation[] {rel}, Arrays.asList(copy(groupAttrs), copy(aggregates)),
+                () -> ra.groupBy(rel, groupAttrs, aggregates));
+    }
+
+    /**
+     * Helper method to return the cached result of an operator call, or
+     * to evaluate and cache it. A cached result is dropped if an input 
+     * has a different version than when it was cached.
+     *
+     * @param operator The name of the operator.
+     * @param inputs   The input relations.
+     * @param params   The other parameters of the call.
+     * @param evaluate Evaluates the call with the wrapped RA.
+     * @return the result of the call.
+     */
+    private Relation cached(String operator, Relation[] inputs, List<Object> params,
+            Supplier<Relation> evaluate) {
+        for (Relation input : inputs) {
+            if (input == null) {
+                // Leave the error to the wrapped RA.
+                return evaluate.get();
+            }
+        }
+        Key key;
+        long[] versions;
+        synchronized (this) {
+            purge();
+            for (int k = 0; k < inputs.length; k++) {
+                inputs[k] = shown(inputs[k]);
+            }
+            key = new Key(operator, inputs, params, collected);
+            versions = versions(inputs);
+            Entry entry = results.get(key);
+            if (entry != null) {
+                if (Arrays.equals(entry.versions, versions)) {
+                    hits++;
+                    return snapshot(entry.result);
+                }
+                results.remove(key);
+                bytes -= entry.bytes;
+            }
+            misses++;
+        }
+
+        // Concurrent misses on the same call may evaluate it more than once.
+        Relation result = evaluate.get();
+        long size = estimateBytes(result);
+        if (size > maxBytes) {
+            return result;
+        }
+        synchronized (this) {
+            purge();
+            Entry old = results.put(key, new Entry(result, versions, size));
+            if (old != null) {
+                bytes -= old.bytes;
+            }
+            bytes += size;
+            evict();
+            return snapshot(result);
+        }
+    } // cached
+
+    /**
+     * Helper method to hand out a cached result as a new relation that 
+     * shares its rows, and to remember the result it shows.
+     */
+    private Relation snapshot(Relation result) {
+        Relation view = result.renameAttrs(result.getAttrs());
+        snapshots.put(new Key("snapshot", new Relation[] {view}, List.of(), collected),
+                new Snapshot(result, view.getVersion()));
+        return view;
+    } // snapshot
+
+    /**
+     * Helper method to look up the cached result shown by a relation 
+     * handed out by snapshot. Returns rel itself if it was not handed 
+     * out, or if rows were added to it since.
+     */
+    private Relation shown(Relation rel) {
+        Snapshot snapshot = snapshots.get(new Key("snapshot", new Relation[] {rel}, List.of(), collected));
+        return snapshot != null && rel.getVersion() == snapshot.version ? snapshot.result : rel;
+    } // shown
+
+    /**
+     * Helper method to remove the results whose inputs were collected, 
+     * and the snapshots that were collected.
+     */
+    private void purge() {
+        Reference<? extends Relation> ref;
+        while ((ref = collected.poll()) != null) {
+            // Keys only equal themselves once an input is collected, so this
+            // removes the entry of the key that held the reference, if any.
+            Key key = ((InputRef) ref).key;
+            Entry entry = results.remove(key);
+            if (entry != null) {
+                bytes -= entry.bytes;
+            }
+            snapshots.remove(key);
+        }
+    } // purge
+
+    /**
+     * Helper method to remove the least recently used results until the
+     * cached results fit in the budget.
+     */
+    private void evict() {
+        Iterator<Entry> eldest = results.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    } // evict
+
+    /**
+     * Helper method to read the versions of the input relations.
+     */
+    private static long[] versions(Relation[] inputs) {
+        long[] versions = new long[inputs.length];
+        for (int k = 0; k < inputs.length; k++) {
+            versions[k] = inputs[k].getVersion();
+        }
+        return versions;
+    } // versions
+
+    /**
+     * Helper method to copy a list parameter for a key, so that changes 
+     * to the list by the caller do not change the key.
+     */
+    private static List<?> copy(List<?> list) {
+        return list == null ? null : new ArrayList<>(list);
+    } // copy
+
+    /**
+     * Helper method to estimate the bytes a relation takes.
+     */
+    private static long estimateBytes(Relation rel) {
+        return ENTRY_BYTES + (long) rel.getSize() * (ROW_BYTES + (long) CELL_BYTES * rel.getTypes().size());
+    } // estimateBytes
+
+    /**
+     * Identifies an operator call by the operator, the identities of its
+     * inputs and its other parameters. The inputs are weakly referenced;
+     * once one of them is collected, the key only equals itself.
+     */
+    private static final class Key {
+        private final String operator;
+        private final InputRef[] inputs;
+        private final List<Object> params;
+        private final int hash;
+
+        Key(String operator, Relation[] inputs, List<Object> params, ReferenceQueue<Relation> queue) {
+            this.operator = operator;
+            this.inputs = new InputRef[inputs.length];
+            this.params = params;
+            int h = operator.hashCode();
+            for (int k = 0; k < inputs.length; k++) {
+                this.inputs[k] = new InputRef(inputs[k], this, queue);
+                h = 31 * h + System.identityHashCode(inputs[k]);
+            }
+            this.hash = 31 * h + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            if (hash != other.hash || !operator.equals(other.operator)
+                    || inputs.length != other.inputs.length) {
+                return false;
+            }
+            for (int k = 0; k < inputs.length; k++) {
+                Relation input = inputs[k].get();
+                if (input == null || input != other.inputs[k].get()) {
+                    return false;
+                }
+            }
+            return params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A weak reference to an input relation of the call identified by key.
+     */
+    private static final class InputRef extends WeakReference<Relation> {
+        private final Key key;
+
+        InputRef(Relation input, Key key, ReferenceQueue<Relation> queue) {
+            super(input, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * The result shown by a snapshot and the version of the snapshot when
+     * it was handed out.
+     */
+    private static final class Snapshot {
+        private final Relation result;
+        private final long version;
+
+        Snapshot(Relation result, long version) {
+            this.result = result;
+            this.version = version;
+        }
+    }
+
+    /**
+     * A cached result with the versions it was computed from.
+     */
+    private static final class Entry {
+        private final Relation result;
+        private final long[] versions; // Versions of the inputs.
+        private final long bytes; // Estimated bytes of the result.
+
+        Entry(Relation result, long[] versions, long bytes) {
+            this.result = result;
+            this.versions = versions;
+            this.bytes = bytes;
+        }
+    }
+
+}
@@ -11,10 +11,15 @@ import uga.cs4370.mydb.RelationBuilder;
 import uga.cs4370.mydb.Type;
 
 import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.LazyRA;
+import uga.cs4370.mydb.Plan;
 import uga.cs4370.mydb.RA;
 
 import uga.cs4370.mydb.Predicate;;
 
+import static uga.cs4370.mydb.Condition.col;
+
 public class Driver {
 
     public static void main(String[] args) {
@@ -58,7 +63,7 @@ public class Driver {
         //prereq
         Relation prereqRelation = new RelationBuilder()
             .attributeNames(List.of("course_id", "prereq_id"))
-            .attributeTypes(List.of(Type.STRING, Type.STRING))
+            .attributeTypes(List.of(Type.INTEGER, Type.INTEGER))
             .build();
         prereqRelation.loadData("mysql_files/prereq_export.csv");
 
@@ -71,52 +76,38 @@ public class Driver {
 
         //Query 1: "Classrooms in the Astronomy building that can hold more than 70 students" = 
         // PROJECT building, room_number, capacity (SELECT building=="Taylor" ∧ capacity > 70 (department ⨝ classroom))
-        Predicate astronomyPredicate = new Predicate() {
-            @Override
-            public boolean check(List<Cell> row) {
-                String building = row.get(1).toString(); // Building name
-                double budget = Double.parseDouble(row.get(2).toString()); // Budget
-                return building.equals("Taylor") && budget > 70.0;
-            }
-        };
-
-        // natural join on the department and classroom relations
-        RA ra = new RAimpl();
-        Relation joinResult = ra.join(departmentRelation, classroomRelation);
-
-        // apply the predicate to filter rows
-        Relation filteredResult = ra.select(joinResult, astronomyPredicate);
+        Condition astronomyCondition = col("building").eq("Taylor").and(col("budget").gt(70.0));
 
         // project required attributes: building, room_number, capacity
         List<String> projectionAttributes = List.of("building", "room_number", "capacity");
-        Relation projectedResult = ra.project(filteredResult, projectionAttributes);
+
+        // natural join, selection and projection as a lazy plan, evaluated 
+        // without intermediate relations when printed
+        LazyRA lazy = new LazyRAimpl();
+        Plan query1 = lazy.optimize(lazy.project(
+                lazy.select(lazy.join(lazy.scan(departmentRelation), lazy.scan(classroomRelation)), 
+                        astronomyCondition),
+                projectionAttributes));
 
         // Print the result
-        projectedResult.print();
+        query1.print();
 
         //Query 2: "Courses instructor Sakurai teaches" = 
         // PROJECT course_id, title (SELECT instructor.ID=="95709" (instructor ⨝ teaches ⨝ course))
-        RA ra2 = new RAimpl();
-
         // Courses taught by instructor Sakurai
-        Predicate predicate = new Predicate() {
-            @Override
-            public boolean check(List<Cell> row) {
-                String instructorId = row.get(0).toString(); 
-                return instructorId.equals("95709");
-            }
-        };
-        // perform the selection and join operations
-        Relation joinedRelation = ra2.join(instructorRelation, teachesRelation);
-        Relation filteredRelation = ra2.select(joinedRelation, predicate);
-        Relation finalResult = ra2.join(filteredRelation, courseRelation);
+        Condition condition = col("instructor_id").eq(95709);
+        // perform the selection and join operations lazily, the optimizer 
+        // moves the selection below the joins
+        Plan joinedPlan = lazy.join(lazy.scan(instructorRelation), lazy.scan(teachesRelation));
+        Plan filteredPlan = lazy.select(joinedPlan, condition);
+        Plan finalPlan = lazy.join(filteredPlan, lazy.scan(courseRelation));
         
         // project course_id and title attributes
         List<String> projectionAttributes2 = List.of("course_id", "title");
-        Relation projectedResult2 = ra.project(finalResult, projectionAttributes2);
+        Plan projectedPlan2 = lazy.optimize(lazy.project(finalPlan, projectionAttributes2));
         
         // print
-        projectedResult2.print();
+        projectedPlan2.print();
 
         //Query 3: "Prerequisites for classes in biology department 
         //PROJECT course_id, prereq_id (SELECT dept_name = "Biology"(courseRelation ⋈ prereqRelation))
@@ -136,11 +127,11 @@ public class Driver {
         Relation joinResult3 = ra3.join(courseRelation, prereqRelation);
 
         // apply the predicate to filter rows
-        Relation filteredResult3 = ra3.select(joinResult, predicate3);
+        Relation filteredResult3 = ra3.select(joinResult3, predicate3);
 
         // project attributes: semester, year, time
         List<String> projectionAttributes3 = List.of("course_id", "prereq_id");
-        Relation projectedResult3 = ra3.project(filteredResult, projectionAttributes);
+        Relation projectedResult3 = ra3.project(filteredResult3, projectionAttributes3);
 
         // Print the result
         projectedResult3.print();
@@ -148,25 +139,13 @@ public class Driver {
         //Query 4: Instructors in the Statistics department who don't have a salary > 70,000.0
 	// PROJECT instructor.id, instructor.name (SELECT salary <= 70000.0 (Instructor ⨝ (Instructor.dept_name = Department.dept_name) Department))
         RA ra4 = new RAimpl();
-        Predicate salaryPredicate = new Predicate() {
-            @Override
-            public boolean check(List<Cell> row) {
-                double salary = Double.parseDouble(row.get(3).toString()); 
-                return salary > 70000.0;
-            }
-        };
+        Condition salaryCondition = col("salary").gt(70000.0);
         
         // perform  selection on the instructor relation using the salary predicate
-        Relation highSalaryInstructors = ra4.select(instructorRelation, salaryPredicate);
+        Relation highSalaryInstructors = ra4.select(instructorRelation, salaryCondition);
         
-        Predicate statisticsPredicate = new Predicate() {
-            @Override
-            public boolean check(List<Cell> row) {
-                String department = row.get(2).toString(); 
-                return department.equals("Statistics");
-            }
-        };
-        Relation statisticsInstructors = ra4.select(instructorRelation, statisticsPredicate);
+        Condition statisticsCondition = col("department").eq("Statistics");
+        Relation statisticsInstructors = ra4.select(instructorRelation, statisticsCondition);
         
         // uses set difference to find instructors in the Statistics department who don't have a salary greater than 70,000.0
         Relation filteredInstructors = ra4.diff(statisticsInstructors, highSalaryInstructors);
@@ -182,17 +161,11 @@ public class Driver {
         
 	//Query 5: Students who got an A in 2003 in the course_id 748
  	RA ra5 = new RAimpl();
-        Predicate gradeYearPredicate = new Predicate() {
-            @Override
-            public boolean check(List<Cell> row) {
-                String grade = row.get(5).toString(); 
-                double year = Double.parseDouble(row.get(4).toString()); 
-                int courseID = Integer.parseInt(row.get(1).toString()); 
-                return grade.equals("A ") && year == 2003 && courseID == 748;
-            }
-        };
+        Condition gradeYearCondition = col("grade").eq("A ")
+                .and(col("year").eq(2003))
+                .and(col("course_id").eq(748));
 
-        Relation selectedGrades = ra5.select(takesRelation, gradeYearPredicate);
+        Relation selectedGrades = ra5.select(takesRelation, gradeYearCondition);
         
         List<String> projectionAttributes5 = List.of("ID");
         Relation projectedResult5 = ra5.project(selectedGrades, projectionAttributes5);
@@ -0,0 +1,278 @@
+package uga.cs4370.mydbimpl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.RowAppender;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Sorts the rows of a relation on some of its columns. Inputs that fit in
+ * the sort buffer are sorted in memory. Larger inputs are cut into runs of
+ * the buffer size, each run is sorted and spilled to a temporary file, and
+ * the runs are merged k ways into the result with a priority queue. The
+ * spilling only bounds the memory of sorting: the sort holds one run on
+ * top of the input, and the result, like any relation, is fully in memory.
+ *
+ * The sort is stable: runs are consecutive ranges of the input and ties
+ * between runs go to the earlier run. Numbers are compared like
+ * Double.compare, which puts NaN after all other numbers, and strings
+ * lexicographically.
+ */
+final class ExternalSort {
+
+    private static final int BUFFER_SIZE = 1 << 16; // Bytes buffered per run file.
+
+    private final Relation rel;
+    private final int[] columns; // Positions of the sort attributes.
+    private final Type[] types; // Types of all attributes of rel.
+    private final boolean ascending;
+    private final int bufferRows;
+
+    ExternalSort(Relation rel, int[] columns, boolean ascending, int bufferRows) {
+        this.rel = rel;
+        this.columns = columns;
+        this.types = rel.getTypes().toArray(new Type[0]);
+        this.ascending = ascending;
+        this.bufferRows = bufferRows;
+    }
+
+    /**
+     * Returns a new relation with the rows of rel in sorted order.
+     *
+     * @throws UncheckedIOException if the runs can not be spilled.
+     */
+    Relation sort() {
+        int size = rel.getSize();
+        Relation result = new RelationBuilder()
+                .attributeNames(rel.getAttrs())
+                .attributeTypes(rel.getTypes())
+                .expectedRows(size)
+                .build();
+        if (size <= bufferRows) {
+            result.insertAll(rel, sortedRange(0, size), size);
+            return result;
+        }
+
+        List<Path> runs = new ArrayList<>();
+        try {
+            for (int from = 0; from < size; from += bufferRows) {
+                Path run = Files.createTempFile("mydb-sort-", ".run");
+                runs.add(run);
+                writeRun(run, sortedRange(from, Math.min(from + bufferRows, size)));
+            }
+            merge(runs, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill sorted runs.", e);
+        } finally {
+            for (Path run : runs) {
+                try {
+                    Files.deleteIfExists(run);
+                } catch (IOException e) {
+                    // A temporary file, left to the system to clean up.
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the row numbers in [from, to) in sorted order.
+     */
+    private int[] sortedRange(int from, int to) {
+        Integer[] order = new Integer[to - from];
+        for (int k = 0; k < order.length; ++k) {
+            order[k] = from + k;
+        }
+        // Arrays.sort on objects is stable.
+        Arrays.sort(order, (i, j) -> {
+            int cmp = compareRows(rel, i, columns, rel, j, columns, types);
+            return ascending ? cmp : -cmp;
+        });
+        int[] rows = new int[order.length];
+        for (int k = 0; k < rows.length; ++k) {
+            rows[k] = order[k];
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the given rows of rel to a run file, field by field.
+     */
+    private void writeRun(Path run, int[] rows) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE))) {
+            for (int i : rows) {
+                for (int j = 0; j < types.length; ++j) {
+                    switch (types[j]) {
+                        case INTEGER:
+                            out.writeInt(rel.getInt(i, j));
+                            break;
+                        case DOUBLE:
+                            out.writeDouble(rel.getDouble(i, j));
+                            break;
+                        default:
+                            byte[] bytes = rel.getString(i, j).getBytes(StandardCharsets.UTF_8);
+                            out.writeInt(bytes.length);
+                            out.write(bytes);
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the rows of a run file in order.
+     */
+    private final class RunReader {
+        private final DataInputStream in;
+        private final int index; // Position of the run in the input.
+        private int remaining; // Rows not read yet.
+        private List<Cell> row; // Current row.
+
+        RunReader(Path run, int index, int rows) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+            this.index = index;
+            this.remaining = rows;
+        }
+
+        /**
+         * Reads the next row, returning false at the end of the run.
+         */
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            row = new ArrayList<>(types.length);
+            for (Type type : types) {
+                switch (type) {
+                    case INTEGER:
+                        row.add(Cell.val(in.readInt()));
+                        break;
+                    case DOUBLE:
+                        row.add(Cell.val(in.readDouble()));
+                        break;
+                    default:
+                        byte[] bytes = new byte[in.readInt()];
+                        in.readFully(bytes);
+                        row.add(Cell.val(new String(bytes, StandardCharsets.UTF_8)));
+                        break;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Merges the sorted runs into result.
+     */
+    private void merge(List<Path> runs, Relation result) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size(), (a, b) -> {
+            int cmp = compareCells(a.row, b.row, columns);
+            cmp = ascending ? cmp : -cmp;
+            return cmp != 0 ? cmp : Integer.compare(a.index, b.index);
+        });
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            int size = rel.getSize();
+            for (int k = 0; k < runs.size(); ++k) {
+                int rows = Math.min(bufferRows, size - k * bufferRows);
+                RunReader reader = new RunReader(runs.get(k), k, rows);
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            // The rows were read back with the types of rel.
+            RowAppender appender = result.appender(0);
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                for (Cell cell : reader.row) {
+                    appender.appendCell(cell);
+                }
+                appender.endRow();
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.in.close();
+            }
+        }
+    }
+
+    /**
+     * Compares row i of rel1 with row j of rel2 on the given columns, which
+     * have the given types in both relations, in ascending order.
+     *
+     * @param types The types of the columns of rel1, indexed by position.
+     */
+    static int compareRows(Relation rel1, int i, int[] columns1, Relation rel2, int j, int[] columns2,
+            Type[] types) {
+        for (int k = 0; k < columns1.length; ++k) {
+            int c1 = columns1[k];
+            int c2 = columns2[k];
+            int cmp;
+            switch (types[c1]) {
+                case INTEGER:
+                    cmp = Integer.compare(rel1.getInt(i, c1), rel2.getInt(j, c2));
+                    break;
+                case DOUBLE:
+                    cmp = Double.compare(rel1.getDouble(i, c1), rel2.getDouble(j, c2));
+                    break;
+                default:
+                    cmp = rel1.getString(i, c1).compareTo(rel2.getString(j, c2));
+                    break;
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compares two rows of the same schema on the given columns, in
+     * ascending order.
+     */
+    private static int compareCells(List<Cell> row1, List<Cell> row2, int[] columns) {
+        for (int c : columns) {
+            Cell cell1 = row1.get(c);
+            Cell cell2 = row2.get(c);
+            int cmp;
+            switch (cell1.getType()) {
+                case INTEGER:
+                    cmp = Integer.compare(cell1.getAsInt(), cell2.getAsInt());
+                    break;
+                case DOUBLE:
+                    cmp = Double.compare(cell1.getAsDouble(), cell2.getAsDouble());
+                    break;
+                default:
+                    cmp = cell1.getAsString().compareTo(cell2.getAsString());
+                    break;
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,434 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uga.cs4370.mydb.Aggregate;
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Hash aggregation of a relation for RA.groupBy. Groups are found in an
+ * open addressing hash table that holds group numbers and is probed
+ * linearly. Keys are hashed and compared through the typed accessors of
+ * the relation, using the first row of each group as the stored key, so
+ * no cells or row keys are created per row. STRING keys are hashed and
+ * compared by their dictionary codes. The aggregates of the groups
+ * are kept in primitive arrays indexed by group number.
+ *
+ * Ranges of rows can be aggregated separately into partial Groups, which
+ * are then merged. Groups are numbered in order of their first row, and
+ * merging partials in row order keeps that order, so the result does not
+ * depend on how the rows were split. Only sums of DOUBLE values may
+ * differ in the last bits, since they are added in a different order.
+ */
+final class HashAggregation {
+
+    private final Relation rel;
+    private final int[] groupColumns; // Positions of the group attributes.
+    private final Type[] types; // Types of all attributes of rel.
+    private final List<Aggregate> aggregates;
+    private final int[] aggregateColumns; // Position of each aggregated attribute, -1 for COUNT.
+    private final List<String> resultAttrs;
+    private final List<Type> resultTypes;
+
+    /**
+     * @throws IllegalArgumentException if an attribute is not present in rel
+     * or SUM or AVG is asked of a STRING attribute.
+     */
+    HashAggregation(Relation rel, List<String> groupAttrs, List<Aggregate> aggregates) {
+        this.rel = rel;
+        this.types = rel.getTypes().toArray(new Type[0]);
+        this.aggregates = List.copyOf(aggregates);
+        this.groupColumns = new int[groupAttrs.size()];
+        this.resultAttrs = new ArrayList<>(groupAttrs);
+        this.resultTypes = new ArrayList<>();
+        for (int k = 0; k < groupColumns.length; ++k) {
+            groupColumns[k] = column(groupAttrs.get(k));
+            resultTypes.add(types[groupColumns[k]]);
+        }
+        this.aggregateColumns = new int[aggregates.size()];
+        for (int a = 0; a < aggregateColumns.length; ++a) {
+            Aggregate aggregate = aggregates.get(a);
+            resultAttrs.add(aggregate.getName());
+            if (aggregate.getFunction() == Aggregate.Function.COUNT) {
+                aggregateColumns[a] = -1;
+                resultTypes.add(Type.INTEGER);
+                continue;
+            }
+            aggregateColumns[a] = column(aggregate.getAttr());
+            Type type = types[aggregateColumns[a]];
+            switch (aggregate.getFunction()) {
+                case SUM:
+                case AVG:
+                    if (type == Type.STRING) {
+                        throw new IllegalArgumentException("Can not compute " + aggregate.getFunction()
+                                + " of STRING attribute " + aggregate.getAttr());
+                    }
+                    resultTypes.add(aggregate.getFunction() == Aggregate.Function.AVG ? Type.DOUBLE : type);
+                    break;
+                default:
+                    resultTypes.add(type);
+                    break;
+            }
+        }
+    }
+
+    private int column(String attr) {
+        if (!rel.hasAttr(attr)) {
+            throw new IllegalArgumentException("Attribute " + attr + " is not present in the relation.");
+        }
+        return rel.getAttrIndex(attr);
+    }
+
+    /**
+     * Returns the groups of the rows [from, to) of the relation.
+     */
+    Groups aggregate(int from, int to) {
+        Groups groups = new Groups();
+        for (int i = from; i < to; ++i) {
+            groups.add(i);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns a relation with one row per group, holding the group
+     * attributes followed by the aggregates, in order of the first row of
+     * each group.
+     *
+     * @throws IllegalArgumentException if an INTEGER sum overflows.
+     */
+    Relation result(Groups groups) {
+        Relation result = new RelationBuilder()
+                .attributeNames(resultAttrs)
+                .attributeTypes(resultTypes)
+                .build();
+        List<Cell> row = new ArrayList<>(resultAttrs.size());
+        for (int g = 0; g < groups.count; ++g) {
+            row.clear();
+            for (int column : groupColumns) {
+                row.add(rel.getCell(groups.firstRows[g], column));
+            }
+            for (int a = 0; a < aggregates.size(); ++a) {
+                row.add(groups.value(a, g));
+            }
+            result.insert(row);
+        }
+        return result;
+    }
+
+    /**
+     * Groups of a range of rows and their aggregates.
+     */
+    final class Groups {
+        private int[] table = new int[16]; // Group number + 1 per slot, 0 if the slot is empty.
+        private int count; // Number of groups.
+        private int[] firstRows = new int[8]; // First row of each group, which holds its key.
+        private int[] hashes = new int[8]; // Key hash of each group.
+        private long[] rows = new long[8]; // Number of rows of each group.
+        private final long[][] longs = new long[aggregates.size()][]; // INTEGER sums.
+        private final double[][] doubles = new double[aggregates.size()][]; // DOUBLE sums, minimums and maximums.
+        private final int[][] ints = new int[aggregates.size()][]; // INTEGER minimums and maximums.
+        private final String[][] strings = new String[aggregates.size()][]; // STRING minimums and maximums.
+
+        Groups() {
+            for (int a = 0; a < aggregates.size(); ++a) {
+                int column = aggregateColumns[a];
+                if (column < 0) {
+                    continue;
+                }
+                Aggregate.Function function = aggregates.get(a).getFunction();
+                boolean sum = function == Aggregate.Function.SUM || function == Aggregate.Function.AVG;
+                switch (types[column]) {
+                    case INTEGER:
+                        if (sum) {
+                            longs[a] = new long[8];
+                        } else {
+                            ints[a] = new int[8];
+                        }
+                        break;
+                    case DOUBLE:
+                        doubles[a] = new double[8];
+                        break;
+                    default:
+                        strings[a] = new String[8];
+                        break;
+                }
+            }
+        }
+
+        /**
+         * Adds row i to its group.
+         */
+        void add(int i) {
+            int hash = hash(i);
+            int g = find(i, hash);
+            if (g < 0) {
+                g = insert(i, hash);
+                rows[g] = 1;
+                for (int a = 0; a < aggregates.size(); ++a) {
+                    start(a, g, i);
+                }
+                return;
+            }
+            rows[g]++;
+            for (int a = 0; a < aggregates.size(); ++a) {
+                accumulate(a, g, i);
+            }
+        }
+
+        /**
+         * Merges the groups of other, which are of later rows, into these.
+         */
+        void merge(Groups other) {
+            for (int og = 0; og < other.count; ++og) {
+                int i = other.firstRows[og];
+                int g = find(i, other.hashes[og]);
+                boolean added = g < 0;
+                if (added) {
+                    g = insert(i, other.hashes[og]);
+                }
+                rows[g] += other.rows[og];
+                for (int a = 0; a < aggregates.size(); ++a) {
+                    combine(a, g, other, og, added);
+                }
+            }
+        }
+
+        /**
+         * Returns the group with the key of row i, or -1 if there is none.
+         */
+        private int find(int i, int hash) {
+            int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int g = table[slot] - 1;
+                if (hashes[g] == hash && sameKey(firstRows[g], i)) {
+                    return g;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds a group with row i as first row and returns its number.
+         */
+        private int insert(int i, int hash) {
+            if (count == firstRows.length) {
+                grow();
+            }
+            if (2 * (count + 1) > table.length) {
+                rehash(table.length * 2);
+            }
+            int g = count++;
+            firstRows[g] = i;
+            hashes[g] = hash;
+            place(g);
+            return g;
+        }
+
+        private void place(int g) {
+            int mask = table.length - 1;
+            int slot = spread(hashes[g]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = g + 1;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            for (int g = 0; g < count; ++g) {
+                place(g);
+            }
+        }
+
+        private void grow() {
+            int capacity = firstRows.length * 2;
+            firstRows = Arrays.copyOf(firstRows, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            for (int a = 0; a < aggregates.size(); ++a) {
+                if (longs[a] != null) {
+                    longs[a] = Arrays.copyOf(longs[a], capacity);
+                }
+                if (doubles[a] != null) {
+                    doubles[a] = Arrays.copyOf(doubles[a], capacity);
+                }
+                if (ints[a] != null) {
+                    ints[a] = Arrays.copyOf(ints[a], capacity);
+                }
+                if (strings[a] != null) {
+                    strings[a] = Arrays.copyOf(strings[a], capacity);
+                }
+            }
+        }
+
+        /**
+         * Sets aggregate a of the new group g to the value of row i.
+         */
+        private void start(int a, int g, int i) {
+            int column = aggregateColumns[a];
+            if (column < 0) {
+                return;
+            }
+            if (longs[a] != null) {
+                longs[a][g] = rel.getInt(i, column);
+            } else if (ints[a] != null) {
+                ints[a][g] = rel.getInt(i, column);
+            } else if (doubles[a] != null) {
+                doubles[a][g] = rel.getDouble(i, column);
+            } else {
+                strings[a][g] = rel.getString(i, column);
+            }
+        }
+
+        /**
+         * Adds the value of row i to aggregate a of group g.
+         */
+        private void accumulate(int a, int g, int i) {
+            int column = aggregateColumns[a];
+            if (column < 0) {
+                return;
+            }
+            Aggregate.Function function = aggregates.get(a).getFunction();
+            if (longs[a] != null) {
+                longs[a][g] += rel.getInt(i, column);
+            } else if (ints[a] != null) {
+                ints[a][g] = pick(function, ints[a][g], rel.getInt(i, column));
+            } else if (doubles[a] != null) {
+                doubles[a][g] = pick(function, doubles[a][g], rel.getDouble(i, column));
+            } else {
+                strings[a][g] = pick(function, strings[a][g], rel.getString(i, column));
+            }
+        }
+
+        /**
+         * Adds aggregate a of group og of other to group g, which was just
+         * added if added.
+         */
+        private void combine(int a, int g, Groups other, int og, boolean added) {
+            if (aggregateColumns[a] < 0) {
+                return;
+            }
+            Aggregate.Function function = aggregates.get(a).getFunction();
+            if (longs[a] != null) {
+                longs[a][g] = added ? other.longs[a][og] : longs[a][g] + other.longs[a][og];
+            } else if (ints[a] != null) {
+                ints[a][g] = added ? other.ints[a][og] : pick(function, ints[a][g], other.ints[a][og]);
+            } else if (doubles[a] != null) {
+                doubles[a][g] = added ? other.doubles[a][og] : pick(function, doubles[a][g], other.doubles[a][og]);
+            } else {
+                strings[a][g] = added ? other.strings[a][og] : pick(function, strings[a][g], other.strings[a][og]);
+            }
+        }
+
+        /**
+         * Returns aggregate a of group g as a cell.
+         */
+        private Cell value(int a, int g) {
+            switch (aggregates.get(a).getFunction()) {
+                case COUNT:
+                    return Cell.val(toInt(rows[g], a));
+                case AVG:
+                    double sum = longs[a] != null ? longs[a][g] : doubles[a][g];
+                    return Cell.val(sum / rows[g]);
+                default:
+                    if (longs[a] != null) {
+                        return Cell.val(toInt(longs[a][g], a));
+                    } else if (ints[a] != null) {
+                        return Cell.val(ints[a][g]);
+                    } else if (doubles[a] != null) {
+                        return Cell.val(doubles[a][g]);
+                    }
+                    return Cell.val(strings[a][g]);
+            }
+        }
+
+        private int toInt(long value, int a) {
+            if (value != (int) value) {
+                throw new IllegalArgumentException(aggregates.get(a) + " does not fit in an INTEGER.");
+            }
+            return (int) value;
+        }
+    }
+
+    /**
+     * Returns the hash of the group key of row i.
+     */
+    private int hash(int i) {
+        int h = 1;
+        for (int column : groupColumns) {
+            switch (types[column]) {
+                case INTEGER:
+                    h = 31 * h + Integer.hashCode(rel.getInt(i, column));
+                    break;
+                case DOUBLE:
+                    h = 31 * h + Double.hashCode(rel.getDouble(i, column));
+                    break;
+                default:
+                    h = 31 * h + rel.getStringCode(i, column);
+                    break;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Spreads the bits of a hash so that the low bits used to pick a slot
+     * depend on all of them.
+     */
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns true if rows i and j have the same group key. DOUBLE values
+     * are compared like Cell.equals.
+     */
+    private boolean sameKey(int i, int j) {
+        for (int column : groupColumns) {
+            switch (types[column]) {
+                case INTEGER:
+                    if (rel.getInt(i, column) != rel.getInt(j, column)) {
+                        return false;
+                    }
+                    break;
+                case DOUBLE:
+                    if (Double.doubleToLongBits(rel.getDouble(i, column))
+                            != Double.doubleToLongBits(rel.getDouble(j, column))) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if (rel.getStringCode(i, column) != rel.getStringCode(j, column)) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+        return true;
+    }
+
+    private static int pick(Aggregate.Function function, int current, int value) {
+        return function == Aggregate.Function.MIN ? Math.min(current, value) : Math.max(current, value);
+    }
+
+    private static double pick(Aggregate.Function function, double current, double value) {
+        if (function == Aggregate.Function.SUM || function == Aggregate.Function.AVG) {
+            return current + value;
+        }
+        int cmp = Double.compare(value, current);
+        return (function == Aggregate.Function.MIN ? cmp < 0 : cmp > 0) ? value : current;
+    }
+
+    private static String pick(Aggregate.Function function, String current, String value) {
+        int cmp = value.compareTo(current);
+        return (function == Aggregate.Function.MIN ? cmp < 0 : cmp > 0) ? value : current;
+    }
+
+}
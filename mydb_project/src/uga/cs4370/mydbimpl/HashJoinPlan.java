@@ -0,0 +1,191 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.RowKey;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Natural join of two plans on their common attributes, or equi-join of 
+ * two plans without common attributes on pairs of equated attributes. 
+ * The right input is loaded into a hash table when iteration starts, the 
+ * left input is streamed through it. Natural join rows come out in the 
+ * same order as from RAimpl.join.
+ */
+final class HashJoinPlan extends AbstractPlan {
+
+    final AbstractPlan left;
+    final AbstractPlan right;
+    final Condition condition; // Equalities of an equi-join, or null for a natural join.
+    private final int[] leftKey; // Positions of the common attributes in the left rows.
+    private final int[] rightKey; // Positions of the common attributes in the right rows.
+    private final int[] appendIndex; // Positions of the right attributes not in the left rows.
+
+    HashJoinPlan(AbstractPlan left, AbstractPlan right) {
+        super(joinedAttrs(left, right), joinedTypes(left, right));
+        this.left = left;
+        this.right = right;
+        List<Integer> leftKeyList = new ArrayList<>();
+        List<Integer> rightKeyList = new ArrayList<>();
+        List<Integer> appendList = new ArrayList<>();
+        for (int i = 0; i < right.attrs.size(); i++) {
+            int index = left.attrs.indexOf(right.attrs.get(i));
+            if (index >= 0) {
+                leftKeyList.add(index);
+                rightKeyList.add(i);
+            } else {
+                appendList.add(i);
+            }
+        }
+        this.condition = null;
+        this.leftKey = toArray(leftKeyList);
+        this.rightKey = toArray(rightKeyList);
+        this.appendIndex = toArray(appendList);
+    }
+
+    /**
+     * Creates an equi-join. Every conjunct of condition must equate an 
+     * attribute of left with an attribute of right of the same type.
+     * 
+     * @throws IllegalArgumentException if left and right have common 
+     * attributes or condition is not such a conjunction of equalities.
+     */
+    HashJoinPlan(AbstractPlan left, AbstractPlan right, Condition condition) {
+        super(concat(left.attrs, right.attrs), concat(left.types, right.types));
+        for (String attr : right.attrs) {
+            if (left.attrs.contains(attr)) {
+                throw new IllegalArgumentException("Relations have common attributes.");
+            }
+        }
+        this.left = left;
+        this.right = right;
+        this.condition = condition;
+        List<Condition> equalities = condition.conjuncts();
+        this.leftKey = new int[equalities.size()];
+        this.rightKey = new int[equalities.size()];
+        for (int k = 0; k < equalities.size(); k++) {
+            List<String> pair = equalities.get(k).getEquatedAttrs();
+            if (pair == null) {
+                throw new IllegalArgumentException("Not an equality of attributes: " + equalities.get(k));
+            }
+            boolean leftFirst = left.attrs.contains(pair.get(0));
+            leftKey[k] = left.attrIndex(pair.get(leftFirst ? 0 : 1));
+            rightKey[k] = right.attrIndex(pair.get(leftFirst ? 1 : 0));
+            if (left.types.get(leftKey[k]) != right.types.get(rightKey[k])) {
+                throw new IllegalArgumentException("Equated attributes have different types: "
+                        + equalities.get(k));
+            }
+        }
+        this.appendIndex = new int[right.attrs.size()];
+        for (int i = 0; i < appendIndex.length; i++) {
+            appendIndex[i] = i;
+        }
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> list = new ArrayList<>(first);
+        list.addAll(second);
+        return list;
+    }
+
+    private static List<String> joinedAttrs(AbstractPlan left, AbstractPlan right) {
+        List<String> attrs = new ArrayList<>(left.attrs);
+        for (String attr : right.attrs) {
+            if (!left.attrs.contains(attr)) {
+                attrs.add(attr);
+            }
+        }
+        return attrs;
+    }
+
+    private static List<Type> joinedTypes(AbstractPlan left, AbstractPlan right) {
+        List<Type> types = new ArrayList<>(left.types);
+        for (int i = 0; i < right.attrs.size(); i++) {
+            if (!left.attrs.contains(right.attrs.get(i))) {
+                types.add(right.types.get(i));
+            }
+        }
+        return types;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    @Override
+    List<AbstractPlan> inputs() {
+        return List.of(left, right);
+    }
+
+    @Override
+    String describe() {
+        if (condition != null) {
+            return "HashJoin on " + condition;
+        }
+        List<String> key = new ArrayList<>(rightKey.length);
+        for (int column : rightKey) {
+            key.add(right.attrs.get(column));
+        }
+        return "HashJoin on " + key;
+    }
+
+    /**
+     * Without statistics every input is assumed to hold as many distinct 
+     * key values as rows, so each row of the larger input matches at 
+     * most one row of the smaller one.
+     */
+    @Override
+    double estimatedRows() {
+        double leftRows = left.estimatedRows();
+        double rightRows = right.estimatedRows();
+        if (leftKey.length == 0) {
+            return leftRows * rightRows;
+        }
+        return Math.min(leftRows, rightRows);
+    }
+
+    @Override
+    public Iterator<List<Cell>> iterator() {
+        // Build on the right input, keeping the rows of a bucket in input order.
+        Map<RowKey, List<List<Cell>>> table = new HashMap<>();
+        for (List<Cell> row : right) {
+            table.computeIfAbsent(RowKey.of(row, rightKey), k -> new ArrayList<>()).add(row);
+        }
+        Iterator<List<Cell>> rows = left.iterator();
+        return new Iterator<List<Cell>>() {
+            private List<Cell> leftRow;
+            private Iterator<List<Cell>> matches = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!matches.hasNext() && rows.hasNext()) {
+                    leftRow = rows.next();
+                    List<List<Cell>> bucket = table.get(RowKey.of(leftRow, leftKey));
+                    matches = bucket == null ? Collections.emptyIterator() : bucket.iterator();
+                }
+                return matches.hasNext();
+            }
+
+            @Override
+            public List<Cell> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return RAimpl.combineRows(leftRow, matches.next(), appendIndex);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,100 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.List;
+
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.LazyRA;
+import uga.cs4370.mydb.Plan;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.Relation;
+
+/**
+ * Implementation of the lazy relational algebra operators. Each operator
+ * validates its arguments and returns a plan node, nothing is evaluated 
+ * until the plan is iterated.
+ */
+public class LazyRAimpl implements LazyRA {
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan scan(Relation rel) {
+        return new ScanPlan(rel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan select(Plan plan, Predicate p) {
+        return new SelectPlan(node(plan), p);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan select(Plan plan, Condition c) {
+        return new SelectPlan(node(plan), c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan project(Plan plan, List<String> attrs) {
+        return new ProjectPlan(node(plan), attrs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan rename(Plan plan, List<String> origAttr, List<String> renamedAttr) {
+        return new RenamePlan(node(plan), origAttr, renamedAttr);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan cartesianProduct(Plan plan1, Plan plan2) {
+        return new NestedLoopJoinPlan(node(plan1), node(plan2), (Predicate) null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan join(Plan plan1, Plan plan2) {
+        return new HashJoinPlan(node(plan1), node(plan2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan join(Plan plan1, Plan plan2, Predicate p) {
+        return new NestedLoopJoinPlan(node(plan1), node(plan2), p);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan join(Plan plan1, Plan plan2, Condition c) {
+        return new NestedLoopJoinPlan(node(plan1), node(plan2), c);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Plan optimize(Plan plan) {
+        return new Optimizer().optimize(node(plan));
+    }
+
+    /**
+     * Checks that a plan was created by this class.
+     * 
+     * @throws IllegalArgumentException if plan is not a plan node of this package.
+     */
+    private static AbstractPlan node(Plan plan) {
+        if (!(plan instanceof AbstractPlan)) {
+            throw new IllegalArgumentException("Plan was not created by LazyRAimpl.");
+        }
+        return (AbstractPlan) plan;
+    }
+
+}
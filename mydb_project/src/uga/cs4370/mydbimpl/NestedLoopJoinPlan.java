@@ -0,0 +1,129 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Cartesian product of two plans without common attributes, optionally 
+ * filtered by a predicate for theta joins. The right input is loaded 
+ * into memory when iteration starts, the left input is streamed.
+ */
+final class NestedLoopJoinPlan extends AbstractPlan {
+
+    final AbstractPlan left;
+    final AbstractPlan right;
+    final Predicate predicate; // null for a cartesian product.
+    final Condition condition; // The condition predicate was bound from, or null.
+    private final int[] appendIndex; // All positions of the right rows.
+
+    NestedLoopJoinPlan(AbstractPlan left, AbstractPlan right, Predicate predicate) {
+        super(concat(checkDisjoint(left, right).attrs, right.attrs), concat(left.types, right.types));
+        this.left = left;
+        this.right = right;
+        this.predicate = predicate;
+        this.condition = null;
+        this.appendIndex = allColumns(right);
+    }
+
+    NestedLoopJoinPlan(AbstractPlan left, AbstractPlan right, Condition condition) {
+        super(concat(checkDisjoint(left, right).attrs, right.attrs), concat(left.types, right.types));
+        this.left = left;
+        this.right = right;
+        this.predicate = condition.bind(attrs, types);
+        this.condition = condition;
+        this.appendIndex = allColumns(right);
+    }
+
+    private static int[] allColumns(AbstractPlan plan) {
+        int[] columns = new int[plan.attrs.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+        return columns;
+    }
+
+    private static AbstractPlan checkDisjoint(AbstractPlan left, AbstractPlan right) {
+        for (String attr : right.attrs) {
+            if (left.attrs.contains(attr)) {
+                throw new IllegalArgumentException("Relations have common attributes.");
+            }
+        }
+        return left;
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> list = new ArrayList<>(first);
+        list.addAll(second);
+        return list;
+    }
+
+    @Override
+    List<AbstractPlan> inputs() {
+        return List.of(left, right);
+    }
+
+    @Override
+    String describe() {
+        if (predicate == null) {
+            return "CartesianProduct";
+        }
+        return "NestedLoopJoin " + (condition != null ? condition : "<predicate>");
+    }
+
+    @Override
+    double estimatedRows() {
+        double selectivity = predicate == null ? 1
+                : condition != null ? condition.estimateSelectivity() : PREDICATE_SELECTIVITY;
+        return left.estimatedRows() * right.estimatedRows() * selectivity;
+    }
+
+    @Override
+    public Iterator<List<Cell>> iterator() {
+        List<List<Cell>> rightRows = new ArrayList<>();
+        for (List<Cell> row : right) {
+            rightRows.add(row);
+        }
+        Iterator<List<Cell>> rows = left.iterator();
+        return new Iterator<List<Cell>>() {
+            private List<Cell> leftRow;
+            private int j = rightRows.size(); // Next right row to combine with leftRow.
+            private List<Cell> next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (j == rightRows.size()) {
+                        if (!rows.hasNext() || rightRows.isEmpty()) {
+                            return false;
+                        }
+                        leftRow = rows.next();
+                        j = 0;
+                    }
+                    List<Cell> combined = RAimpl.combineRows(leftRow, rightRows.get(j++), appendIndex);
+                    if (predicate == null || predicate.check(combined)) {
+                        next = combined;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public List<Cell> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Cell> row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+}
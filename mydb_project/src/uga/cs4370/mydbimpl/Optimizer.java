@@ -0,0 +1,334 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Rewrites a plan into an equivalent plan that is cheaper to evaluate.
+ *
+ * Maximal trees of joins, cartesian products and selections with a
+ * Condition are flattened into join groups: a list of inputs that are
+ * natural joined and a list of conjuncts. Every conjunct is pushed down
+ * to each input that has all of its attributes, and every input is
+ * projected to the attributes needed above it. The inputs are then joined
+ * greedily, starting with the smallest and adding the input that gives
+ * the smallest estimated result, preferring inputs connected by a join
+ * attribute or an equality. Each join builds on its smaller input and is
+ * a hash join if there are attributes to join on, a nested loop join
+ * otherwise.
+ *
+ * Selections with a Predicate read columns by position, so they and the
+ * operators below them are only rewritten with the schema left unchanged.
+ */
+final class Optimizer {
+
+    /**
+     * Returns an optimized plan with the same schema and the same rows as
+     * plan, possibly in a different order.
+     */
+    AbstractPlan optimize(AbstractPlan plan) {
+        return exact(rewrite(plan, new HashSet<>(plan.attrs)), plan.attrs);
+    }
+
+    /**
+     * Returns an optimized plan that has at least the attributes in required,
+     * in any order.
+     */
+    private AbstractPlan rewrite(AbstractPlan plan, Set<String> required) {
+        if (isGroupNode(plan)) {
+            return rewriteGroup(plan, required);
+        }
+        if (plan instanceof ProjectPlan) {
+            ProjectPlan project = (ProjectPlan) plan;
+            AbstractPlan input = rewrite(project.input, new HashSet<>(project.attrs));
+            return new ProjectPlan(input, project.attrs);
+        }
+        if (plan instanceof RenamePlan) {
+            RenamePlan rename = (RenamePlan) plan;
+            AbstractPlan input = rewrite(rename.input, new HashSet<>(rename.input.attrs));
+            return new RenamePlan(input, rename.origAttr, rename.renamedAttr);
+        }
+        if (plan instanceof SelectPlan) {
+            SelectPlan select = (SelectPlan) plan;
+            AbstractPlan input = rewriteExact(select.input);
+            return select.condition != null
+                    ? new SelectPlan(input, select.condition)
+                    : new SelectPlan(input, select.predicate);
+        }
+        if (plan instanceof NestedLoopJoinPlan) {
+            NestedLoopJoinPlan join = (NestedLoopJoinPlan) plan;
+            AbstractPlan left = rewriteExact(join.left);
+            AbstractPlan right = rewriteExact(join.right);
+            return join.condition != null
+                    ? new NestedLoopJoinPlan(left, right, join.condition)
+                    : new NestedLoopJoinPlan(left, right, join.predicate);
+        }
+        return plan;
+    }
+
+    private AbstractPlan rewriteExact(AbstractPlan plan) {
+        return exact(rewrite(plan, new HashSet<>(plan.attrs)), plan.attrs);
+    }
+
+    /**
+     * Projects plan to exactly the attributes attrs, in that order, unless
+     * it has them already.
+     */
+    private static AbstractPlan exact(AbstractPlan plan, List<String> attrs) {
+        return plan.attrs.equals(attrs) ? plan : new ProjectPlan(plan, attrs);
+    }
+
+    /**
+     * Returns true if plan is a join, cartesian product or selection whose
+     * inputs and conjuncts can be rearranged.
+     */
+    private static boolean isGroupNode(AbstractPlan plan) {
+        if (plan instanceof HashJoinPlan) {
+            return true;
+        }
+        if (plan instanceof NestedLoopJoinPlan) {
+            NestedLoopJoinPlan join = (NestedLoopJoinPlan) plan;
+            return join.predicate == null || isTransparent(join.condition);
+        }
+        if (plan instanceof SelectPlan) {
+            return isTransparent(((SelectPlan) plan).condition);
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if condition only refers to columns by name.
+     */
+    private static boolean isTransparent(Condition condition) {
+        return condition != null && condition.getAttrs() != null;
+    }
+
+    /**
+     * Collects the inputs and conjuncts of the join group rooted at plan.
+     */
+    private void flatten(AbstractPlan plan, List<AbstractPlan> inputs, List<Condition> conjuncts) {
+        if (!isGroupNode(plan)) {
+            inputs.add(rewrite(plan, new HashSet<>(plan.attrs)));
+        } else if (plan instanceof HashJoinPlan) {
+            HashJoinPlan join = (HashJoinPlan) plan;
+            flatten(join.left, inputs, conjuncts);
+            flatten(join.right, inputs, conjuncts);
+            if (join.condition != null) {
+                conjuncts.addAll(join.condition.conjuncts());
+            }
+        } else if (plan instanceof NestedLoopJoinPlan) {
+            NestedLoopJoinPlan join = (NestedLoopJoinPlan) plan;
+            flatten(join.left, inputs, conjuncts);
+            flatten(join.right, inputs, conjuncts);
+            if (join.condition != null) {
+                conjuncts.addAll(join.condition.conjuncts());
+            }
+        } else {
+            SelectPlan select = (SelectPlan) plan;
+            flatten(select.input, inputs, conjuncts);
+            conjuncts.addAll(select.condition.conjuncts());
+        }
+    }
+
+    private AbstractPlan rewriteGroup(AbstractPlan plan, Set<String> required) {
+        List<AbstractPlan> inputs = new ArrayList<>();
+        List<Condition> conjuncts = new ArrayList<>();
+        flatten(plan, inputs, conjuncts);
+
+        // Push every conjunct down to the inputs that have all its attributes.
+        List<List<Condition>> local = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            local.add(new ArrayList<>());
+        }
+        List<Condition> pending = new ArrayList<>(); // Conjuncts over several inputs.
+        for (Condition conjunct : conjuncts) {
+            boolean pushed = false;
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).attrs.containsAll(conjunct.getAttrs())) {
+                    local.get(i).add(conjunct);
+                    pushed = true;
+                }
+            }
+            if (!pushed) {
+                pending.add(conjunct);
+            }
+        }
+
+        // Keep the attributes needed above the group, by pending conjuncts
+        // and for the natural joins between the inputs.
+        Set<String> needed = new HashSet<>(required);
+        for (Condition conjunct : pending) {
+            needed.addAll(conjunct.getAttrs());
+        }
+        List<AbstractPlan> reduced = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            AbstractPlan input = inputs.get(i);
+            if (!local.get(i).isEmpty()) {
+                input = new SelectPlan(input, and(local.get(i)));
+            }
+            List<String> keep = new ArrayList<>();
+            for (String attr : input.attrs) {
+                if (needed.contains(attr) || sharedWithOther(attr, inputs, i)) {
+                    keep.add(attr);
+                }
+            }
+            if (keep.size() < input.attrs.size()) {
+                input = new ProjectPlan(input, keep);
+            }
+            reduced.add(input);
+        }
+
+        // Join the inputs greedily, smallest estimated results first.
+        AbstractPlan result = removeSmallest(reduced);
+        while (!reduced.isEmpty()) {
+            AbstractPlan best = null;
+            double bestRows = Double.MAX_VALUE;
+            boolean bestConnected = false;
+            for (AbstractPlan candidate : reduced) {
+                boolean connected = isConnected(result, candidate, pending);
+                double rows = join(result, candidate, new ArrayList<>(pending)).estimatedRows();
+                if (best == null || (connected && !bestConnected)
+                        || (connected == bestConnected && rows < bestRows)) {
+                    best = candidate;
+                    bestRows = rows;
+                    bestConnected = connected;
+                }
+            }
+            reduced.remove(best);
+            result = join(result, best, pending);
+        }
+        if (!pending.isEmpty()) {
+            result = new SelectPlan(result, and(pending));
+        }
+        return result;
+    }
+
+    private static boolean sharedWithOther(String attr, List<AbstractPlan> inputs, int index) {
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i != index && inputs.get(i).attrs.contains(attr)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AbstractPlan removeSmallest(List<AbstractPlan> plans) {
+        AbstractPlan smallest = plans.get(0);
+        for (AbstractPlan plan : plans) {
+            if (plan.estimatedRows() < smallest.estimatedRows()) {
+                smallest = plan;
+            }
+        }
+        plans.remove(smallest);
+        return smallest;
+    }
+
+    /**
+     * Returns true if the plans have a common attribute or a pending
+     * conjunct equates attributes of both.
+     */
+    private static boolean isConnected(AbstractPlan plan1, AbstractPlan plan2, List<Condition> pending) {
+        for (String attr : plan2.attrs) {
+            if (plan1.attrs.contains(attr)) {
+                return true;
+            }
+        }
+        for (Condition conjunct : pending) {
+            if (isEquiJoinKey(conjunct, plan1, plan2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if conjunct equates an attribute of plan1 with an attribute
+     * of plan2 of the same type. DOUBLE attributes are left out because the
+     * hash table compares them like Cell.equals, which differs from == for
+     * NaN and -0.0.
+     */
+    private static boolean isEquiJoinKey(Condition conjunct, AbstractPlan plan1, AbstractPlan plan2) {
+        List<String> pair = conjunct.getEquatedAttrs();
+        if (pair == null) {
+            return false;
+        }
+        for (int k = 0; k < 2; k++) {
+            int index1 = plan1.attrs.indexOf(pair.get(k));
+            int index2 = plan2.attrs.indexOf(pair.get(1 - k));
+            if (index1 >= 0 && index2 >= 0) {
+                Type type = plan1.types.get(index1);
+                return type != Type.DOUBLE && type == plan2.types.get(index2);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Joins two plans of a group, applying and removing the pending
+     * conjuncts that can be evaluated on the result. The smaller input
+     * becomes the right input, which is the one held in memory.
+     */
+    private static AbstractPlan join(AbstractPlan plan1, AbstractPlan plan2, List<Condition> pending) {
+        AbstractPlan left = plan1;
+        AbstractPlan right = plan2;
+        if (right.estimatedRows() > left.estimatedRows()) {
+            left = plan2;
+            right = plan1;
+        }
+        Set<String> joinedAttrs = new HashSet<>(left.attrs);
+        joinedAttrs.addAll(right.attrs);
+        List<Condition> applicable = new ArrayList<>();
+        for (Iterator<Condition> it = pending.iterator(); it.hasNext();) {
+            Condition conjunct = it.next();
+            if (joinedAttrs.containsAll(conjunct.getAttrs())) {
+                applicable.add(conjunct);
+                it.remove();
+            }
+        }
+
+        AbstractPlan join;
+        boolean natural = false;
+        for (String attr : right.attrs) {
+            natural |= left.attrs.contains(attr);
+        }
+        if (natural) {
+            join = new HashJoinPlan(left, right);
+        } else {
+            List<Condition> keys = new ArrayList<>();
+            for (Condition conjunct : applicable) {
+                if (isEquiJoinKey(conjunct, left, right)) {
+                    keys.add(conjunct);
+                }
+            }
+            applicable.removeAll(keys);
+            if (!keys.isEmpty()) {
+                join = new HashJoinPlan(left, right, and(keys));
+            } else if (!applicable.isEmpty()) {
+                join = new NestedLoopJoinPlan(left, right, and(applicable));
+                applicable.clear();
+            } else {
+                join = new NestedLoopJoinPlan(left, right, (Predicate) null);
+            }
+        }
+        if (!applicable.isEmpty()) {
+            join = new SelectPlan(join, and(applicable));
+        }
+        return join;
+    }
+
+    private static Condition and(List<Condition> conjuncts) {
+        Condition result = conjuncts.get(0);
+        for (int i = 1; i < conjuncts.size(); i++) {
+            result = result.and(conjuncts.get(i));
+        }
+        return result;
+    }
+
+}
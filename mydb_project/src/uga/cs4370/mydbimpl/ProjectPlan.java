@@ -0,0 +1,71 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Keeps the given attributes of the rows of its input.
+ */
+final class ProjectPlan extends AbstractPlan {
+
+    final AbstractPlan input;
+    private final int[] columns; // Positions of the kept attributes in the input.
+
+    ProjectPlan(AbstractPlan input, List<String> attrs) {
+        super(attrs, projectedTypes(input, attrs));
+        this.input = input;
+        this.columns = new int[attrs.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = input.attrIndex(attrs.get(i));
+        }
+    }
+
+    private static List<Type> projectedTypes(AbstractPlan input, List<String> attrs) {
+        List<Type> types = new ArrayList<>(attrs.size());
+        for (String attr : attrs) {
+            types.add(input.types.get(input.attrIndex(attr)));
+        }
+        return types;
+    }
+
+    @Override
+    List<AbstractPlan> inputs() {
+        return List.of(input);
+    }
+
+    @Override
+    String describe() {
+        return "Project " + attrs;
+    }
+
+    @Override
+    double estimatedRows() {
+        return input.estimatedRows();
+    }
+
+    @Override
+    public Iterator<List<Cell>> iterator() {
+        Iterator<List<Cell>> rows = input.iterator();
+        return new Iterator<List<Cell>>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public List<Cell> next() {
+                List<Cell> row = rows.next();
+                List<Cell> projected = new ArrayList<>(columns.length);
+                for (int column : columns) {
+                    projected.add(row.get(column));
+                }
+                return projected;
+            }
+        };
+    }
+
+}
@@ -1,68 +1,454 @@
 package uga.cs4370.mydbimpl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+import uga.cs4370.mydb.Aggregate;
+import uga.cs4370.mydb.BoundCondition;
 import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.Index;
+import uga.cs4370.mydb.IndexType;
 import uga.cs4370.mydb.Predicate;
 import uga.cs4370.mydb.RA;
 import uga.cs4370.mydb.Relation;
 import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.RowKey;
 import uga.cs4370.mydb.Type;
 
 /**
  * Implementation of the Relation Algebra operators class.
+ *
+ * Select, project and the joins can run in parallel: the rows are cut into 
+ * ranges, each range is evaluated into a relation of its own on a fork-join 
+ * pool and the relations are appended to the result in row order, so the 
+ * result is the same as when running sequentially. Natural joins that hash 
+ * are radix partitioned, see partitionedHashJoin. Operators that look at 
+ * fewer rows or row pairs than the parallel threshold are always evaluated 
+ * sequentially. Predicates passed to a parallel RAimpl must be safe to call 
+ * from several threads.
  */
 public class RAimpl implements RA {
 
+    /**
+     * Default minimum number of rows for which the operators run in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    /**
+     * Default maximum number of rows sorted in memory. Larger inputs are 
+     * sorted in runs that are spilled to temporary files and merged.
+     */
+    public static final int DEFAULT_SORT_BUFFER_ROWS = 1 << 20;
+
+    private static final int MIN_RANGE_SIZE = 4096; // Fewest rows a parallel range is given.
+    private static final int RANGES_PER_THREAD = 4; // Ranges per thread, to even out the load.
+    private static final int PARTITION_BUILD_ROWS = 1 << 14; // Target build rows per join partition.
+    private static final int MAX_PARTITION_BITS = 10; // At most 1024 join partitions.
+    private static final int UNKNOWN_CODE = -2; // Dictionary code not translated yet.
+    private static final int INSERT_BATCH_ROWS = 1024; // Selected rows inserted at once.
+
+    private final int parallelism;
+    private final int parallelThreshold;
+    private final int sortBufferRows;
+    private final ForkJoinPool pool; // Null if parallelism is 1.
+    // Results of ascending sorts, mapped to the attributes they are sorted on.
+    private final Map<Relation, SortOrder> sortOrders = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Creates operators that run sequentially.
+     */
+    public RAimpl() {
+        this(1);
+    }
+
+    /**
+     * Creates operators that run on parallelism threads for inputs of at 
+     * least DEFAULT_PARALLEL_THRESHOLD rows.
+     * 
+     * @throws IllegalArgumentException if parallelism is less than 1.
+     */
+    public RAimpl(int parallelism) {
+        this(parallelism, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates operators that run on parallelism threads for inputs of at 
+     * least parallelThreshold rows.
+     * 
+     * @throws IllegalArgumentException if parallelism is less than 1 or 
+     * parallelThreshold is negative.
+     */
+    public RAimpl(int parallelism, int parallelThreshold) {
+        this(parallelism, parallelThreshold, DEFAULT_SORT_BUFFER_ROWS);
+    }
+
+    /**
+     * Creates operators that run on parallelism threads for inputs of at 
+     * least parallelThreshold rows, and that sort at most sortBufferRows 
+     * rows in memory before spilling sorted runs to temporary files.
+     * 
+     * @throws IllegalArgumentException if parallelism or sortBufferRows is 
+     * less than 1 or parallelThreshold is negative.
+     */
+    public RAimpl(int parallelism, int parallelThreshold, int sortBufferRows) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Parallel threshold can not be negative.");
+        }
+        if (sortBufferRows < 1) {
+            throw new IllegalArgumentException("Sort buffer must hold at least 1 row.");
+        }
+        this.parallelism = parallelism;
+        this.parallelThreshold = parallelThreshold;
+        this.sortBufferRows = sortBufferRows;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Returns the number of threads the operators run on.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the maximum number of rows sorted in memory.
+     */
+    public int getSortBufferRows() {
+        return sortBufferRows;
+    }
+
+    /**
+     * Returns the minimum number of rows, or row pairs for nested loop 
+     * joins, for which the operators run in parallel.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     /**
      * @inheritDoc
      */
     public Relation select(Relation rel, Predicate p) {
-        // Create a new relation similar to the way it was given
-        Relation newRel = new RelationBuilder()
-                .attributeNames(rel.getAttrs())
-                .attributeTypes(rel.getTypes())
-                .build();
+        // Check the rows of each range, inserting those that satisfy the predicate
+        return evaluateRanges(rel.getSize(), rel.getAttrs(), rel.getTypes(), (from, to, newRel) -> {
+            RowBatch batch = new RowBatch(rel, newRel);
+            for (int i = from; i < to; i++) {
+                if (p.check(rel.getRowView(i))) {
+                    batch.accept(i);
+                }
+            }
+            batch.flush();
+        });
+    }
 
-        // Iterate through each row of the given relation
-        for (int i = 0; i < rel.getSize(); i++) {
-            // Retrieve the row at current index
-            List<Cell> row = rel.getRow(i);
+    /**
+     * {@inheritDoc}
+     */
+    public Relation select(Relation rel, Condition c) {
+        // Resolve the attributes of the condition once for all rows
+        BoundCondition condition = c.bind(rel);
+
+        // Only check the rows an index finds, if one applies
+        int[] candidates = indexCandidates(rel, c);
+        if (candidates != null) {
+            return evaluateRanges(candidates.length, rel.getAttrs(), rel.getTypes(), (from, to, newRel) -> {
+                RowBatch batch = new RowBatch(rel, newRel);
+                for (int k = from; k < to; k++) {
+                    if (condition.test(rel, candidates[k])) {
+                        batch.accept(candidates[k]);
+                    }
+                }
+                batch.flush();
+            });
+        }
+
+        // Otherwise filter all rows, a batch at a time
+        return evaluateRanges(rel.getSize(), rel.getAttrs(), rel.getTypes(), (from, to, newRel) -> {
+            RowBatch batch = new RowBatch(rel, newRel);
+            condition.filter(rel, from, to, batch);
+            batch.flush();
+        });
+    } // select
 
-            // Check if the row satisfies the predicate
-            if (p.check(row)) {
-                // Insert the row into the new relation
-                newRel.insert(row);
+    /**
+     * Collects the numbers of selected rows of a source relation and 
+     * inserts them into a target relation with the same types 
+     * INSERT_BATCH_ROWS at a time, so the schema is checked once per 
+     * batch instead of once per row. Call flush once all rows are 
+     * accepted.
+     */
+    private static final class RowBatch implements IntConsumer {
+        private final Relation source;
+        private final Relation target;
+        private final int[] rows = new int[INSERT_BATCH_ROWS];
+        private int count;
+
+        RowBatch(Relation source, Relation target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public void accept(int row) {
+            rows[count++] = row;
+            if (count == rows.length) {
+                flush();
             }
         }
 
-        // Return the new relation containing the selected rows
-        return newRel;
+        void flush() {
+            target.insertAll(source, rows, count);
+            count = 0;
+        }
     }
 
+    /**
+     * Collects the row numbers of pairs of matching rows and inserts the 
+     * combined rows, as built by combineRows, into a target relation 
+     * INSERT_BATCH_ROWS at a time, so the schema is checked once per 
+     * batch and the combined rows are not built. Call flush once all 
+     * pairs are accepted.
+     */
+    private static final class PairBatch implements RowPairConsumer {
+        private final Relation rel1;
+        private final Relation rel2;
+        private final int[] appendIndex;
+        private final Relation target;
+        private final int[] rows1 = new int[INSERT_BATCH_ROWS];
+        private final int[] rows2 = new int[INSERT_BATCH_ROWS];
+        private int count;
+
+        PairBatch(Relation rel1, Relation rel2, int[] appendIndex, Relation target) {
+            this.rel1 = rel1;
+            this.rel2 = rel2;
+            this.appendIndex = appendIndex;
+            this.target = target;
+        }
+
+        @Override
+        public void accept(int i, int j) {
+            rows1[count] = i;
+            rows2[count++] = j;
+            if (count == rows1.length) {
+                flush();
+            }
+        }
+
+        void flush() {
+            target.insertJoined(rel1, rows1, rel2, rows2, appendIndex, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Evaluates the rows [from, to) of an input into a relation.
+     */
+    private interface RangeEvaluator {
+        void evaluate(int from, int to, Relation result);
+    }
+
+    /**
+     * Helper method to evaluate an operator over the rows [0, size) of its 
+     * input, looking at one input row per row.
+     * 
+     * @see #evaluateRanges(int, long, List, List, RangeEvaluator)
+     */
+    private Relation evaluateRanges(int size, List<String> attrs, List<Type> types,
+            RangeEvaluator evaluator) {
+        return evaluateRanges(size, size, attrs, types, evaluator);
+    } // evaluateRanges
+
+    /**
+     * Helper method to evaluate an operator over the rows [0, size) of its 
+     * input. Runs sequentially if work is below the parallel threshold. 
+     * Otherwise the rows are cut into ranges that are evaluated into 
+     * relations of their own on the pool, and these are appended to the 
+     * result in range order.
+     * 
+     * @param size      The number of rows to evaluate.
+     * @param work      The number of input rows or row pairs looked at.
+     * @param attrs     The attributes of the result.
+     * @param types     The types of the result.
+     * @param evaluator Inserts the result rows of a range.
+     * @return the result relation.
+     */
+    private Relation evaluateRanges(int size, long work, List<String> attrs, List<Type> types,
+            RangeEvaluator evaluator) {
+        RelationBuilder builder = new RelationBuilder()
+                .attributeNames(attrs)
+                .attributeTypes(types);
+        List<Relation> parts = mapRanges(size, work, (from, to) -> {
+            Relation part = builder.build();
+            evaluator.evaluate(from, to, part);
+            return part;
+        });
+        Relation result = parts.get(0);
+        for (int k = 1; k < parts.size(); k++) {
+            result.insertAll(parts.get(k));
+        }
+        return result;
+    } // evaluateRanges
+
+    /**
+     * Runs over the rows [from, to) of an input.
+     */
+    private interface RangeTask {
+        void run(int from, int to);
+    }
+
+    /**
+     * Helper method to run a task over the rows [0, size) of an input, 
+     * cut into ranges that run on the pool if work is above the parallel 
+     * threshold. Returns once all ranges are done.
+     * 
+     * @param size The number of rows.
+     * @param work The number of input rows or row pairs looked at.
+     * @param task The task, which must write to disjoint data for 
+     *             disjoint ranges.
+     */
+    private void forRanges(int size, long work, RangeTask task) {
+        mapRanges(size, work, (from, to) -> {
+            task.run(from, to);
+            return null;
+        });
+    } // forRanges
+
+    /**
+     * Computes a result from the rows [from, to) of an input.
+     */
+    private interface RangeFunction<T> {
+        T apply(int from, int to);
+    }
+
+    /**
+     * Helper method to compute a result for each range of the rows [0, size)
+     * of an input. There is a single range covering all rows if work is below
+     * the parallel threshold, otherwise the ranges are computed on the pool.
+     * 
+     * @param size     The number of rows.
+     * @param work     The number of input rows or row pairs looked at.
+     * @param function Computes the result of a range.
+     * @return the results of the ranges, in row order.
+     */
+    private <T> List<T> mapRanges(int size, long work, RangeFunction<T> function) {
+        List<T> results = new ArrayList<>();
+        if (!isParallel(size, work)) {
+            results.add(function.apply(0, size));
+            return results;
+        }
+        List<ForkJoinTask<T>> tasks = new ArrayList<>();
+        int rangeSize = rangeSize(size, work);
+        for (int from = 0; from < size; from += rangeSize) {
+            int start = from;
+            int end = Math.min(from + rangeSize, size);
+            tasks.add(pool.submit(() -> function.apply(start, end)));
+        }
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(await(task));
+        }
+        return results;
+    } // mapRanges
+
+    /**
+     * Helper method to decide whether an operator over size rows that 
+     * looks at work rows or row pairs runs in parallel.
+     */
+    private boolean isParallel(int size, long work) {
+        return pool != null && size >= 2 && work >= parallelThreshold;
+    } // isParallel
+
+    /**
+     * Helper method to compute the number of rows per range, so that every 
+     * thread gets several ranges of at least MIN_RANGE_SIZE rows or row pairs.
+     */
+    private int rangeSize(int size, long work) {
+        long ranges = Math.min(parallelism * RANGES_PER_THREAD, Math.max(2, work / MIN_RANGE_SIZE));
+        ranges = Math.min(ranges, size);
+        return (int) ((size + ranges - 1) / ranges);
+    } // rangeSize
+
+    /**
+     * Helper method to wait for a task and rethrow its failure as thrown 
+     * by the task.
+     */
+    private static <T> T await(ForkJoinTask<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // The pool may rethrow a copy of the exception that wraps the original.
+            if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating an operator.", e);
+        }
+    } // await
+
+    /**
+     * Helper method to find the rows of a relation that may satisfy a 
+     * condition with the index of the relation that narrows them down most.
+     * 
+     * @param rel The relation.
+     * @param c   The condition.
+     * @return the row numbers in ascending order, or null if no index applies.
+     */
+    static int[] indexCandidates(Relation rel, Condition c) {
+        int[] best = null;
+        for (Index index : rel.getIndexes()) {
+            int[] rows = index.candidates(c);
+            if (rows != null && (best == null || rows.length < best.length)) {
+                best = rows;
+            }
+        }
+        return best;
+    } // indexCandidates
+
     // union
     /**
      * {@inheritDoc}
+     * Duplicate rows are removed from the result.
      */
     public Relation union(Relation rel1, Relation rel2) {
-        List<List<Cell>> combinedRows = new ArrayList<>(rel1.getSize() + rel2.getSize());
-        combinedRows.addAll(getAllRows(rel1));
-        combinedRows.addAll(getAllRows(rel2));
-
-        List<Type> types = rel1.getTypes();
-        List<String> attributes = rel1.getAttrs();
+        checkCompatible(rel1, rel2);
 
-        RelationBuilder builder = new RelationBuilder();
-        Relation result = builder.attributeNames(attributes)
-                .attributeTypes(types)
+        Relation result = new RelationBuilder()
+                .attributeNames(rel1.getAttrs())
+                .attributeTypes(rel1.getTypes())
                 .build();
 
-        for (List<Cell> row : combinedRows) {
-            result.insert(row);
+        Set<RowKey> seen = new HashSet<>(rel1.getSize() + rel2.getSize());
+        for (Relation rel : List.of(rel1, rel2)) {
+            RowBatch batch = new RowBatch(rel, result);
+            for (int i = 0; i < rel.getSize(); i++) {
+                if (seen.add(RowKey.of(rel.getRowView(i)))) {
+                    batch.accept(i);
+                }
+            }
+            batch.flush();
         }
 
         return result; 
@@ -71,38 +457,60 @@ public class RAimpl implements RA {
     // diff
     /**
      * {@inheritDoc}
+     * Duplicate rows are removed from the result.
      */
     public Relation diff(Relation rel1, Relation rel2) {
-        List<List<Cell>> diffRows = new ArrayList<>(rel1.getSize());
-        for (List<Cell> row : getAllRows(rel1)) {
-            if (!containsRow(rel2, row)) {
-                diffRows.add(new ArrayList<>(row));
+        checkCompatible(rel1, rel2);
+
+        Relation result = new RelationBuilder()
+                .attributeNames(rel1.getAttrs())
+                .attributeTypes(rel1.getTypes())
+                .build();
+
+        // Rows of rel2 are marked as seen so they are never emitted.
+        Set<RowKey> seen = rowKeys(rel2);
+        RowBatch batch = new RowBatch(rel1, result);
+        for (int i = 0; i < rel1.getSize(); i++) {
+            if (seen.add(RowKey.of(rel1.getRowView(i)))) {
+                batch.accept(i);
             }
         }
+        batch.flush();
+
+        return result;
+    } // diff
 
-        List<Type> types = rel1.getTypes();
-        List<String> attributes = rel1.getAttrs();
+    // intersect
+    /**
+     * {@inheritDoc}
+     * Duplicate rows are removed from the result.
+     */
+    public Relation intersect(Relation rel1, Relation rel2) {
+        checkCompatible(rel1, rel2);
 
-        RelationBuilder builder = new RelationBuilder();
-        Relation result = builder.attributeNames(attributes)
-                .attributeTypes(types)
+        Relation result = new RelationBuilder()
+                .attributeNames(rel1.getAttrs())
+                .attributeTypes(rel1.getTypes())
                 .build();
 
-        for (List<Cell> row : diffRows) {
-            result.insert(row);
+        // Rows are removed from the set once emitted so each is emitted once.
+        Set<RowKey> remaining = rowKeys(rel2);
+        RowBatch batch = new RowBatch(rel1, result);
+        for (int i = 0; i < rel1.getSize(); i++) {
+            if (remaining.remove(RowKey.of(rel1.getRowView(i)))) {
+                batch.accept(i);
+            }
         }
+        batch.flush();
 
         return result;
-    } // diff
+    } // intersect
 
     /**
      * @inheritDoc
      */
     public Relation rename(Relation rel, List<String> origAttr, List<String> renamedAttr) {
 
-        // creates new empty relation to store results
-        Relation newRel = new RelationBuilder().build();
-
         // [CONDITION 1] checks if argument counts match, if not then throw
         // IllegalArgumentException
         if (origAttr.size() != renamedAttr.size()) {
@@ -111,68 +519,21 @@ public class RAimpl implements RA {
 
         // [CONDITION 2] checks if each attribute in origAttr is present in rel, if not
         // then throw IllegalArgumentException
-
-        List<String> relAttrs = rel.getAttrs();
-        List<Type> relTypes = rel.getTypes();
-        int matchingAttrsCount = 0;
-
-        // counts how many attributes from origAttr match with rel
-        for (int i = 0; i < relAttrs.size(); i++) {
-            for (int k = 0; k < origAttr.size(); k++) {
-                if (relAttrs.get(i).compareTo(origAttr.get(k)) == 0) {
-
-                    matchingAttrsCount++;
-                }
+        for (String attr : origAttr) {
+            if (!rel.hasAttr(attr)) {
+                throw new IllegalArgumentException("Not all attributes in origAttr are present in rel.\n");
             }
         }
 
-        if (matchingAttrsCount != relAttrs.size()) {
-            throw new IllegalArgumentException("Not all attributes in origAttr are present in rel.\n");
-
-        } else {
-            // [PASSED ALL CONDITIONS] if relation passes both exceptions above, then method
-            // will rename the attributes
-            // Get the original attributes and types
-
-            List<String> originalAttributes = rel.getAttrs();
-            List<Type> originalTypes = rel.getTypes();
-
-            // Create a new RelationBuilder instance
-            RelationBuilder builder = new RelationBuilder();
-
-            // Initialize lists to store renamed attributes and types
-            List<String> newAttrNames = new ArrayList<>();
-            List<Type> newAttrTypes = new ArrayList<>();
-
-            // Iterate over original attributes
-            for (int i = 0; i < originalAttributes.size(); i++) {
-                String originalAttr = originalAttributes.get(i);
-                Type originalType = originalTypes.get(i);
-
-                // If the attribute needs to be renamed
-                if (origAttr.contains(originalAttr)) {
-                    int index = origAttr.indexOf(originalAttr);
-                    // Add the renamed attribute and its type to the lists
-                    newAttrNames.add(renamedAttr.get(index));
-                    newAttrTypes.add(originalType);
-                } else {
-                    // Otherwise, keep the original attribute and its type
-                    newAttrNames.add(originalAttr);
-                    newAttrTypes.add(originalType);
-                }
-            }
-
-            // Set the new attribute names and types in the builder
-            builder.attributeNames(newAttrNames).attributeTypes(newAttrTypes);
-
-            // Build the new relation
-            newRel = builder.build();
-
-            // Print the new resulting relation
-            //newRel.print();
-
-            return newRel;
+        // [PASSED ALL CONDITIONS] compute the new attribute names, attributes that
+        // are not in origAttr keep their name
+        List<String> newAttrNames = rel.getAttrs();
+        for (int k = 0; k < origAttr.size(); k++) {
+            newAttrNames.set(rel.getAttrIndex(origAttr.get(k)), renamedAttr.get(k));
         }
+
+        // Only the schema changes, the new relation shares the rows of rel
+        return rel.renameAttrs(newAttrNames);
     }
 
     /**
@@ -207,35 +568,677 @@ public class RAimpl implements RA {
                 .attributeTypes(allTypes)
                 .build();
 
+        // Without common attributes the natural join degenerates to a
+        // cartesian product.
+        if (commonAttributes.isEmpty()) {
+            return nestedLoopProduct(rel1, rel2, allAttributes, allTypes);
+        }
+
+        // Use an existing index on the common attributes instead of building
+        // a hash table, preferably one of rel2 so rel1 can be probed in order
+        int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+        Index index = findJoinIndex(rel2, commonAttributes, rel1, commonAttributes);
+        boolean onRel2 = index != null;
+        if (index == null) {
+            index = findJoinIndex(rel1, commonAttributes, rel2, commonAttributes);
+        }
+        PairBatch out = new PairBatch(rel1, rel2, appendIndex, ret);
+        if (index != null) {
+            indexJoin(rel1, rel2, index, onRel2, attrIndexes(onRel2 ? rel1 : rel2, index.getAttrs()), out);
+            out.flush();
+            return ret;
+        }
+
+        // A single STRING attribute is joined on its dictionary codes.
+        if (commonAttributes.size() == 1
+                && rel1.getTypes().get(rel1.getAttrIndex(commonAttributes.get(0))) == Type.STRING
+                && rel2.getTypes().get(rel2.getAttrIndex(commonAttributes.get(0))) == Type.STRING) {
+            return dictionaryJoin(rel1, rel2, commonAttributes.get(0), allAttributes, allTypes);
+        }
+
+        // Inputs that sort returned sorted on the common attributes are 
+        // merged without a hash table, which gives the rows in nested loop
+        // order.
+        List<String> mergeKey = mergeKey(rel1, rel2, commonAttributes);
+        Type[] keyTypes = mergeKey == null ? null : mergeKeyTypes(rel1, rel2, mergeKey);
+        if (keyTypes != null) {
+            mergeJoin(rel1, attrIndexes(rel1, mergeKey), rel2, attrIndexes(rel2, mergeKey), keyTypes, out);
+            out.flush();
+            return ret;
+        }
+
+        if (isParallel(rel1.getSize(), (long) rel1.getSize() + rel2.getSize())) {
+            return partitionedHashJoin(rel1, rel2, commonAttributes, allAttributes, allTypes);
+        }
+        hashJoin(rel1, rel2, commonAttributes, allAttributes, ret);
+        return ret;
+    }
+
+    /**
+     * Helper method to combine every row of rel1 with every row of rel2, 
+     * in nested loop order. Each combined row is inserted into the result 
+     * once; ranges of rel1 rows run in parallel for large products.
+     * 
+     * @param rel1          The left relation.
+     * @param rel2          The right relation.
+     * @param allAttributes The attributes of the result, starting with the
+     *                      attributes of rel1.
+     * @param allTypes      The types of the result.
+     * @return the product relation.
+     */
+    private Relation nestedLoopProduct(Relation rel1, Relation rel2, List<String> allAttributes,
+            List<Type> allTypes) {
         int size1 = rel1.getSize();
         int size2 = rel2.getSize();
+        int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+        return evaluateRanges(size1, (long) size1 * size2, allAttributes, allTypes, (from, to, part) -> {
+            PairBatch out = new PairBatch(rel1, rel2, appendIndex, part);
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < size2; j++) {
+                    out.accept(i, j);
+                }
+            }
+            out.flush();
+        });
+    } // nestedLoopProduct
+
+    /**
+     * Receives the row numbers of matching rows from indexJoin.
+     */
+    private interface RowPairConsumer {
+        void accept(int i, int j);
+    }
+
+    /**
+     * Helper method to find an index of rel on exactly the given attributes
+     * that can look up the rows of other. A SORTED index compares numbers
+     * numerically, so it is only used for INTEGER and STRING attributes of
+     * the same type in both relations.
+     * 
+     * @param rel             The relation whose indexes are searched.
+     * @param attributes      The join attributes of rel.
+     * @param other           The relation whose rows would be looked up.
+     * @param otherAttributes The join attributes of other, matching attributes.
+     * @return the index, or null if there is none.
+     */
+    private static Index findJoinIndex(Relation rel, List<String> attributes, Relation other,
+            List<String> otherAttributes) {
+        for (Index index : rel.getIndexes()) {
+            List<String> indexAttrs = index.getAttrs();
+            if (indexAttrs.size() != attributes.size() || !indexAttrs.containsAll(attributes)) {
+                continue;
+            }
+            if (index.getType() == IndexType.HASH) {
+                return index;
+            }
+            Type type = rel.getTypes().get(rel.getAttrIndex(attributes.get(0)));
+            Type otherType = other.getTypes().get(other.getAttrIndex(otherAttributes.get(0)));
+            if (type == otherType && type != Type.DOUBLE) {
+                return index;
+            }
+        }
+        return null;
+    } // findJoinIndex
+
+    /**
+     * Index nested loop join: looks up the rows of one relation in an index 
+     * of the other. Matching pairs are passed on in the same order as a 
+     * nested loop over rel1 then rel2 would produce them.
+     * 
+     * @param rel1         The left relation.
+     * @param rel2         The right relation.
+     * @param index        The index, on rel2 if onRel2 and on rel1 otherwise.
+     * @param onRel2       Whether the index is on rel2.
+     * @param probeColumns The positions of the index attributes in the other relation.
+     * @param emit         Receives the row numbers of each matching pair.
+     */
+    private static void indexJoin(Relation rel1, Relation rel2, Index index, boolean onRel2,
+            int[] probeColumns, RowPairConsumer emit) {
+        if (onRel2) {
+            for (int i = 0; i < rel1.getSize(); i++) {
+                for (int j : index.lookup(keyCells(rel1.getRowView(i), probeColumns))) {
+                    emit.accept(i, j);
+                }
+            }
+            return;
+        }
+        // Collect the matches per rel1 row to emit them in rel1 order.
+        int size1 = rel1.getSize();
+        List<List<Integer>> matchesPerRow = new ArrayList<>(size1);
+        for (int i = 0; i < size1; i++) {
+            matchesPerRow.add(null);
+        }
+        for (int j = 0; j < rel2.getSize(); j++) {
+            for (int i : index.lookup(keyCells(rel2.getRowView(j), probeColumns))) {
+                if (matchesPerRow.get(i) == null) {
+                    matchesPerRow.set(i, new ArrayList<>());
+                }
+                matchesPerRow.get(i).add(j);
+            }
+        }
         for (int i = 0; i < size1; i++) {
+            if (matchesPerRow.get(i) != null) {
+                for (int j : matchesPerRow.get(i)) {
+                    emit.accept(i, j);
+                }
+            }
+        }
+    } // indexJoin
+
+    /**
+     * Helper method to find the types of the columns of rel1 if every common
+     * attribute has the same type in rel1 and rel2, so the relations can be 
+     * merge joined.
+     * 
+     * @return the types of all columns of rel1, or null if a common attribute
+     * has different types.
+     */
+    private static Type[] mergeKeyTypes(Relation rel1, Relation rel2, List<String> commonAttributes) {
+        List<Type> types1 = rel1.getTypes();
+        List<Type> types2 = rel2.getTypes();
+        for (String attribute : commonAttributes) {
+            if (types1.get(rel1.getAttrIndex(attribute)) != types2.get(rel2.getAttrIndex(attribute))) {
+                return null;
+            }
+        }
+        return types1.toArray(new Type[0]);
+    } // mergeKeyTypes
+
+    /**
+     * Helper method to find the order of the common attributes in which 
+     * both relations were returned sorted by sort, if they were and no rows
+     * were added to them since. The rows are not looked at.
+     * 
+     * @param rel1             The left relation.
+     * @param rel2             The right relation.
+     * @param commonAttributes The attributes shared by rel1 and rel2.
+     * @return the common attributes in sort order, or null if the relations
+     * are not known to be sorted on them in the same order.
+     */
+    private List<String> mergeKey(Relation rel1, Relation rel2, List<String> commonAttributes) {
+        List<String> key1 = sortedOn(rel1, commonAttributes.size());
+        List<String> key2 = sortedOn(rel2, commonAttributes.size());
+        if (key1 == null || !key1.equals(key2) || !new HashSet<>(key1).equals(new HashSet<>(commonAttributes))) {
+            return null;
+        }
+        return key1;
+    } // mergeKey
+
+    /**
+     * Helper method to look up the first length attributes a relation was
+     * sorted on in ascending order by sort.
+     * 
+     * @return the attributes, or null if rel was not returned by an 
+     * ascending sort on at least length attributes or rows were added to it
+     * since.
+     */
+    private List<String> sortedOn(Relation rel, int length) {
+        SortOrder order = sortOrders.get(rel);
+        if (order == null || order.version != rel.getVersion() || order.attrs.size() < length) {
+            return null;
+        }
+        return order.attrs.subList(0, length);
+    } // sortedOn
+
+    /**
+     * The attributes a result of sort is sorted on in ascending order, and
+     * its version when it was returned.
+     */
+    private static final class SortOrder {
+        private final List<String> attrs;
+        private final long version;
+
+        SortOrder(List<String> attrs, long version) {
+            this.attrs = attrs;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Merge join of two relations sorted in ascending order on their keys. 
+     * For each run of equal keys in both relations, every row of the rel1 
+     * run is paired with every row of the rel2 run, so pairs are passed on 
+     * in the same order as a nested loop over rel1 then rel2 would produce 
+     * them.
+     * 
+     * @param rel1      The left relation.
+     * @param keyIndex1 The column positions of the key in rel1.
+     * @param rel2      The right relation.
+     * @param keyIndex2 The column positions of the key in rel2.
+     * @param types     The types of the columns of rel1.
+     * @param emit      Receives the row numbers of each matching pair.
+     */
+    private static void mergeJoin(Relation rel1, int[] keyIndex1, Relation rel2, int[] keyIndex2,
+            Type[] types, RowPairConsumer emit) {
+        int size1 = rel1.getSize();
+        int size2 = rel2.getSize();
+        int i = 0;
+        int j = 0;
+        while (i < size1 && j < size2) {
+            int cmp = ExternalSort.compareRows(rel1, i, keyIndex1, rel2, j, keyIndex2, types);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                int end2 = j + 1;
+                while (end2 < size2
+                        && ExternalSort.compareRows(rel1, i, keyIndex1, rel2, end2, keyIndex2, types) == 0) {
+                    end2++;
+                }
+                do {
+                    for (int k = j; k < end2; k++) {
+                        emit.accept(i, k);
+                    }
+                    i++;
+                } while (i < size1
+                        && ExternalSort.compareRows(rel1, i, keyIndex1, rel2, j, keyIndex2, types) == 0);
+                j = end2;
+            }
+        }
+    } // mergeJoin
+
+    /**
+     * {@inheritDoc}
+     * The results of ascending sorts are remembered, so natural joins of 
+     * such results on their leading sort attributes are merge joined.
+     */
+    public Relation sort(Relation rel, List<String> attrs, boolean ascending) {
+        int[] columns = new int[attrs.size()];
+        for (int k = 0; k < columns.length; k++) {
+            if (!rel.hasAttr(attrs.get(k))) {
+                throw new IllegalArgumentException("Attribute " + attrs.get(k)
+                        + " is not present in the relation.");
+            }
+            columns[k] = rel.getAttrIndex(attrs.get(k));
+        }
+        Relation sorted = new ExternalSort(rel, columns, ascending, sortBufferRows).sort();
+        if (ascending) {
+            sortOrders.put(sorted, new SortOrder(List.copyOf(attrs), sorted.getVersion()));
+        }
+        return sorted;
+    } // sort
+
+    /**
+     * {@inheritDoc}
+     * Large inputs are aggregated in parallel ranges whose partial groups are 
+     * merged in row order, see HashAggregation.
+     */
+    public Relation groupBy(Relation rel, List<String> groupAttrs, List<Aggregate> aggregates) {
+        HashAggregation aggregation = new HashAggregation(rel, groupAttrs, aggregates);
+        List<HashAggregation.Groups> partials = mapRanges(rel.getSize(), rel.getSize(), aggregation::aggregate);
+        HashAggregation.Groups groups = partials.get(0);
+        for (int k = 1; k < partials.size(); k++) {
+            groups.merge(partials.get(k));
+        }
+        return aggregation.result(groups);
+    } // groupBy
+
+    /**
+     * Helper method to pick the cells of a row at the given positions.
+     */
+    private static List<Cell> keyCells(List<Cell> row, int[] columns) {
+        Cell[] cells = new Cell[columns.length];
+        for (int k = 0; k < columns.length; k++) {
+            cells[k] = row.get(columns[k]);
+        }
+        return Arrays.asList(cells);
+    } // keyCells
+
+    /**
+     * Hash join on the common attributes of rel1 and rel2. The hash table is
+     * built on the smaller relation and probed with the larger one. Rows are
+     * emitted in the same order as a nested loop over rel1 then rel2 would
+     * produce them.
+     * 
+     * @param rel1             The left relation.
+     * @param rel2             The right relation.
+     * @param commonAttributes The attributes shared by rel1 and rel2.
+     * @param allAttributes    The attributes of the result relation.
+     * @param ret              The relation the joined rows are inserted into.
+     */
+    private void hashJoin(Relation rel1, Relation rel2, List<String> commonAttributes,
+            List<String> allAttributes, Relation ret) {
+        int[] keyIndex1 = attrIndexes(rel1, commonAttributes);
+        int[] keyIndex2 = attrIndexes(rel2, commonAttributes);
+        int size1 = rel1.getSize();
+        int size2 = rel2.getSize();
+        int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+
+        // Look the row views up once instead of once per probe.
+        List<List<Cell>> rows1 = getAllRows(rel1);
+        List<List<Cell>> rows2 = getAllRows(rel2);
+        PairBatch out = new PairBatch(rel1, rel2, appendIndex, ret);
+
+        if (size2 <= size1) {
+            // Build on rel2 and probe in rel1 order, buckets keep rel2 order.
+            Map<RowKey, List<Integer>> table = buildHashTable(rows2, keyIndex2);
+            for (int i = 0; i < size1; i++) {
+                List<Integer> matches = table.get(RowKey.of(rows1.get(i), keyIndex1));
+                if (matches == null) {
+                    continue;
+                }
+                for (int j : matches) {
+                    out.accept(i, j);
+                }
+            }
+        } else {
+            // Build on rel1, probe with rel2 and collect the matches per rel1
+            // row so the output order is the same as when building on rel2.
+            Map<RowKey, List<Integer>> table = buildHashTable(rows1, keyIndex1);
+            List<List<Integer>> matchesPerRow = new ArrayList<>(size1);
+            for (int i = 0; i < size1; i++) {
+                matchesPerRow.add(null);
+            }
             for (int j = 0; j < size2; j++) {
-                boolean matches = true;
-                for (String attribute : commonAttributes) {
-                    Cell cell1 = rel1.getRow(i).get(rel1.getAttrIndex(attribute));
-                    Cell cell2 = rel2.getRow(j).get(rel2.getAttrIndex(attribute));
-                    if (!cell1.equals(cell2)) {
-                        matches = false;
-                        break;
+                List<Integer> matches = table.get(RowKey.of(rows2.get(j), keyIndex2));
+                if (matches == null) {
+                    continue;
+                }
+                for (int i : matches) {
+                    if (matchesPerRow.get(i) == null) {
+                        matchesPerRow.set(i, new ArrayList<>());
                     }
+                    matchesPerRow.get(i).add(j);
                 }
+            }
+            for (int i = 0; i < size1; i++) {
+                if (matchesPerRow.get(i) == null) {
+                    continue;
+                }
+                for (int j : matchesPerRow.get(i)) {
+                    out.accept(i, j);
+                }
+            }
+        }
+        out.flush();
+    } // hashJoin
+
+    /**
+     * Join on a single STRING attribute that compares dictionary codes
+     * instead of strings. The rows of rel2 are chained per code of rel2,
+     * in row order, which takes two int arrays instead of a hash table.
+     * The codes of rel1 are translated into codes of rel2 the first time
+     * they are seen, so each distinct value of rel1 is looked up once.
+     * rel1 is probed in ranges on the pool, and the rows are emitted in
+     * the same order as a nested loop over rel1 then rel2 would produce.
+     * 
+     * @param rel1          The left relation.
+     * @param rel2          The right relation.
+     * @param attribute     The STRING attribute shared by rel1 and rel2.
+     * @param allAttributes The attributes of the result relation.
+     * @param allTypes      The types of the result relation.
+     * @return the joined relation.
+     */
+    private Relation dictionaryJoin(Relation rel1, Relation rel2, String attribute,
+            List<String> allAttributes, List<Type> allTypes) {
+        int key1 = rel1.getAttrIndex(attribute);
+        int key2 = rel2.getAttrIndex(attribute);
+        int size1 = rel1.getSize();
+        int size2 = rel2.getSize();
+        int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+
+        // first[code] is the first rel2 row with the code and next[j] the
+        // row after j with the same code, or -1.
+        int[] first = new int[rel2.getStringDictionary(key2).size()];
+        Arrays.fill(first, -1);
+        int[] next = new int[size2];
+        for (int j = size2 - 1; j >= 0; j--) {
+            int code = rel2.getStringCode(j, key2);
+            next[j] = first[code];
+            first[code] = j;
+        }
 
-                if (matches) {
-                    List<Cell> newRow = new ArrayList<>();
-                    for (String attribute : allAttributes) {
-                        if (rel1.hasAttr(attribute)) {
-                            newRow.add(rel1.getRow(i).get(rel1.getAttrIndex(attribute)));
-                        } else if (rel2.hasAttr(attribute)) {
-                            newRow.add(rel2.getRow(j).get(rel2.getAttrIndex(attribute)));
+        // Code in rel2 of each code of rel1, -1 if rel2 does not hold the
+        // value and UNKNOWN_CODE if not translated yet. Ranges may translate
+        // a code at the same time, which writes the same value.
+        List<String> dictionary1 = rel1.getStringDictionary(key1);
+        int[] translated = new int[dictionary1.size()];
+        Arrays.fill(translated, UNKNOWN_CODE);
+
+        return evaluateRanges(size1, (long) size1 + size2, allAttributes, allTypes, (from, to, part) -> {
+            PairBatch out = new PairBatch(rel1, rel2, appendIndex, part);
+            for (int i = from; i < to; i++) {
+                int code1 = rel1.getStringCode(i, key1);
+                int code = translated[code1];
+                if (code == UNKNOWN_CODE) {
+                    code = rel2.findStringCode(key2, dictionary1.get(code1));
+                    translated[code1] = code;
+                }
+                if (code < 0 || code >= first.length) {
+                    continue;
+                }
+                for (int j = first[code]; j >= 0; j = next[j]) {
+                    out.accept(i, j);
+                }
+            }
+            out.flush();
+        });
+    } // dictionaryJoin
+
+    /**
+     * Growable list of row numbers.
+     */
+    private static final class RowList {
+        int[] rows = new int[1];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+
+    /**
+     * Radix partitioned hash join on the common attributes of rel1 and rel2,
+     * run on the pool. The join keys of both relations are hashed in 
+     * parallel and the rows are partitioned on the high bits of the hash, 
+     * so that rows with equal keys land in the same partition. Each 
+     * partition pair is then joined on its own thread, building a hash 
+     * table on the smaller relation's rows of the partition, which keeps 
+     * the tables small. The matches are recorded per rel1 row and the 
+     * result rows are emitted in parallel ranges of rel1, so the result is 
+     * the same as that of hashJoin.
+     * 
+     * @param rel1             The left relation.
+     * @param rel2             The right relation.
+     * @param commonAttributes The attributes shared by rel1 and rel2.
+     * @param allAttributes    The attributes of the result relation.
+     * @param allTypes         The types of the result relation.
+     * @return the joined relation.
+     */
+    private Relation partitionedHashJoin(Relation rel1, Relation rel2, List<String> commonAttributes,
+            List<String> allAttributes, List<Type> allTypes) {
+        int[] keyIndex1 = attrIndexes(rel1, commonAttributes);
+        int[] keyIndex2 = attrIndexes(rel2, commonAttributes);
+        int size1 = rel1.getSize();
+        int size2 = rel2.getSize();
+        int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+        boolean buildOnRel2 = size2 <= size1;
+
+        // Enough partitions to give every thread several, each with a small
+        // hash table.
+        int buildSize = Math.min(size1, size2);
+        int target = Math.max(parallelism * RANGES_PER_THREAD, buildSize / PARTITION_BUILD_ROWS);
+        int bits = Math.min(MAX_PARTITION_BITS, 32 - Integer.numberOfLeadingZeros(Math.max(target - 1, 1)));
+        int partitions = 1 << bits;
+
+        // Hash the keys of both relations.
+        RowKey[] keys1 = new RowKey[size1];
+        RowKey[] keys2 = new RowKey[size2];
+        forRanges(size1, size1, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                keys1[i] = RowKey.of(rel1.getRowView(i), keyIndex1);
+            }
+        });
+        forRanges(size2, size2, (from, to) -> {
+            for (int j = from; j < to; j++) {
+                keys2[j] = RowKey.of(rel2.getRowView(j), keyIndex2);
+            }
+        });
+
+        // Group the row numbers by partition, keeping row order within each.
+        int[] start1 = new int[partitions + 1];
+        int[] start2 = new int[partitions + 1];
+        int[] rows1 = partition(keys1, bits, start1);
+        int[] rows2 = partition(keys2, bits, start2);
+
+        // Join the partition pairs. Each rel1 row is in exactly one partition,
+        // so the tasks write to disjoint entries of matches.
+        RowList[] matches = new RowList[size1];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            int from1 = start1[p];
+            int to1 = start1[p + 1];
+            int from2 = start2[p];
+            int to2 = start2[p + 1];
+            if (from1 == to1 || from2 == to2) {
+                continue;
+            }
+            tasks.add(pool.submit(() -> {
+                if (buildOnRel2) {
+                    // Buckets hold rel2 rows in order and are shared by the
+                    // matching rel1 rows.
+                    Map<RowKey, RowList> table = new HashMap<>();
+                    for (int k = from2; k < to2; k++) {
+                        table.computeIfAbsent(keys2[rows2[k]], key -> new RowList()).add(rows2[k]);
+                    }
+                    for (int k = from1; k < to1; k++) {
+                        matches[rows1[k]] = table.get(keys1[rows1[k]]);
+                    }
+                } else {
+                    Map<RowKey, RowList> table = new HashMap<>();
+                    for (int k = from1; k < to1; k++) {
+                        table.computeIfAbsent(keys1[rows1[k]], key -> new RowList()).add(rows1[k]);
+                    }
+                    for (int k = from2; k < to2; k++) {
+                        RowList bucket = table.get(keys2[rows2[k]]);
+                        if (bucket == null) {
+                            continue;
+                        }
+                        for (int b = 0; b < bucket.size; b++) {
+                            int i = bucket.rows[b];
+                            if (matches[i] == null) {
+                                matches[i] = new RowList();
+                            }
+                            matches[i].add(rows2[k]);
                         }
                     }
-                    ret.insert(newRow);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            await(task);
+        }
+
+        return evaluateRanges(size1, (long) size1 + size2, allAttributes, allTypes, (from, to, part) -> {
+            PairBatch out = new PairBatch(rel1, rel2, appendIndex, part);
+            for (int i = from; i < to; i++) {
+                RowList rowMatches = matches[i];
+                if (rowMatches == null) {
+                    continue;
+                }
+                for (int m = 0; m < rowMatches.size; m++) {
+                    out.accept(i, rowMatches.rows[m]);
                 }
             }
+            out.flush();
+        });
+    } // partitionedHashJoin
+
+    /**
+     * Helper method to sort row numbers by partition, the partition of a row
+     * being the high bits of its spread key hash.
+     * 
+     * @param keys   The key of each row.
+     * @param bits   The number of partition bits.
+     * @param starts Receives the start of each partition in the result, 
+     *               followed by the number of rows.
+     * @return the row numbers grouped by partition, ascending within each.
+     */
+    private static int[] partition(RowKey[] keys, int bits, int[] starts) {
+        int[] partitionOf = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            partitionOf[i] = bits == 0 ? 0 : (keys[i].hashCode() * 0x9E3779B9) >>> (32 - bits);
+            starts[partitionOf[i] + 1]++;
         }
-        return ret;
-    }
+        for (int p = 1; p < starts.length; p++) {
+            starts[p] += starts[p - 1];
+        }
+        int[] next = Arrays.copyOf(starts, starts.length - 1);
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rows[next[partitionOf[i]]++] = i;
+        }
+        return rows;
+    } // partition
+
+    /**
+     * Builds a hash table from join key to the positions of the rows with
+     * that key, in row order.
+     * 
+     * @param rows     The rows to index.
+     * @param keyIndex The column positions of the join key.
+     * @return the hash table.
+     */
+    private static Map<RowKey, List<Integer>> buildHashTable(List<List<Cell>> rows, int[] keyIndex) {
+        Map<RowKey, List<Integer>> table = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            table.computeIfAbsent(RowKey.of(rows.get(i), keyIndex), k -> new ArrayList<>()).add(i);
+        }
+        return table;
+    } // buildHashTable
+
+    /**
+     * Resolves the positions of the given attributes in a relation.
+     * 
+     * @param relation   The relation.
+     * @param attributes The attributes to look up.
+     * @return the column positions of the attributes.
+     */
+    private static int[] attrIndexes(Relation relation, List<String> attributes) {
+        int[] indexes = new int[attributes.size()];
+        for (int k = 0; k < indexes.length; k++) {
+            indexes[k] = relation.getAttrIndex(attributes.get(k));
+        }
+        return indexes;
+    } // attrIndexes
+
+    /**
+     * Combines a row of the left relation with a row of the right relation.
+     * The left row is kept as is and the cells of the right row at the given
+     * positions are appended.
+     * 
+     * @param row1        The left row.
+     * @param row2        The right row.
+     * @param appendIndex The positions of the right row cells to append.
+     * @return the combined row.
+     */
+    static List<Cell> combineRows(List<Cell> row1, List<Cell> row2, int[] appendIndex) {
+        List<Cell> newRow = new ArrayList<>(row1.size() + appendIndex.length);
+        newRow.addAll(row1);
+        for (int index : appendIndex) {
+            newRow.add(row2.get(index));
+        }
+        return newRow;
+    } // combineRows
+
+    /**
+     * Resolves the positions in rel2 of the result attributes that come
+     * after the attributes of rel1.
+     * 
+     * @param rel1          The left relation.
+     * @param rel2          The right relation.
+     * @param allAttributes The attributes of the result relation, starting 
+     *                      with the attributes of rel1.
+     * @return the column positions in rel2.
+     */
+    private static int[] appendedAttrIndexes(Relation rel1, Relation rel2, List<String> allAttributes) {
+        int width1 = rel1.getAttrs().size();
+        return attrIndexes(rel2, allAttributes.subList(width1, allAttributes.size()));
+    } // appendedAttrIndexes
 
     /**
      * @inheritDoc
@@ -261,30 +1264,87 @@ public class RAimpl implements RA {
             }
         }
 
-        Relation ret = new RelationBuilder()
-                .attributeNames(allAttributes)
-                .attributeTypes(allTypes)
-                .build();
-
+        // The rows of rel1 are cut into ranges that run in parallel, see
+        // evaluateRanges
         int size1 = rel1.getSize();
         int size2 = rel2.getSize();
-        for (int i = 0; i < size1; i++) {
-            for (int j = 0; j < size2; j++) {
-                List<Cell> combined = new ArrayList<>();
-                for (String attribute : allAttributes) {
-                    if (rel1.hasAttr(attribute)) {
-                        combined.add(rel1.getRow(i).get(rel1.getAttrIndex(attribute)));
-                    } else if (rel2.hasAttr(attribute)) {
-                        combined.add(rel2.getRow(j).get(rel2.getAttrIndex(attribute)));
+        int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+        return evaluateRanges(size1, (long) size1 * size2, allAttributes, allTypes, (from, to, ret) -> {
+            PairBatch out = new PairBatch(rel1, rel2, appendIndex, ret);
+            for (int i = from; i < to; i++) {
+                List<Cell> row1 = rel1.getRowView(i);
+                for (int j = 0; j < size2; j++) {
+                    List<Cell> combined = combineRows(row1, rel2.getRowView(j), appendIndex);
+
+                    if (predicate.check(combined)) {
+                        out.accept(i, j);
                     }
                 }
+            }
+            out.flush();
+        });
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public Relation join(Relation rel1, Relation rel2, Condition c) {
+        if (haveCommonAttributes(rel1, rel2)) {
+            throw new IllegalArgumentException("Relations have common attributes.");
+        }
 
-                if (predicate.check(combined)) {
-                    ret.insert(combined);
+        List<String> allAttributes = new ArrayList<>(rel1.getAttrs());
+        allAttributes.addAll(rel2.getAttrs());
+        List<Type> allTypes = new ArrayList<>(rel1.getTypes());
+        allTypes.addAll(rel2.getTypes());
+        BoundCondition condition = c.bind(allAttributes, allTypes);
+
+        // An equality between an attribute of each relation can be looked up
+        // in an index on either attribute
+        for (Condition conjunct : c.conjuncts()) {
+            List<String> pair = conjunct.getEquatedAttrs();
+            if (pair == null) {
+                continue;
+            }
+            for (int k = 0; k < 2; k++) {
+                String attr1 = pair.get(k);
+                String attr2 = pair.get(1 - k);
+                if (!rel1.hasAttr(attr1) || !rel2.hasAttr(attr2)) {
+                    continue;
+                }
+                // Indexes compare like Cell.equals, which only agrees with the
+                // condition for equal INTEGER or STRING types
+                Type type = allTypes.get(allAttributes.indexOf(attr1));
+                if (type == Type.DOUBLE || type != allTypes.get(allAttributes.indexOf(attr2))) {
+                    continue;
+                }
+                Relation ret = new RelationBuilder()
+                        .attributeNames(allAttributes)
+                        .attributeTypes(allTypes)
+                        .build();
+                int[] appendIndex = appendedAttrIndexes(rel1, rel2, allAttributes);
+                PairBatch out = new PairBatch(rel1, rel2, appendIndex, ret);
+                RowPairConsumer emit = (i, j) -> {
+                    List<Cell> combined = combineRows(rel1.getRowView(i), rel2.getRowView(j), appendIndex);
+                    if (condition.check(combined)) {
+                        out.accept(i, j);
+                    }
+                };
+                Index index = findJoinIndex(rel2, List.of(attr2), rel1, List.of(attr1));
+                if (index != null) {
+                    indexJoin(rel1, rel2, index, true, new int[] {rel1.getAttrIndex(attr1)}, emit);
+                    out.flush();
+                    return ret;
+                }
+                index = findJoinIndex(rel1, List.of(attr1), rel2, List.of(attr2));
+                if (index != null) {
+                    indexJoin(rel1, rel2, index, false, new int[] {rel2.getAttrIndex(attr2)}, emit);
+                    out.flush();
+                    return ret;
                 }
             }
         }
-        return ret;
+        return join(rel1, rel2, condition);
     }
 
     /**
@@ -296,33 +1356,44 @@ public class RAimpl implements RA {
     private List<List<Cell>> getAllRows(Relation relation) {
         List<List<Cell>> rows = new ArrayList<>();
         for (int i = 0; i < relation.getSize(); i++) {
-            rows.add(relation.getRow(i));
+            rows.add(relation.getRowView(i));
         }
         return rows;
     } // getAllRows
 
     /**
-     * Helper method to check if a relation contains a specific row.
+     * Helper method to build the set of row keys of a relation.
      * 
-     * @param relation The input relation to check.
-     * @param row      The given row to check against the relation.
-     * @return true or false depending on if the relation contains the row.
+     * @param relation The input relation.
+     * @return the keys of all rows in the relation.
      */
-    private boolean containsRow(Relation relation, List<Cell> row) {
+    private static Set<RowKey> rowKeys(Relation relation) {
+        Set<RowKey> keys = new HashSet<>(relation.getSize() * 2);
         for (int i = 0; i < relation.getSize(); i++) {
-            if (relation.getRow(i).equals(row)) {
-                return true;
-            }
+            keys.add(RowKey.of(relation.getRowView(i)));
         }
-        return false;
-    } // containsRow
+        return keys;
+    } // rowKeys
+
+    /**
+     * Checks whether rel1 and rel2 are compatible for set operations,
+     * that is whether their attributes have the same types.
+     * 
+     * @param rel1 The first relation.
+     * @param rel2 The second relation.
+     * 
+     * @throws IllegalArgumentException if rel1 and rel2 are not compatible.
+     */
+    private static void checkCompatible(Relation rel1, Relation rel2) {
+        if (!rel1.getTypes().equals(rel2.getTypes())) {
+            throw new IllegalArgumentException("Relations are not compatible.");
+        }
+    } // checkCompatible
 
     /**
      * @inheritDoc
      */
     public Relation cartesianProduct(Relation rel1, Relation rel2) {
-        List<List<Cell>> resultRows = new ArrayList<>();
-
         // Check if rel1 and rel2 have common attributes
         if (haveCommonAttributes(rel1, rel2)) {
             throw new IllegalArgumentException("Relations have common attributes.");
@@ -331,46 +1402,12 @@ public class RAimpl implements RA {
         List<String> newAttributes = new ArrayList<>(rel1.getAttrs());
         newAttributes.addAll(rel2.getAttrs());
 
-        // Expand the schema size to the product of rel1 attributes times rel2
-        // attributes
-        int newSchemaSize = newAttributes.size();
-
         List<Type> newTypes = new ArrayList<>(rel1.getTypes());
         newTypes.addAll(rel2.getTypes());
 
-        // Create a new relation using RelationBuilder
-        RelationBuilder builder = new RelationBuilder()
-                .attributeNames(newAttributes)
-                .attributeTypes(newTypes);
-
-        Relation newRelation = builder.build();
-
-        for (int i = 0; i < rel1.getSize(); i++) {
-            List<Cell> row1 = rel1.getRow(i);
-
-            for (int j = 0; j < rel2.getSize(); j++) {
-                List<Cell> row2 = rel2.getRow(j);
-
-                List<Cell> combinedRow = new ArrayList<>(row1);
-                combinedRow.addAll(row2);
-
-                // Ensure that the combined row size matches the new schema size
-                if (combinedRow.size() != newSchemaSize) {
-                    throw new IllegalArgumentException("Row size does not match the relation schema.");
-                }
-
-                resultRows.add(combinedRow);
-            }
-        }
-
-        // Insert the rows into the new relation
-        for (List<Cell> resultRow : resultRows) {
-            newRelation.insert(resultRow);
-        }
-
-        newRelation.print(); // Print the new resulting relation
-
-        return newRelation;
+        // Rows are written straight into the result; use a LazyRA plan to
+        // consume the product without materializing it
+        return nestedLoopProduct(rel1, rel2, newAttributes, newTypes);
     }// cartesianProduct
 
     /**
@@ -397,44 +1434,20 @@ public class RAimpl implements RA {
      * @inheritDoc
      */
     public Relation project(Relation rel, List<String> attrs) {
-        // creates new empty relation to store results
-        RelationBuilder newRelBuilder = new RelationBuilder();
-        newRelBuilder.attributeNames(attrs);
-
-        List<Type> filteredTypes = attrs.stream()
-                .map(attr -> rel.getTypes().get(rel.getAttrs().indexOf(attr)))
-                .collect(Collectors.toList());
-
-        newRelBuilder.attributeTypes(filteredTypes);
-
-        Relation newRel = newRelBuilder.build();
-
-        // iterate through each row of the given relation
-        for (int i = 0; i < rel.getSize(); i++) {
-            List<Cell> originalRow = rel.getRow(i);
-
-            // create a new row with only the specified attributes
-            List<Cell> projectedRow = new ArrayList<>();
+        return project(rel, attrs, false);
+    } // project
 
-            for (String attribute : attrs) {
-                int index = rel.getAttrs().indexOf(attribute);
-
-                if (index != -1 && index < originalRow.size()) {
-                    projectedRow.add(originalRow.get(index));
-                } else {
-                    System.err.println("Attribute '" + attribute + " ' not found in the original relation.");
-                }
-
-            }
-
-            // insert the projected row into the new relation
-            newRel.insert(projectedRow);
+    /**
+     * @inheritDoc
+     * Without distinct, the result shares the columns of rel instead of 
+     * copying the rows. With distinct, the rows are grouped on attrs in 
+     * a single pass over rel, comparing the typed values of the columns.
+     */
+    public Relation project(Relation rel, List<String> attrs, boolean distinct) {
+        if (distinct) {
+            return groupBy(rel, attrs, List.of());
         }
-
-        // print the new resulting relation
-        //newRel.print();
-
-        return newRel;
-    }
+        return rel.projectAttrs(attrs);
+    } // project
 
 }
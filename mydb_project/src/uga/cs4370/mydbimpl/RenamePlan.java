@@ -0,0 +1,66 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import uga.cs4370.mydb.Cell;
+
+/**
+ * Renames attributes of its input. Only the schema changes, the rows 
+ * are passed on as they are.
+ */
+final class RenamePlan extends AbstractPlan {
+
+    final AbstractPlan input;
+    final List<String> origAttr;
+    final List<String> renamedAttr;
+
+    RenamePlan(AbstractPlan input, List<String> origAttr, List<String> renamedAttr) {
+        super(renamedAttrs(input, origAttr, renamedAttr), input.types);
+        this.input = input;
+        this.origAttr = List.copyOf(origAttr);
+        this.renamedAttr = List.copyOf(renamedAttr);
+    }
+
+    private static List<String> renamedAttrs(AbstractPlan input, List<String> origAttr,
+            List<String> renamedAttr) {
+        if (origAttr.size() != renamedAttr.size()) {
+            throw new IllegalArgumentException("Argument counts do not match.");
+        }
+        List<String> attrs = new ArrayList<>(input.attrs);
+        for (int i = 0; i < origAttr.size(); i++) {
+            attrs.set(input.attrIndex(origAttr.get(i)), renamedAttr.get(i));
+        }
+        if (new HashSet<>(attrs).size() != attrs.size()) {
+            throw new IllegalArgumentException("Attribute names are not unique.");
+        }
+        return attrs;
+    }
+
+    @Override
+    List<AbstractPlan> inputs() {
+        return List.of(input);
+    }
+
+    @Override
+    String describe() {
+        StringBuilder sb = new StringBuilder("Rename [");
+        for (int i = 0; i < origAttr.size(); i++) {
+            sb.append(i > 0 ? ", " : "").append(origAttr.get(i)).append(" -> ").append(renamedAttr.get(i));
+        }
+        return sb.append("]").toString();
+    }
+
+    @Override
+    double estimatedRows() {
+        return input.estimatedRows();
+    }
+
+    @Override
+    public Iterator<List<Cell>> iterator() {
+        return input.iterator();
+    }
+
+}
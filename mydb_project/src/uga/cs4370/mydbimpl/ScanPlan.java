@@ -0,0 +1,57 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Relation;
+
+/**
+ * Leaf of a plan, produces the rows of a relation without copying them.
+ */
+final class ScanPlan extends AbstractPlan {
+
+    final Relation relation;
+
+    ScanPlan(Relation relation) {
+        super(relation.getAttrs(), relation.getTypes());
+        this.relation = relation;
+    }
+
+    @Override
+    List<AbstractPlan> inputs() {
+        return List.of();
+    }
+
+    @Override
+    String describe() {
+        return "Scan " + attrs;
+    }
+
+    @Override
+    double estimatedRows() {
+        return relation.getSize();
+    }
+
+    @Override
+    public Iterator<List<Cell>> iterator() {
+        return new Iterator<List<Cell>>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < relation.getSize();
+            }
+
+            @Override
+            public List<Cell> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return relation.getRowView(next++);
+            }
+        };
+    }
+
+}
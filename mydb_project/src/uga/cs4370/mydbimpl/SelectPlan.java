@@ -0,0 +1,123 @@
+package uga.cs4370.mydbimpl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import uga.cs4370.mydb.BoundCondition;
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.Relation;
+
+/**
+ * Passes on the rows of its input that satisfy a predicate.
+ */
+final class SelectPlan extends AbstractPlan {
+
+    final AbstractPlan input;
+    final Predicate predicate;
+    final Condition condition; // The condition predicate was bound from, or null.
+
+    SelectPlan(AbstractPlan input, Predicate predicate) {
+        super(input.attrs, input.types);
+        this.input = input;
+        this.predicate = predicate;
+        this.condition = null;
+    }
+
+    SelectPlan(AbstractPlan input, Condition condition) {
+        super(input.attrs, input.types);
+        this.input = input;
+        this.predicate = condition.bind(input.attrs, input.types);
+        this.condition = condition;
+    }
+
+    @Override
+    List<AbstractPlan> inputs() {
+        return List.of(input);
+    }
+
+    @Override
+    String describe() {
+        return "Select " + (condition != null ? condition : "<predicate>");
+    }
+
+    @Override
+    double estimatedRows() {
+        double selectivity = condition != null ? condition.estimateSelectivity() : PREDICATE_SELECTIVITY;
+        return input.estimatedRows() * selectivity;
+    }
+
+    @Override
+    public Iterator<List<Cell>> iterator() {
+        if (input instanceof ScanPlan && condition != null) {
+            Relation relation = ((ScanPlan) input).relation;
+            return scanIterator(relation, (BoundCondition) predicate, RAimpl.indexCandidates(relation, condition));
+        }
+        Iterator<List<Cell>> rows = input.iterator();
+        return new Iterator<List<Cell>>() {
+            private List<Cell> next; // Next matching row, or null if not found yet.
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && rows.hasNext()) {
+                    List<Cell> row = rows.next();
+                    if (predicate.check(row)) {
+                        next = row;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public List<Cell> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Cell> row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Selects directly from a scanned relation. The condition reads the
+     * typed values, a row view is only created for matching rows. If an
+     * index of the relation applies, only the rows it finds are tested.
+     * 
+     * @param candidates The rows found by an index, or null to test all rows.
+     */
+    private static Iterator<List<Cell>> scanIterator(Relation relation, BoundCondition condition,
+            int[] candidates) {
+        return new Iterator<List<Cell>>() {
+            private int k; // Next row, or position in candidates, to test.
+            private int next = -1; // Next matching row, or -1 if not found yet.
+
+            @Override
+            public boolean hasNext() {
+                int end = candidates != null ? candidates.length : relation.getSize();
+                while (next < 0 && k < end) {
+                    int i = candidates != null ? candidates[k] : k;
+                    if (condition.test(relation, i)) {
+                        next = i;
+                    }
+                    k++;
+                }
+                return next >= 0;
+            }
+
+            @Override
+            public List<Cell> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Cell> row = relation.getRowView(next);
+                next = -1;
+                return row;
+            }
+        };
+    }
+
+}
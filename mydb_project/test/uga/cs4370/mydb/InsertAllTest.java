@@ -0,0 +1,102 @@
+package uga.cs4370.mydb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class InsertAllTest {
+
+    private static Relation relation(Storage storage, int from, int to) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(List.of("id", "name", "score"))
+                .attributeTypes(List.of(Type.INTEGER, Type.STRING, Type.DOUBLE))
+                .storage(storage)
+                .build();
+        for (int i = from; i < to; ++i) {
+            rel.insert(List.of(Cell.val(i), Cell.val("n" + i % 3), Cell.val(i / 2.0)));
+        }
+        return rel;
+    }
+
+    private static List<List<Cell>> rows(Relation rel) {
+        List<List<Cell>> rows = new ArrayList<>();
+        for (int i = 0; i < rel.getSize(); ++i) {
+            rows.add(rel.getRow(i));
+        }
+        return rows;
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void fromEachLayout(Storage storage) {
+        for (Storage other : Storage.values()) {
+            Relation rel = relation(storage, 0, 5);
+            Relation source = relation(other, 5, 12);
+            List<List<Cell>> expected = rows(relation(storage, 0, 12));
+
+            rel.insertAll(source);
+
+            assertEquals(expected, rows(rel));
+            assertEquals(7, source.getSize());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void fromItself(Storage storage) {
+        Relation rel = relation(storage, 0, 5);
+        List<List<Cell>> expected = rows(rel);
+        expected.addAll(rows(rel));
+
+        rel.insertAll(rel);
+
+        assertEquals(expected, rows(rel));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void fromAndIntoViews(Storage storage) {
+        Relation base = relation(storage, 0, 5);
+        Relation view = base.renameAttrs(List.of("a", "b", "c"));
+
+        view.insertAll(base.renameAttrs(List.of("x", "y", "z")));
+        view.insertAll(view);
+
+        assertEquals(5, base.getSize());
+        assertEquals(20, view.getSize());
+        assertEquals(rows(base), rows(view).subList(15, 20));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void updatesIndexes(Storage storage) {
+        Relation rel = relation(storage, 0, 5);
+        Index index = rel.createIndex("id", List.of("id"), IndexType.HASH);
+
+        rel.insertAll(relation(storage, 3, 8));
+
+        assertArrayEquals(new int[] {3, 5}, index.lookup(List.of(Cell.val(3))));
+        assertArrayEquals(new int[] {9}, index.lookup(List.of(Cell.val(7))));
+    }
+
+    @Test
+    void rejectsOtherTypes() {
+        Relation rel = relation(Storage.ROW, 0, 5);
+        Relation other = new RelationBuilder()
+                .attributeNames(List.of("id", "name", "score"))
+                .attributeTypes(List.of(Type.INTEGER, Type.STRING, Type.INTEGER))
+                .build();
+        other.insert(List.of(Cell.val(1), Cell.val("a"), Cell.val(2)));
+
+        assertThrows(IllegalArgumentException.class, () -> rel.insertAll(other));
+        assertEquals(5, rel.getSize());
+    }
+
+}
@@ -0,0 +1,198 @@
+package uga.cs4370.mydb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class RelationFileTest {
+
+    private static final List<String> ATTRS = List.of("id", "name", "salary");
+    private static final List<Type> TYPES = List.of(Type.INTEGER, Type.STRING, Type.DOUBLE);
+
+    @TempDir
+    Path dir;
+
+    private static Relation relation(Storage storage, int rows) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(ATTRS)
+                .attributeTypes(TYPES)
+                .storage(storage)
+                .build();
+        for (int i = 0; i < rows; ++i) {
+            // Repeated names share dictionary codes, one is not ASCII.
+            String name = i % 7 == 0 ? "Zoë" : "name" + i % 5;
+            rel.insert(List.of(Cell.val(i - 3), Cell.val(name), Cell.val(i * 1.5)));
+        }
+        return rel;
+    }
+
+    private static List<List<Cell>> rows(Relation rel) {
+        List<List<Cell>> rows = new ArrayList<>();
+        for (int i = 0; i < rel.getSize(); ++i) {
+            rows.add(rel.getRow(i));
+        }
+        return rows;
+    }
+
+    private Path save(Relation rel) {
+        Path path = dir.resolve("rel.mydb");
+        rel.save(path.toString());
+        return path;
+    }
+
+    private static Relation open(Path path) {
+        return new RelationBuilder().open(path.toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void roundtrip(Storage storage) {
+        Relation rel = relation(storage, 100);
+
+        Relation opened = open(save(rel));
+
+        assertEquals(ATTRS, opened.getAttrs());
+        assertEquals(TYPES, opened.getTypes());
+        assertEquals(rows(rel), rows(opened));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void roundtripEmpty(Storage storage) {
+        Relation opened = open(save(relation(storage, 0)));
+
+        assertEquals(ATTRS, opened.getAttrs());
+        assertEquals(TYPES, opened.getTypes());
+        assertEquals(0, opened.getSize());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void appendAfterOpen(Storage storage) throws IOException {
+        Relation rel = relation(storage, 20);
+        Path path = save(rel);
+        byte[] saved = Files.readAllBytes(path);
+
+        Relation opened = open(path);
+        List<Cell> row = List.of(Cell.val(1000), Cell.val("new"), Cell.val(2.5));
+        opened.insert(row);
+        rel.insert(row);
+        RowAppender appender = opened.appender(1);
+        appender.appendInt(1001);
+        appender.appendString("name1");
+        appender.appendDouble(3.5);
+        appender.endRow();
+        rel.insert(List.of(Cell.val(1001), Cell.val("name1"), Cell.val(3.5)));
+
+        assertEquals(rows(rel), rows(opened));
+        assertArrayEquals(saved, Files.readAllBytes(path));
+        assertEquals(20, open(path).getSize());
+    }
+
+    @Test
+    void badMagic() throws IOException {
+        Path path = save(relation(Storage.ROW, 10));
+        write(path, 0, 0x12345678);
+
+        assertThrows(IllegalArgumentException.class, () -> open(path));
+    }
+
+    @Test
+    void truncated() throws IOException {
+        Path path = save(relation(Storage.ROW, 10));
+        long length = Files.size(path);
+
+        for (long size : new long[] {length - 1, length / 2, 20, 10, 0}) {
+            truncate(path, size);
+            assertThrows(IllegalArgumentException.class, () -> open(path), "size " + size);
+        }
+    }
+
+    @Test
+    void codeOutOfRange() throws IOException {
+        Path path = save(relation(Storage.ROW, 10));
+        long section = sectionOffset(path, 1);
+        int dictionarySize = read(path, section);
+        // The code of the first row.
+        write(path, section + 4, dictionarySize);
+
+        Relation opened = open(path);
+
+        assertThrows(IllegalArgumentException.class, () -> opened.getString(0, 1));
+    }
+
+    @Test
+    void offsetOutOfRange() throws IOException {
+        int rows = 10;
+        Path path = save(relation(Storage.ROW, rows));
+        long section = sectionOffset(path, 1);
+        int dictionarySize = read(path, section);
+        // The end offset of the last value.
+        write(path, section + 4 + 4L * rows + 4L * dictionarySize, Integer.MAX_VALUE);
+
+        Relation opened = open(path);
+
+        assertThrows(IllegalArgumentException.class, () -> opened.getString(0, 1));
+    }
+
+    @Test
+    void decreasingOffset() throws IOException {
+        int rows = 10;
+        Path path = save(relation(Storage.ROW, rows));
+        long section = sectionOffset(path, 1);
+        // The start offset of the second value.
+        write(path, section + 4 + 4L * rows + 4, -1);
+
+        Relation opened = open(path);
+
+        assertThrows(IllegalArgumentException.class, () -> opened.getRow(0));
+    }
+
+    /**
+     * Reads the offset of the section of column j from the header.
+     */
+    private static long sectionOffset(Path path, int j) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(path));
+        int columns = header.getInt(12);
+        int position = 16;
+        for (int k = 0; k < columns; ++k) {
+            position += 8 + header.getInt(position + 4);
+        }
+        return header.getLong(position + 16 * j);
+    }
+
+    private static int read(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer, position);
+            return buffer.getInt(0);
+        }
+    }
+
+    private static void write(Path path, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+
+    private static void truncate(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+}
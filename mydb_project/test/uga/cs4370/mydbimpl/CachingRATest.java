@@ -0,0 +1,179 @@
+package uga.cs4370.mydbimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Type;
+
+class CachingRATest {
+
+    private final RA ra = new RAimpl();
+
+    /**
+     * Returns a relation (attr, name) with the given number of rows.
+     */
+    private static Relation relation(String attr, String name, int rows) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(List.of(attr, name))
+                .attributeTypes(List.of(Type.INTEGER, Type.STRING))
+                .build();
+        for (int i = 0; i < rows; ++i) {
+            rel.insert(List.of(Cell.val(i % 10), Cell.val("v" + i)));
+        }
+        return rel;
+    }
+
+    private static List<List<Cell>> rows(Relation rel) {
+        List<List<Cell>> rows = new ArrayList<>();
+        for (int i = 0; i < rel.getSize(); ++i) {
+            rows.add(rel.getRow(i));
+        }
+        return rows;
+    }
+
+    @Test
+    void repeatedCallIsHitWithNewRelation() {
+        CachingRA cached = new CachingRA(ra);
+        Relation rel1 = relation("k", "s", 30);
+        Relation rel2 = relation("k", "t", 20);
+
+        Relation first = cached.join(rel1, rel2);
+        Relation second = cached.join(rel1, rel2);
+
+        assertNotSame(first, second);
+        assertEquals(1, cached.getHits());
+        assertEquals(1, cached.getMisses());
+        assertEquals(rows(ra.join(rel1, rel2)), rows(second));
+    }
+
+    @Test
+    void insertIntoResultDoesNotLeakIntoHits() {
+        CachingRA cached = new CachingRA(ra);
+        Relation rel = relation("k", "s", 30);
+
+        Relation first = cached.union(rel, rel);
+        int size = first.getSize();
+        first.insert(List.of(Cell.val(99), Cell.val("new")));
+        Relation second = cached.union(rel, rel);
+
+        assertEquals(1, cached.getHits());
+        assertEquals(size, second.getSize());
+        assertEquals(size + 1, first.getSize());
+    }
+
+    @Test
+    void insertIntoInputIsMiss() {
+        CachingRA cached = new CachingRA(ra);
+        Relation rel1 = relation("k", "s", 30);
+        Relation rel2 = relation("k", "t", 20);
+
+        cached.join(rel1, rel2);
+        rel1.insert(List.of(Cell.val(1), Cell.val("new")));
+        Relation result = cached.join(rel1, rel2);
+
+        assertEquals(0, cached.getHits());
+        assertEquals(2, cached.getMisses());
+        assertEquals(rows(ra.join(rel1, rel2)), rows(result));
+    }
+
+    @Test
+    void snapshotAsInputIsHit() {
+        CachingRA cached = new CachingRA(ra);
+        Relation rel1 = relation("k", "s", 30);
+        Relation rel2 = relation("k", "t", 20);
+        Condition condition = Condition.col("k").eq(3);
+
+        cached.select(cached.join(rel1, rel2), condition);
+        Relation joined = cached.join(rel1, rel2);
+        long hits = cached.getHits();
+        Relation selected = cached.select(joined, condition);
+
+        assertEquals(hits + 1, cached.getHits());
+        assertEquals(rows(ra.select(ra.join(rel1, rel2), condition)), rows(selected));
+
+        // Once rows are added the snapshot is a relation of its own.
+        joined.insert(List.of(Cell.val(3), Cell.val("x"), Cell.val("y")));
+        long misses = cached.getMisses();
+        Relation changed = cached.select(joined, condition);
+
+        assertEquals(misses + 1, cached.getMisses());
+        assertEquals(selected.getSize() + 1, changed.getSize());
+    }
+
+    @Test
+    void evictionKeepsBudget() {
+        long maxBytes = 3000;
+        CachingRA cached = new CachingRA(ra, maxBytes);
+        Relation rel = relation("k", "s", 100);
+        List<Predicate> predicates = new ArrayList<>();
+        for (int k = 1; k <= 8; ++k) {
+            int bound = k;
+            predicates.add(row -> row.get(0).getAsInt() < bound);
+        }
+
+        for (Predicate predicate : predicates) {
+            cached.select(rel, predicate);
+            assertTrue(cached.getCachedBytes() <= maxBytes);
+        }
+
+        // The most recent result is kept, the oldest one was evicted.
+        long hits = cached.getHits();
+        cached.select(rel, predicates.get(predicates.size() - 1));
+        assertEquals(hits + 1, cached.getHits());
+        long misses = cached.getMisses();
+        cached.select(rel, predicates.get(0));
+        assertEquals(misses + 1, cached.getMisses());
+    }
+
+    @Test
+    void emptyResultsCount() {
+        long maxBytes = 1000;
+        CachingRA cached = new CachingRA(ra, maxBytes);
+        Relation rel = relation("k", "s", 0);
+
+        cached.union(rel, rel);
+        assertTrue(cached.getCachedBytes() > 0);
+
+        // The inputs stay reachable, so only eviction drops their results.
+        List<Relation> inputs = new ArrayList<>();
+        for (int k = 0; k < 100; ++k) {
+            Relation input = relation("k", "s", 0);
+            inputs.add(input);
+            cached.union(rel, input);
+            assertTrue(cached.getCachedBytes() <= maxBytes);
+        }
+    }
+
+    @Test
+    void entriesOfCollectedInputsAreDropped() throws InterruptedException {
+        CachingRA cached = new CachingRA(ra);
+        Relation rel = relation("k", "s", 0);
+        for (int k = 0; k < 100; ++k) {
+            cached.union(relation("k", "s", 0), relation("k", "s", 0));
+        }
+        long bytes = cached.getCachedBytes();
+
+        cached.union(rel, rel);
+        long one = cached.getCachedBytes() - bytes;
+        for (int attempt = 0; attempt < 50 && cached.getCachedBytes() > one; ++attempt) {
+            System.gc();
+            Thread.sleep(20);
+            cached.union(rel, rel);
+        }
+
+        assertEquals(one, cached.getCachedBytes());
+    }
+
+}
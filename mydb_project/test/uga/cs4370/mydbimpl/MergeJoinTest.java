@@ -0,0 +1,79 @@
+package uga.cs4370.mydbimpl;
+
+import static uga.cs4370.mydbimpl.ParallelRAimplTest.assertSameRows;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Checks that natural joins of sorted relations, which are merge joined 
+ * by the RAimpl that sorted them, give the same rows in the same order as
+ * the hash join of another RAimpl.
+ */
+class MergeJoinTest {
+
+    private final RA ra = new RAimpl();
+    private final RA other = new RAimpl();
+
+    /**
+     * Returns a relation (a, b, name) of random rows with repeated keys.
+     */
+    private static Relation relation(String name, int rows, long seed) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(List.of("a", "b", name))
+                .attributeTypes(List.of(Type.INTEGER, Type.STRING, Type.DOUBLE))
+                .build();
+        Random random = new Random(seed);
+        for (int i = 0; i < rows; ++i) {
+            rel.insert(List.of(Cell.val(random.nextInt(20)), Cell.val("b" + random.nextInt(5)),
+                    Cell.val(random.nextDouble())));
+        }
+        return rel;
+    }
+
+    @Test
+    void sortedOnCommonAttributes() {
+        Relation rel1 = ra.sort(relation("x", 500, 1), List.of("b", "a"), true);
+        Relation rel2 = ra.sort(relation("y", 300, 2), List.of("b", "a", "y"), true);
+
+        assertSameRows(other.join(rel1, rel2), ra.join(rel1, rel2));
+        assertSameRows(other.join(rel2, rel1), ra.join(rel2, rel1));
+    }
+
+    @Test
+    void sortedOnSingleAttribute() {
+        Relation rel1 = ra.sort(relation("x", 500, 3), List.of("a"), true);
+        Relation rel2 = ra.project(ra.sort(relation("y", 300, 4), List.of("a"), true), List.of("a", "y"));
+        Relation sorted2 = ra.sort(rel2, List.of("a"), true);
+
+        assertSameRows(other.join(rel1, sorted2), ra.join(rel1, sorted2));
+    }
+
+    @Test
+    void notSortedTheSameWay() {
+        Relation rel1 = ra.sort(relation("x", 500, 5), List.of("a", "b"), true);
+        Relation rel2 = ra.sort(relation("y", 300, 6), List.of("b", "a"), true);
+        Relation descending = ra.sort(relation("z", 300, 7), List.of("a", "b"), false);
+
+        assertSameRows(other.join(rel1, rel2), ra.join(rel1, rel2));
+        assertSameRows(other.join(rel1, descending), ra.join(rel1, descending));
+    }
+
+    @Test
+    void rowsAddedAfterSort() {
+        Relation rel1 = ra.sort(relation("x", 500, 8), List.of("a", "b"), true);
+        Relation rel2 = ra.sort(relation("y", 300, 9), List.of("a", "b"), true);
+        rel1.insert(List.of(Cell.val(0), Cell.val("b0"), Cell.val(0.5)));
+
+        assertSameRows(other.join(rel1, rel2), ra.join(rel1, rel2));
+    }
+
+}
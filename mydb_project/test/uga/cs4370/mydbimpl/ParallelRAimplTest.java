@@ -0,0 +1,192 @@
+package uga.cs4370.mydbimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import uga.cs4370.mydb.Aggregate;
+import uga.cs4370.mydb.Cell;
+import uga.cs4370.mydb.Condition;
+import uga.cs4370.mydb.IndexType;
+import uga.cs4370.mydb.Predicate;
+import uga.cs4370.mydb.RA;
+import uga.cs4370.mydb.Relation;
+import uga.cs4370.mydb.RelationBuilder;
+import uga.cs4370.mydb.Storage;
+import uga.cs4370.mydb.Type;
+
+/**
+ * Checks that the operators give the same rows, in the same order, on
+ * several threads as sequentially. The inputs are large enough to be cut
+ * into several ranges with the small threshold.
+ */
+class ParallelRAimplTest {
+
+    private static final int ROWS = 20_000;
+    private static final int SMALL_THRESHOLD = 1000;
+
+    private final RA sequential = new RAimpl(1);
+    private final RA parallel = new RAimpl(4, SMALL_THRESHOLD);
+
+    /**
+     * Returns a relation (id, dept, salary, year) of random rows.
+     */
+    private static Relation relation(Storage storage, int rows, long seed) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(List.of("id", "dept", "salary", "year"))
+                .attributeTypes(List.of(Type.INTEGER, Type.STRING, Type.DOUBLE, Type.INTEGER))
+                .storage(storage)
+                .build();
+        Random random = new Random(seed);
+        for (int i = 0; i < rows; ++i) {
+            rel.insert(List.of(Cell.val(i), Cell.val("d" + random.nextInt(50)),
+                    Cell.val(random.nextDouble() * 100_000), Cell.val(2000 + random.nextInt(20))));
+        }
+        return rel;
+    }
+
+    /**
+     * Returns a relation (dept, year, budget) of random rows, with some 
+     * keys repeated and some not found in relation.
+     */
+    private static Relation budgets(Storage storage, int rows, long seed) {
+        Relation rel = new RelationBuilder()
+                .attributeNames(List.of("dept", "year", "budget"))
+                .attributeTypes(List.of(Type.STRING, Type.INTEGER, Type.DOUBLE))
+                .storage(storage)
+                .build();
+        Random random = new Random(seed);
+        for (int i = 0; i < rows; ++i) {
+            rel.insert(List.of(Cell.val("d" + random.nextInt(60)), Cell.val(2000 + random.nextInt(25)),
+                    Cell.val(random.nextDouble() * 1_000_000)));
+        }
+        return rel;
+    }
+
+    /**
+     * Asserts that actual has the rows of expected in the same order. The
+     * values of the tolerant attributes are compared within a relative
+     * tolerance, the others exactly.
+     */
+    static void assertSameRows(Relation expected, Relation actual, Set<String> tolerant) {
+        assertEquals(expected.getAttrs(), actual.getAttrs());
+        assertEquals(expected.getTypes(), actual.getTypes());
+        assertEquals(expected.getSize(), actual.getSize());
+        for (int i = 0; i < expected.getSize(); ++i) {
+            for (int j = 0; j < expected.getAttrs().size(); ++j) {
+                if (tolerant.contains(expected.getAttrs().get(j))) {
+                    double value = expected.getDouble(i, j);
+                    assertEquals(value, actual.getDouble(i, j), 1e-9 * Math.max(1, Math.abs(value)),
+                            "row " + i + " column " + j);
+                } else {
+                    assertEquals(expected.getCell(i, j), actual.getCell(i, j), "row " + i + " column " + j);
+                }
+            }
+        }
+    }
+
+    static void assertSameRows(Relation expected, Relation actual) {
+        assertSameRows(expected, actual, Set.of());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void selectWithPredicate(Storage storage) {
+        Relation rel = relation(storage, ROWS, 1);
+        Predicate predicate = row -> row.get(2).getAsDouble() < 30_000;
+
+        assertSameRows(sequential.select(rel, predicate), parallel.select(rel, predicate));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void selectWithCondition(Storage storage) {
+        Relation rel = relation(storage, ROWS, 2);
+        Condition condition = Condition.col("year").ge(2010).and(Condition.col("dept").ne("d7"));
+
+        assertSameRows(sequential.select(rel, condition), parallel.select(rel, condition));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void selectWithIndex(Storage storage) {
+        Relation rel = relation(storage, ROWS, 3);
+        rel.createIndex("year", List.of("year"), IndexType.SORTED);
+        Condition condition = Condition.col("year").lt(2015);
+
+        assertSameRows(sequential.select(rel, condition), parallel.select(rel, condition));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void project(Storage storage) {
+        Relation rel = relation(storage, ROWS, 4);
+
+        assertSameRows(sequential.project(rel, List.of("year", "dept")),
+                parallel.project(rel, List.of("year", "dept")));
+        assertSameRows(sequential.project(rel, List.of("year", "dept"), true),
+                parallel.project(rel, List.of("year", "dept"), true));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void naturalJoinOnSeveralAttributes(Storage storage) {
+        Relation rel1 = relation(storage, ROWS, 6);
+        Relation rel2 = budgets(storage, 2000, 7);
+
+        // Both sides are the build side once.
+        assertSameRows(sequential.join(rel1, rel2), parallel.join(rel1, rel2));
+        assertSameRows(sequential.join(rel2, rel1), parallel.join(rel2, rel1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void naturalJoinOnInteger(Storage storage) {
+        Relation rel1 = relation(storage, ROWS, 8);
+        Relation rel2 = sequential.project(budgets(storage, 100, 9), List.of("year", "budget"));
+
+        assertSameRows(sequential.join(rel1, rel2), parallel.join(rel1, rel2));
+        assertSameRows(sequential.join(rel2, rel1), parallel.join(rel2, rel1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void naturalJoinOnString(Storage storage) {
+        Relation rel1 = relation(storage, ROWS, 10);
+        Relation rel2 = sequential.project(budgets(storage, 500, 11), List.of("dept", "budget"));
+
+        assertSameRows(sequential.join(rel1, rel2), parallel.join(rel1, rel2));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void cartesianProduct(Storage storage) {
+        Relation rel1 = relation(storage, 2000, 12);
+        Relation rel2 = sequential.rename(budgets(storage, 20, 13), List.of("dept", "year"),
+                List.of("dept2", "year2"));
+
+        assertSameRows(sequential.cartesianProduct(rel1, rel2), parallel.cartesianProduct(rel1, rel2));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Storage.class)
+    void groupBy(Storage storage) {
+        Relation rel = relation(storage, ROWS, 5);
+        List<Aggregate> aggregates = List.of(Aggregate.count(), Aggregate.sum("salary").as("total"),
+                Aggregate.avg("salary").as("average"), Aggregate.min("salary").as("lowest"),
+                Aggregate.max("id").as("last"), Aggregate.sum("year").as("years"));
+
+        // Sums and averages of DOUBLE values may differ in the last bits,
+        // see HashAggregation.
+        assertSameRows(sequential.groupBy(rel, List.of("dept", "year"), aggregates),
+                parallel.groupBy(rel, List.of("dept", "year"), aggregates), Set.of("total", "average"));
+        assertSameRows(sequential.groupBy(rel, List.of(), aggregates),
+                parallel.groupBy(rel, List.of(), aggregates), Set.of("total", "average"));
+    }
+
+}